@@ -0,0 +1,38 @@
+package org.example.apigateway.access;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Правила доступа к маршрутам по ролям из токена.
+ * Запрос без нужной роли отклоняется на шлюзе (403) и не доходит до сервиса.
+ * Правила повторяют проверки сервисов, а не заменяют их.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "access-rules")
+public class AccessRuleProperties {
+
+    private boolean enabled = true;
+
+    // Проверяются по порядку, применяется первое правило с подходящим путем и методом
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        // Шаблон пути запроса к шлюзу, например /api/v1/tasks/admin/**
+        private String path;
+
+        // HTTP-методы правила (пусто - все методы)
+        private List<String> methods = new ArrayList<>();
+
+        // Достаточно любой из ролей
+        private List<String> roles = new ArrayList<>();
+    }
+}
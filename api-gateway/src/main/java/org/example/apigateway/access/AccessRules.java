@@ -0,0 +1,72 @@
+package org.example.apigateway.access;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка ролей пользователя по правилам доступа к маршрутам.
+ * Шаблоны путей разбираются один раз при запуске.
+ */
+public class AccessRules {
+
+    private final List<CompiledRule> rules;
+
+    public AccessRules(List<AccessRuleProperties.Rule> rules, MeterRegistry meterRegistry) {
+        this.rules = rules.stream()
+                .map(rule -> compile(rule, meterRegistry))
+                .toList();
+    }
+
+    /**
+     * Метод для проверки доступа к пути.
+     *
+     * @param path - путь запроса
+     * @param method - HTTP-метод
+     * @param roles - роли пользователя из токена
+     * @return - true, если правила нет или у пользователя есть одна из ролей правила
+     */
+    public boolean isAllowed(PathContainer path, HttpMethod method, Collection<?> roles) {
+        for (CompiledRule rule : rules) {
+            if (!rule.matches(path, method)) {
+                continue;
+            }
+            if (roles != null && roles.stream().map(String::valueOf).anyMatch(rule.roles()::contains)) {
+                return true;
+            }
+            rule.denied().increment();
+            return false;
+        }
+        return true;
+    }
+
+    private static CompiledRule compile(AccessRuleProperties.Rule rule, MeterRegistry meterRegistry) {
+        if (rule.getPath() == null || rule.getRoles().isEmpty()) {
+            throw new IllegalStateException("access-rules.rules requires path and at least one role: " + rule.getPath());
+        }
+        Set<HttpMethod> methods = rule.getMethods().stream()
+                .map(method -> HttpMethod.valueOf(method.toUpperCase()))
+                .collect(Collectors.toSet());
+        Counter denied = Counter.builder("gateway.access.denied")
+                .description("Requests rejected by gateway access rules")
+                .tag("rule", rule.getPath())
+                .register(meterRegistry);
+        return new CompiledRule(PathPatternParser.defaultInstance.parse(rule.getPath()), methods,
+                Set.copyOf(rule.getRoles()), denied);
+    }
+
+    private record CompiledRule(PathPattern pattern, Set<HttpMethod> methods, Set<String> roles, Counter denied) {
+
+        boolean matches(PathContainer path, HttpMethod method) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.apigateway.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.dto.TaskDetailsDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Сборка экрана задачи из нескольких сервисов одним запросом к шлюзу.
+ * Задача и комментарии запрашиваются в Task Service параллельно, пользователи (автор и исполнители) -
+ * в Auth Service сразу после получения задачи, не дожидаясь комментариев. Ошибка или таймаут задачи
+ * завершают запрос ошибкой, остальные части заменяются пустыми, а причина попадает в errors.
+ */
+@Slf4j
+public class TaskDetailsAggregator {
+
+    public static final String COMMENTS = "comments";
+    public static final String USERS = "users";
+
+    private static final String TASK_PATH = "/api/v1/tasks/{taskId}";
+    private static final String COMMENTS_PATH = "/api/v1/tasks/comment/{taskId}?page=0&size={size}";
+    private static final String USER_PATH = "/api/v1/auth/executor/{userId}";
+
+    // Одновременные запросы пользователей одной задачи
+    private static final int USERS_CONCURRENCY = 8;
+
+    private final WebClient webClient;
+    private final TaskDetailsProperties properties;
+
+    public TaskDetailsAggregator(WebClient webClient, TaskDetailsProperties properties) {
+        this.webClient = webClient;
+        this.properties = properties;
+    }
+
+    /**
+     * Метод для получения задачи с комментариями и пользователями.
+     *
+     * @param taskId - идентификатор задачи
+     * @param forwarded - заголовки, которые передаются сервисам (токен и заголовки пользователя)
+     * @return - агрегированный ответ; ошибка, если не удалось получить задачу
+     */
+    public Mono<TaskDetailsDto> aggregate(long taskId, HttpHeaders forwarded) {
+        // Ошибки частей пишутся из разных потоков, порядок ключей - для стабильного ответа
+        Map<String, String> errors = Collections.synchronizedMap(new TreeMap<>());
+        String taskService = "http://" + properties.getTaskServiceId();
+
+        // cache: на задачу подписываются и ответ, и запрос пользователей, а в сервис идет один запрос
+        Mono<JsonNode> task = get(taskService + TASK_PATH, forwarded, taskId)
+                .timeout(properties.getTaskTimeout())
+                .cache();
+
+        Mono<Optional<JsonNode>> comments = get(taskService + COMMENTS_PATH, forwarded,
+                taskId, properties.getCommentsPageSize())
+                .timeout(properties.getCommentsTimeout())
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    errors.put(COMMENTS, reason(e));
+                    return Mono.just(Optional.empty());
+                });
+
+        Mono<List<JsonNode>> users = task.flatMap(node -> users(node, forwarded, errors))
+                // Ошибка задачи завершает весь запрос, ее обрабатывает task
+                .onErrorResume(e -> Mono.just(List.of()));
+
+        return Mono.zip(task, comments, users)
+                .map(parts -> new TaskDetailsDto(parts.getT1(), parts.getT2().orElse(null), parts.getT3(),
+                        new TreeMap<>(errors)))
+                .doOnNext(details -> {
+                    if (!details.getErrors().isEmpty()) {
+                        log.debug("Partial task details for task {}: {}", taskId, details.getErrors());
+                    }
+                });
+    }
+
+    /**
+     * Метод для получения автора и исполнителей задачи.
+     * Пользователь, которого не удалось получить, пропускается; таймаут общий для всех пользователей.
+     *
+     * @param task - задача из Task Service
+     * @param forwarded - заголовки для Auth Service
+     * @param errors - ошибки частей ответа
+     * @return - полученные пользователи
+     */
+    private Mono<List<JsonNode>> users(JsonNode task, HttpHeaders forwarded, Map<String, String> errors) {
+        Set<Long> userIds = userIds(task);
+        if (userIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        String authService = "http://" + properties.getAuthServiceId();
+
+        return Flux.fromIterable(userIds)
+                .flatMapSequential(userId -> get(authService + USER_PATH, forwarded, userId)
+                        .onErrorResume(e -> {
+                            errors.putIfAbsent(USERS, reason(e));
+                            return Mono.empty();
+                        }), USERS_CONCURRENCY)
+                .collectList()
+                .timeout(properties.getUsersTimeout())
+                .onErrorResume(e -> {
+                    errors.put(USERS, reason(e));
+                    return Mono.just(List.of());
+                });
+    }
+
+    /**
+     * Метод для получения идентификаторов автора и исполнителей задачи.
+     *
+     * @param task - задача из Task Service
+     * @return - идентификаторы без повторов, не больше max-users
+     */
+    Set<Long> userIds(JsonNode task) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (task.hasNonNull("authorId")) {
+            userIds.add(task.get("authorId").asLong());
+        }
+        for (JsonNode executorId : task.path("executorId")) {
+            userIds.add(executorId.asLong());
+        }
+        return userIds.stream()
+                .limit(properties.getMaxUsers())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private Mono<JsonNode> get(String uri, HttpHeaders forwarded, Object... variables) {
+        return webClient.get()
+                .uri(uri, variables)
+                .headers(headers -> headers.addAll(forwarded))
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+    }
+
+    /**
+     * Метод для описания причины, по которой часть ответа не получена.
+     *
+     * @param e - ошибка запроса
+     * @return - timeout, status <код> или unavailable
+     */
+    static String reason(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return "status " + responseException.getStatusCode().value();
+        }
+        return "unavailable";
+    }
+}
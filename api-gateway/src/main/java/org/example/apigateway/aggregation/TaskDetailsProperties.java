@@ -0,0 +1,32 @@
+package org.example.apigateway.aggregation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки агрегированного ответа для экрана задачи (GET /api/v1/bff/tasks/{taskId}).
+ * Задача, комментарии и пользователи запрашиваются у сервисов параллельно, у каждого запроса свой таймаут.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task-details")
+public class TaskDetailsProperties {
+
+    // Сервисы в Eureka
+    private String taskServiceId = "task-service";
+    private String authServiceId = "authentication-service";
+
+    // Таймауты запросов: без задачи ответа нет, без комментариев и пользователей ответ неполный
+    private Duration taskTimeout = Duration.ofSeconds(2);
+    private Duration commentsTimeout = Duration.ofSeconds(1);
+    private Duration usersTimeout = Duration.ofSeconds(1);
+
+    // Первая страница комментариев
+    private int commentsPageSize = 20;
+
+    // Пользователи задачи (автор и исполнители), которые запрашиваются в Auth Service
+    private int maxUsers = 20;
+}
@@ -0,0 +1,35 @@
+package org.example.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+
+/**
+ * Закэшированный ответ сервиса.
+ *
+ * @param headers - заголовки содержимого (тип, ETag, Cache-Control и т.п.)
+ * @param body - тело ответа
+ * @param storedAt - время получения ответа от сервиса (для заголовка Age)
+ * @param freshUntil - до этого времени ответ отдается без обращения к сервису
+ */
+public record CachedResponse(HttpHeaders headers, byte[] body, Instant storedAt, Instant freshUntil) {
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    public boolean isFresh(Instant now) {
+        return now.isBefore(freshUntil);
+    }
+
+    /**
+     * Метод для продления ответа после подтверждения сервисом (304 Not Modified).
+     *
+     * @param now - текущее время
+     * @param freshUntil - новый срок свежести
+     * @return - ответ с новым сроком
+     */
+    public CachedResponse revalidated(Instant now, Instant freshUntil) {
+        return new CachedResponse(headers, body, now, freshUntil);
+    }
+}
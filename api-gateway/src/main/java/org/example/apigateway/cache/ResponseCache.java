@@ -0,0 +1,219 @@
+package org.example.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Кэш ответов сервисов на GET-запросы.
+ * Срок жизни ответа - минимум из срока маршрута и max-age сервиса; ответы с no-store, private,
+ * no-cache и Set-Cookie не кэшируются. Устаревший ответ с ETag хранится еще stale-ttl,
+ * чтобы проверить его у сервиса условным запросом вместо повторной загрузки.
+ * Размер кэша ограничен суммарным размером тел ответов.
+ */
+public class ResponseCache {
+
+    // Заголовки содержимого, которые сохраняются вместе с телом
+    private static final List<String> STORED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.VARY);
+
+    private static final Set<String> NOT_STORABLE = Set.of("no-store", "no-cache", "private");
+
+    private final List<CompiledRoute> routes;
+    private final long maximumEntrySize;
+    private final Clock clock;
+    private final Cache<String, CachedResponse> cache;
+
+    public ResponseCache(ResponseCacheProperties properties, Clock clock) {
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new CompiledRoute(PathPatternParser.defaultInstance.parse(route.getPath()), route.getTtl()))
+                .toList();
+        this.maximumEntrySize = properties.getMaximumEntrySize().toBytes();
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+                .expireAfter(new ResponseExpiry(properties.getStaleTtl(), clock))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Метод для получения срока жизни ответов пути.
+     *
+     * @param path - путь запроса
+     * @return - срок маршрута или null, если путь не кэшируется
+     */
+    public Duration routeTtl(PathContainer path) {
+        for (CompiledRoute route : routes) {
+            if (route.pattern().matches(path)) {
+                return route.ttl();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Метод для построения ключа кэша.
+     * Ответ зависит от ролей пользователя, а не от конкретного токена, поэтому пользователи
+     * с одинаковыми ролями получают один и тот же ответ.
+     *
+     * @param path - путь и параметры запроса
+     * @param roles - роли пользователя из токена
+     * @param requestHeaders - заголовки запроса (формат и сжатие ответа)
+     * @return - ключ
+     */
+    public static String key(String path, Collection<?> roles, HttpHeaders requestHeaders) {
+        String roleSet = roles == null ? "" : String.join(",", roles.stream().map(String::valueOf).sorted().toList());
+        return path + "|" + roleSet
+                + "|" + String.valueOf(requestHeaders.getFirst(HttpHeaders.ACCEPT))
+                + "|" + String.valueOf(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Метод для сохранения ответа сервиса.
+     *
+     * @param key - ключ
+     * @param status - статус ответа
+     * @param headers - заголовки ответа
+     * @param body - тело ответа
+     * @param routeTtl - срок маршрута
+     * @return - сохраненный ответ или null, если ответ нельзя кэшировать
+     */
+    public CachedResponse put(String key, HttpStatusCode status, HttpHeaders headers, byte[] body, Duration routeTtl) {
+        if (status.value() != 200 || body.length > maximumEntrySize || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.getVary().contains("*")) {
+            return null;
+        }
+        Duration ttl = ttl(headers, routeTtl);
+        if (ttl == null) {
+            return null;
+        }
+
+        HttpHeaders stored = new HttpHeaders();
+        STORED_HEADERS.forEach(name -> {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                stored.put(name, List.copyOf(values));
+            }
+        });
+        Instant now = clock.instant();
+        CachedResponse response = new CachedResponse(HttpHeaders.readOnlyHttpHeaders(stored), body, now, now.plus(ttl));
+        cache.put(key, response);
+        return response;
+    }
+
+    /**
+     * Метод для продления ответа, который сервис подтвердил ответом 304.
+     *
+     * @param key - ключ
+     * @param cached - устаревший ответ
+     * @param headers - заголовки ответа 304
+     * @param routeTtl - срок маршрута
+     * @return - продленный ответ (если новый Cache-Control запрещает кэширование, ответ удаляется из кэша)
+     */
+    public CachedResponse revalidate(String key, CachedResponse cached, HttpHeaders headers, Duration routeTtl) {
+        HttpHeaders effective = headers.getCacheControl() != null ? headers : cached.headers();
+        Duration ttl = ttl(effective, routeTtl);
+        Instant now = clock.instant();
+        if (ttl == null) {
+            cache.invalidate(key);
+            return cached.revalidated(now, now);
+        }
+        CachedResponse response = cached.revalidated(now, now.plus(ttl));
+        cache.put(key, response);
+        return response;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Cache<String, CachedResponse> getCache() {
+        return cache;
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    /**
+     * Метод для вычисления срока жизни ответа по Cache-Control сервиса.
+     *
+     * @param headers - заголовки ответа
+     * @param routeTtl - срок маршрута
+     * @return - срок жизни или null, если ответ нельзя кэшировать
+     */
+    private static Duration ttl(HttpHeaders headers, Duration routeTtl) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return routeTtl;
+        }
+
+        Duration ttl = routeTtl;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String name = directive.trim();
+            String value = null;
+            int eq = name.indexOf('=');
+            if (eq > 0) {
+                value = name.substring(eq + 1).trim().replace("\"", "");
+                name = name.substring(0, eq).trim();
+            }
+            if (NOT_STORABLE.contains(name)) {
+                return null;
+            }
+            if ((name.equals("max-age") || name.equals("s-maxage")) && value != null) {
+                try {
+                    Duration maxAge = Duration.ofSeconds(Long.parseLong(value));
+                    ttl = maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    private record CompiledRoute(PathPattern pattern, Duration ttl) {
+    }
+
+    /**
+     * Срок хранения записи: до конца свежести, для ответа с ETag - еще stale-ttl для условного запроса.
+     */
+    private record ResponseExpiry(Duration staleTtl, Clock clock) implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            Instant retainUntil = value.etag() != null ? value.freshUntil().plus(staleTtl) : value.freshUntil();
+            return Math.max(0, Duration.between(clock.instant(), retainUntil).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
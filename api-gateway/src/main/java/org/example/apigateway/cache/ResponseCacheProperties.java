@@ -0,0 +1,44 @@
+package org.example.apigateway.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки кэша ответов шлюза для GET-запросов.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = false;
+
+    // Суммарный размер тел ответов в кэше
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    // Ответ больше этого размера не кэшируется
+    private DataSize maximumEntrySize = DataSize.ofKilobytes(512);
+
+    // Сколько устаревший ответ с ETag хранится для условного запроса к сервису (If-None-Match)
+    private Duration staleTtl = Duration.ofMinutes(1);
+
+    // Кэшируемые пути, применяется первое подходящее правило
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        // Шаблон пути запроса к шлюзу, например /api/v1/tasks/{taskId:\d+}
+        private String path;
+
+        // Максимальный срок жизни ответа; max-age сервиса может его только уменьшить
+        private Duration ttl = Duration.ofSeconds(5);
+    }
+}
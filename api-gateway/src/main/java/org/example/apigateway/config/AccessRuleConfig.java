@@ -0,0 +1,27 @@
+package org.example.apigateway.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.apigateway.access.AccessRuleProperties;
+import org.example.apigateway.access.AccessRules;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AccessRuleProperties.class)
+@ConditionalOnProperty(value = "access-rules.enabled", matchIfMissing = true)
+public class AccessRuleConfig {
+
+    /**
+     * Правила доступа к маршрутам по ролям из токена
+     *
+     * @param properties - настройки правил
+     * @param meterRegistry - реестр метрик
+     * @return AccessRules
+     */
+    @Bean
+    public AccessRules accessRules(AccessRuleProperties properties, MeterRegistry meterRegistry) {
+        return new AccessRules(properties.getRules(), meterRegistry);
+    }
+}
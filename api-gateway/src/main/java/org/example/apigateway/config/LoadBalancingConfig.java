@@ -0,0 +1,15 @@
+package org.example.apigateway.config;
+
+import org.example.apigateway.loadbalancer.LeastLoadedLoadBalancerConfiguration;
+import org.example.apigateway.loadbalancer.LoadBalancingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancingProperties.class)
+@ConditionalOnProperty(value = "load-balancing.strategy", havingValue = "least-loaded", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LeastLoadedLoadBalancerConfiguration.class)
+public class LoadBalancingConfig {
+}
@@ -0,0 +1,75 @@
+package org.example.apigateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.apigateway.overload.EventLoopLagProbe;
+import org.example.apigateway.overload.OverloadDetector;
+import org.example.apigateway.overload.OverloadProperties;
+import org.example.apigateway.overload.RequestPriorities;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(OverloadProperties.class)
+@ConditionalOnProperty(value = "overload.enabled", matchIfMissing = true)
+public class OverloadConfig implements SchedulingConfigurer {
+
+    private final OverloadProperties properties;
+    private final OverloadDetector overloadDetector;
+    private final ReactorResourceFactory reactorResourceFactory;
+
+    public OverloadConfig(OverloadProperties properties, ReactorResourceFactory reactorResourceFactory) {
+        this.properties = properties;
+        this.overloadDetector = new OverloadDetector(properties);
+        this.reactorResourceFactory = reactorResourceFactory;
+    }
+
+    /**
+     * Оценка перегрузки шлюза
+     *
+     * @param meterRegistry - реестр метрик
+     * @return OverloadDetector
+     */
+    @Bean
+    public OverloadDetector overloadDetector(MeterRegistry meterRegistry) {
+        Gauge.builder("gateway.overload.pressure", overloadDetector, OverloadDetector::pressure)
+                .description("Gateway load relative to overload thresholds (1.0 - threshold reached)")
+                .register(meterRegistry);
+        Gauge.builder("gateway.overload.in.flight", overloadDetector, OverloadDetector::inFlight)
+                .register(meterRegistry);
+        Gauge.builder("gateway.overload.latency", overloadDetector,
+                        detector -> detector.latencyNanos() / TimeUnit.MILLISECONDS.toNanos(1))
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("gateway.overload.event.loop.lag", overloadDetector,
+                        detector -> detector.eventLoopLagNanos() / TimeUnit.MILLISECONDS.toNanos(1))
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return overloadDetector;
+    }
+
+    /**
+     * Классы запросов для сброса нагрузки
+     *
+     * @return RequestPriorities
+     */
+    @Bean
+    public RequestPriorities requestPriorities() {
+        return new RequestPriorities(properties.getRules(), properties.getDefaultPriority());
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        // Циклы сервера шлюза (общие ресурсы Reactor Netty)
+        EventLoopLagProbe probe = new EventLoopLagProbe(
+                () -> reactorResourceFactory.getLoopResources().onServer(true), overloadDetector);
+        registrar.addFixedRateTask(probe::sample, properties.getProbeInterval());
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.apigateway.config;
+
+import org.example.apigateway.ratelimit.ClusterRateLimitStore;
+import org.example.apigateway.ratelimit.LocalRateLimitStore;
+import org.example.apigateway.ratelimit.RateLimitProperties;
+import org.example.apigateway.ratelimit.RateLimitStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(value = "rate-limit.enabled", matchIfMissing = true)
+public class RateLimitConfig implements SchedulingConfigurer {
+
+    private final RateLimitProperties properties;
+    private final LocalRateLimitStore localRateLimitStore = new LocalRateLimitStore();
+    private ClusterRateLimitStore clusterRateLimitStore;
+
+    public RateLimitConfig(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Хранилище корзин токенов: локальное или с долей общего лимита кластера
+     *
+     * @param discoveryClient - реестр сервисов
+     * @param serviceId - имя шлюза в реестре
+     * @return RateLimitStore
+     */
+    @Bean
+    public RateLimitStore rateLimitStore(DiscoveryClient discoveryClient,
+                                         @Value("${spring.application.name:api-gateway}") String serviceId) {
+        validate(properties.getDefaultLimit(), "default-limit");
+        properties.getRoutes().forEach((route, limit) -> validate(limit, "routes." + route));
+
+        if (properties.getMode() == RateLimitProperties.Mode.CLUSTER) {
+            clusterRateLimitStore = new ClusterRateLimitStore(localRateLimitStore, discoveryClient, serviceId);
+            return clusterRateLimitStore;
+        }
+        return localRateLimitStore;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        // Полные корзины удаляются, чтобы память не росла с количеством клиентов
+        registrar.addFixedDelayTask(localRateLimitStore::evictFull, properties.getCleanupInterval());
+        if (properties.getMode() == RateLimitProperties.Mode.CLUSTER) {
+            registrar.addFixedDelayTask(() -> {
+                if (clusterRateLimitStore != null) {
+                    clusterRateLimitStore.refreshInstances();
+                }
+            }, properties.getInstancesRefreshInterval());
+        }
+    }
+
+    private void validate(RateLimitProperties.Limit limit, String name) {
+        if (limit != null && (limit.getCapacity() < 1 || limit.getRefillPerSecond() <= 0)) {
+            throw new IllegalStateException("rate-limit." + name + " requires capacity >= 1 and refill-per-second > 0");
+        }
+    }
+}
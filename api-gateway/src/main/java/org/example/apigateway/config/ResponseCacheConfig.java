@@ -0,0 +1,33 @@
+package org.example.apigateway.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.apigateway.cache.ResponseCache;
+import org.example.apigateway.cache.ResponseCacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(value = "response-cache.enabled")
+public class ResponseCacheConfig {
+
+    /**
+     * Кэш ответов сервисов на GET-запросы
+     *
+     * @param properties - настройки кэша
+     * @param meterRegistry - реестр метрик
+     * @return ResponseCache
+     */
+    @Bean
+    public ResponseCache responseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        ResponseCache responseCache = new ResponseCache(properties, Clock.systemUTC());
+        // cache.gets{result=hit|miss}, cache.size, cache.evictions
+        CaffeineCacheMetrics.monitor(meterRegistry, responseCache.getCache(), "gateway-response");
+        return responseCache;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.apigateway.config;
+
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.apigateway.resilience.RouteResilience;
+import org.example.apigateway.resilience.RouteResilienceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RouteResilienceProperties.class)
+@ConditionalOnProperty(value = "route-resilience.enabled", matchIfMissing = true)
+public class RouteResilienceConfig {
+
+    /**
+     * Circuit breaker, bulkhead и бюджет повторов маршрутов
+     *
+     * @param properties - политики маршрутов
+     * @param meterRegistry - реестр метрик
+     * @return RouteResilience
+     */
+    @Bean
+    public RouteResilience routeResilience(RouteResilienceProperties properties, MeterRegistry meterRegistry) {
+        RouteResilience routeResilience = new RouteResilience(properties);
+        // resilience4j.circuitbreaker.state/calls/failure.rate, resilience4j.bulkhead.available.concurrent.calls
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(routeResilience.getCircuitBreakerRegistry())
+                .bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(routeResilience.getBulkheadRegistry()).bindTo(meterRegistry);
+        return routeResilience;
+    }
+}
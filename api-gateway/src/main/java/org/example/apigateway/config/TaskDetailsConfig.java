@@ -0,0 +1,33 @@
+package org.example.apigateway.config;
+
+import org.example.apigateway.aggregation.TaskDetailsAggregator;
+import org.example.apigateway.aggregation.TaskDetailsProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+@EnableConfigurationProperties(TaskDetailsProperties.class)
+public class TaskDetailsConfig {
+
+    /**
+     * Сборка экрана задачи из Task Service и Auth Service
+     *
+     * @param webClientBuilder - общий builder WebClient
+     * @param loadBalancerFunction - балансировка между экземплярами сервиса
+     * @param properties - настройки агрегированного ответа
+     * @return TaskDetailsAggregator
+     */
+    @Bean
+    public TaskDetailsAggregator taskDetailsAggregator(WebClient.Builder webClientBuilder,
+                                                       ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                                       TaskDetailsProperties properties) {
+        // clone: общий builder не должен получить балансировку; экземпляр выбирается по ID сервиса в адресе
+        WebClient webClient = webClientBuilder.clone()
+                .filter(loadBalancerFunction)
+                .build();
+        return new TaskDetailsAggregator(webClient, properties);
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.apigateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.channel.ChannelOption;
+import org.example.apigateway.token.IdentityHeaders;
+import org.example.apigateway.token.LocalTokenValidator;
+import org.example.apigateway.token.RevocationSet;
+import org.example.apigateway.token.RevocationStreamClient;
+import org.example.apigateway.token.TokenCacheEndpoint;
+import org.example.apigateway.token.TokenValidationCache;
+import org.example.apigateway.token.TokenValidationProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Instant;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(TokenValidationProperties.class)
+public class TokenValidationConfig implements SchedulingConfigurer {
+
+    private final TokenValidationProperties properties;
+    private final RevocationSet revocationSet = new RevocationSet();
+
+    public TokenValidationConfig(TokenValidationProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Список отозванных токенов, который наполняется потоком из Auth Service
+     *
+     * @param meterRegistry - реестр метрик
+     * @return RevocationSet
+     */
+    @Bean
+    public RevocationSet revocationSet(MeterRegistry meterRegistry) {
+        Gauge.builder("gateway.jwt.revoked", revocationSet, RevocationSet::size)
+                .description("Number of revoked unexpired access tokens known to the gateway")
+                .register(meterRegistry);
+        Gauge.builder("gateway.jwt.revocations.synced", revocationSet, set -> set.isSynced() ? 1 : 0)
+                .description("Whether the token revocation stream is connected and up to date")
+                .register(meterRegistry);
+        return revocationSet;
+    }
+
+    /**
+     * Локальная проверка подписи, срока действия и отзыва токена
+     *
+     * @param secretKey - ключ подписи токенов
+     * @return LocalTokenValidator
+     */
+    @Bean
+    public LocalTokenValidator localTokenValidator(@Value("${security.jwt.secret_key}") String secretKey) {
+        return new LocalTokenValidator(secretKey, revocationSet);
+    }
+
+    /**
+     * Подписанные заголовки пользователя для сервисов за шлюзом
+     *
+     * @param secretKey - внутренний ключ подписи, общий с сервисами (base64)
+     * @return IdentityHeaders
+     */
+    @Bean
+    @ConditionalOnProperty(value = "security.identity-headers.enabled")
+    public IdentityHeaders identityHeaders(@Value("${security.identity-headers.secret_key:}") String secretKey) {
+        return new IdentityHeaders(secretKey);
+    }
+
+    /**
+     * Клиент проверки токенов в Auth Service: один на шлюз, с пулом соединений, таймаутами
+     * и выбором экземпляра Auth Service через Eureka
+     *
+     * @param webClientBuilder - общий builder WebClient
+     * @param loadBalancerFunction - балансировка между экземплярами сервиса
+     * @return WebClient
+     */
+    @Bean
+    public WebClient authWebClient(WebClient.Builder webClientBuilder,
+                                   ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        TokenValidationProperties.Client client = properties.getClient();
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("auth-service")
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .maxIdleTime(client.getMaxIdleTime())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+                .responseTimeout(client.getResponseTimeout());
+
+        // clone: общий builder не должен получить адрес и настройки клиента Auth Service
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(loadBalancerFunction)
+                .baseUrl("http://" + properties.getAuthServiceId())
+                .build();
+    }
+
+    /**
+     * Подписка на поток отозванных токенов (только в режиме local)
+     *
+     * @param webClientBuilder - общий builder WebClient
+     * @param loadBalancerFunction - выбор экземпляра Auth Service при каждом переподключении
+     * @return RevocationStreamClient
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(value = "token-validation.mode", havingValue = "local", matchIfMissing = true)
+    public RevocationStreamClient revocationStreamClient(WebClient.Builder webClientBuilder,
+                                                         ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        // Отдельный клиент: таймаут ответа клиента проверки токенов оборвал бы долгий поток
+        WebClient webClient = webClientBuilder.clone()
+                .filter(loadBalancerFunction)
+                .baseUrl("http://" + properties.getAuthServiceId())
+                .build();
+        return new RevocationStreamClient(webClient, revocationSet, properties);
+    }
+
+    /**
+     * Кэш результатов проверки токенов в Auth Service
+     *
+     * @param meterRegistry - реестр метрик
+     * @return TokenValidationCache
+     */
+    @Bean
+    @ConditionalOnProperty(value = "token-validation.cache.enabled", matchIfMissing = true)
+    public TokenValidationCache tokenValidationCache(MeterRegistry meterRegistry) {
+        TokenValidationProperties.Cache cache = properties.getCache();
+        TokenValidationCache tokenValidationCache = new TokenValidationCache(
+                cache.getMaximumSize(), cache.getTtl(), cache.getNegativeTtl());
+        // cache.gets{result=hit|miss}, cache.size, cache.evictions
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenValidationCache.getCache(), "token-validation");
+        return tokenValidationCache;
+    }
+
+    /**
+     * Эндпоинт статистики и сброса кэша (/actuator/tokencache)
+     *
+     * @param tokenValidationCache - кэш результатов проверки токенов
+     * @return TokenCacheEndpoint
+     */
+    @Bean
+    @ConditionalOnProperty(value = "token-validation.cache.enabled", matchIfMissing = true)
+    public TokenCacheEndpoint tokenCacheEndpoint(TokenValidationCache tokenValidationCache) {
+        return new TokenCacheEndpoint(tokenValidationCache);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        // Истекшие токены отклоняются проверкой срока, их записи больше не нужны
+        registrar.addFixedDelayTask(() -> revocationSet.purgeExpired(Instant.now().getEpochSecond()),
+                properties.getPurgeInterval());
+    }
+}
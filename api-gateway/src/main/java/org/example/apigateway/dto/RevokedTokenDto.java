@@ -0,0 +1,21 @@
+package org.example.apigateway.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "RevokedTokenDto", description = "Отозванный access токен из потока Auth Service")
+public class RevokedTokenDto {
+
+    @Schema(description = "ID токена (jti)")
+    private String jti;
+
+    @Schema(description = "Срок действия токена, секунды с начала эпохи")
+    private long exp;
+}
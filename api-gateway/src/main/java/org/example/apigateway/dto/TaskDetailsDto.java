@@ -0,0 +1,31 @@
+package org.example.apigateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "TaskDetailsDto", description = "Задача с комментариями и пользователями одним ответом шлюза")
+public class TaskDetailsDto {
+
+    @Schema(description = "Задача (ответ Task Service без изменений)")
+    private JsonNode task;
+
+    @Schema(description = "Первая страница комментариев или null, если их не удалось получить")
+    private JsonNode comments;
+
+    @Schema(description = "Автор и исполнители задачи из Auth Service (только полученные)")
+    private List<JsonNode> users;
+
+    @Schema(description = "Части ответа, которые не удалось получить, и причина: timeout, status <код>, unavailable")
+    private Map<String, String> errors;
+}
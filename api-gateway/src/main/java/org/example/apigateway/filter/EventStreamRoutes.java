@@ -0,0 +1,30 @@
+package org.example.apigateway.filter;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Определение запросов к потоку событий задач (SSE).
+ * Поток открыт долго, поэтому не учитывается сбросом нагрузки, bulkhead и метриками задержки.
+ * Запрос определяется только по методу и пути: заголовок Accept задает клиент, и по нему
+ * любой запрос мог бы обойти защиту шлюза.
+ */
+public final class EventStreamRoutes {
+
+    private static final PathPattern TASK_EVENTS = PathPatternParser.defaultInstance.parse("/api/v1/tasks/events");
+
+    private EventStreamRoutes() {
+    }
+
+    /**
+     * Метод для проверки, является ли запрос подпиской на поток событий.
+     *
+     * @param request - HTTP-запрос
+     * @return - true для GET /api/v1/tasks/events
+     */
+    public static boolean isEventStream(ServerHttpRequest request) {
+        return request.getMethod() == HttpMethod.GET && TASK_EVENTS.matches(request.getPath().pathWithinApplication());
+    }
+}
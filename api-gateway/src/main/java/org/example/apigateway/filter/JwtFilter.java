@@ -1,34 +1,84 @@
 package org.example.apigateway.filter;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.access.AccessRules;
 import org.example.apigateway.dto.TokenRequest;
+import org.example.apigateway.token.IdentityHeaders;
+import org.example.apigateway.token.LocalTokenValidator;
+import org.example.apigateway.token.SingleFlight;
+import org.example.apigateway.token.TokenValidationCache;
+import org.example.apigateway.token.TokenValidationProperties;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.List;
+
 /**
  * Фильтр для проверки JWT токенов на уровне API Gateway.
  * Этот фильтр проверяет наличие и валидность JWT токена в каждом запросе.
+ * Подпись, срок действия и отзыв проверяются на шлюзе; Auth Service вызывается, только если
+ * отзыв нельзя проверить локально (токен без jti или нет связи с потоком отозванных токенов).
+ * После проверки пользователь передается сервисам в подписанных заголовках X-Auth-*, если это включено.
+ * Запрос к маршруту, для которого у пользователя нет роли, отклоняется со статусом 403 (FORBIDDEN).
  * Если токен отсутствует или некорректен, возвращается статус 401 (UNAUTHORIZED).
  * В противном случае запрос передается дальше в цепочку фильтров.
  */
 @Slf4j
 @Component
-public class JwtFilter implements GlobalFilter {
+public class JwtFilter implements GlobalFilter, Ordered {
+
+    // Claims проверенного токена для следующих фильтров (ключ кэша ответов)
+    public static final String CLAIMS_ATTR = JwtFilter.class.getName() + ".claims";
+
+    // Время проверки токена в наносекундах для метрик маршрута
+    public static final String VALIDATION_TIME_ATTR = JwtFilter.class.getName() + ".validationTime";
+
+    private final WebClient authWebClient;
+    private final ObservationRegistry observationRegistry;
+    private final LocalTokenValidator localTokenValidator;
+    private final TokenValidationProperties properties;
+    private final TokenValidationCache tokenValidationCache;
+    private final IdentityHeaders identityHeaders;
+    private final AccessRules accessRules;
 
-    private final WebClient.Builder webClientBuilder;
+    // Одновременные проверки одного токена ждут одного вызова Auth Service
+    private final SingleFlight<String, Boolean> validations = new SingleFlight<>();
 
-    public JwtFilter(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    public JwtFilter(WebClient authWebClient,
+                     ObservationRegistry observationRegistry,
+                     LocalTokenValidator localTokenValidator,
+                     TokenValidationProperties properties,
+                     ObjectProvider<TokenValidationCache> tokenValidationCache,
+                     ObjectProvider<IdentityHeaders> identityHeaders,
+                     ObjectProvider<AccessRules> accessRules) {
+        this.authWebClient = authWebClient;
+        this.observationRegistry = observationRegistry;
+        this.localTokenValidator = localTokenValidator;
+        this.properties = properties;
+        // Кэш отключается настройкой token-validation.cache.enabled
+        this.tokenValidationCache = tokenValidationCache.getIfAvailable();
+        // Подписанные заголовки пользователя включаются настройкой security.identity-headers.enabled
+        this.identityHeaders = identityHeaders.getIfAvailable();
+        // Правила доступа к маршрутам отключаются настройкой access-rules.enabled
+        this.accessRules = accessRules.getIfAvailable();
     }
 
     /**
-     * Фильтр для проверки JWT токенов на уровне API Gateway с помощью Auth Service.
+     * Фильтр для проверки JWT токенов на уровне API Gateway.
      *
      * @param exchange Объект Exchange, содержащий информацию о текущем запросе.
      * @param chain Следующий фильтр в цепочке.
@@ -36,6 +86,8 @@ public class JwtFilter implements GlobalFilter {
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Заголовки пользователя выставляет только шлюз, присланные клиентом удаляются на любом маршруте
+        exchange = stripIdentityHeaders(exchange);
         String path = exchange.getRequest().getURI().getPath();
 
         // Логируем путь запроса
@@ -63,22 +115,165 @@ public class JwtFilter implements GlobalFilter {
 
         String token = authHeader.substring(7); // Извлекаем токен
 
-        log.debug("Received token: {}", token);
+        // Токен разбирается один раз: для проверки, ключа кэша и заголовков пользователя
+        Claims claims = localTokenValidator.parse(token);
+        // Сам токен в лог не пишется: это учетные данные, даже если он отозван или неверен
+        log.debug("Received token of {}", describe(claims));
+        ServerWebExchange validated = exchange;
+
+        // Роль проверяется до обращения к Auth Service: отзыв токена не дает доступа, которого нет по ролям
+        if (!isAllowed(exchange, claims)) {
+            log.warn("Access denied for {} to {} {}", claims.getSubject(), exchange.getRequest().getMethod(), path);
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
 
-        // Проверка токена через Auth Service
-        return isValidToken(token)
+        // Проверка токена на шлюзе, при необходимости - через Auth Service
+        long validationStart = System.nanoTime();
+        return observeValidation(validate(token, claims))
+                .doOnNext(valid -> validated.getAttributes()
+                        .put(VALIDATION_TIME_ATTR, System.nanoTime() - validationStart))
                 .flatMap(valid -> { // Преобразование Mono<Boolean> в Mono<Void>
                     if (!valid) {
-                        log.warn("Invalid token: {}", token);
-                        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED); // Если токен некорректен, возвращаем статус 401
-                        return exchange.getResponse().setComplete();
+                        log.warn("Invalid token of {}", describe(claims));
+                        validated.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED); // Если токен некорректен, возвращаем статус 401
+                        return validated.getResponse().setComplete();
                     }
 
-                    log.debug("Token is valid: {}", token);
-                    return chain.filter(exchange);
+                    log.debug("Token of {} is valid", describe(claims));
+                    if (claims != null) {
+                        validated.getAttributes().put(CLAIMS_ATTR, claims);
+                    }
+                    return chain.filter(withIdentityHeaders(validated, claims));
                 });
     }
 
+    @Override
+    public int getOrder() {
+        // После ограничения частоты запросов, до выбора экземпляра сервиса и отправки запроса
+        return Ordered.HIGHEST_PRECEDENCE + 10_001;
+    }
+
+    private ServerWebExchange stripIdentityHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (IdentityHeaders.ALL.stream().noneMatch(headers::containsKey)) {
+            return exchange;
+        }
+        log.warn("Client sent identity headers, removing them");
+        return exchange.mutate()
+                .request(request -> request.headers(h -> IdentityHeaders.ALL.forEach(h::remove)))
+                .build();
+    }
+
+    /**
+     * Метод для описания токена в логе без самого токена.
+     *
+     * @param claims - claims токена с проверенной подписью
+     * @return - пользователь и идентификатор токена или признак неверной подписи/срока
+     */
+    private static String describe(Claims claims) {
+        if (claims == null) {
+            return "unverified token (bad signature or expired)";
+        }
+        return "subject " + claims.getSubject() + ", jti " + claims.getId();
+    }
+
+    /**
+     * Метод для проверки ролей пользователя по правилам доступа к маршрутам.
+     * Без claims (неверная подпись или срок) решение принимается после проверки токена: запрос получит 401.
+     *
+     * @param exchange - текущий запрос
+     * @param claims - claims токена с проверенной подписью
+     * @return - true, если доступ разрешен или его нельзя проверить на шлюзе
+     */
+    private boolean isAllowed(ServerWebExchange exchange, Claims claims) {
+        if (accessRules == null || claims == null) {
+            return true;
+        }
+        return accessRules.isAllowed(exchange.getRequest().getPath().pathWithinApplication(),
+                exchange.getRequest().getMethod(), claims.get("roles", List.class));
+    }
+
+    /**
+     * Метод для передачи пользователя сервисам в подписанных заголовках.
+     * Без claims (ключи шлюза и Auth Service различаются) сервис разберет токен сам.
+     *
+     * @param exchange - текущий запрос
+     * @param claims - claims проверенного токена
+     * @return - запрос с заголовками пользователя
+     */
+    private ServerWebExchange withIdentityHeaders(ServerWebExchange exchange, Claims claims) {
+        if (identityHeaders == null || claims == null) {
+            return exchange;
+        }
+        long now = Instant.now().getEpochSecond();
+        return exchange.mutate()
+                .request(request -> request.headers(h -> identityHeaders.write(h, claims, now)))
+                .build();
+    }
+
+    /**
+     * Метод для выбора способа проверки токена.
+     *
+     * @param token - JWT токен
+     * @param claims - claims токена с проверенной подписью (null, если подпись или срок неверны)
+     * @return - результат проверки
+     */
+    private Mono<Boolean> validate(String token, Claims claims) {
+        if (properties.getMode() == TokenValidationProperties.Mode.REMOTE) {
+            return remoteValidation(token, claims);
+        }
+
+        LocalTokenValidator.Result result = localTokenValidator.validate(claims);
+        if (result == LocalTokenValidator.Result.UNVERIFIED) {
+            log.debug("Token revocation cannot be checked locally, asking authentication service");
+            return remoteValidation(token, claims);
+        }
+        return Mono.just(result == LocalTokenValidator.Result.VALID);
+    }
+
+    /**
+     * Метод для проверки токена в Auth Service с учетом кэша результатов.
+     * Ошибка вызова не кэшируется, а запрос отклоняется.
+     *
+     * @param token - JWT токен
+     * @param claims - claims токена для срока жизни записи кэша
+     * @return - результат проверки
+     */
+    private Mono<Boolean> remoteValidation(String token, Claims claims) {
+        // Кэш сам объединяет одновременные проверки одного токена
+        Mono<Boolean> validation = tokenValidationCache != null
+                ? tokenValidationCache.get(token, claims, this::isValidToken)
+                : validations.execute(token, this::isValidToken);
+
+        return validation.onErrorResume(WebClientException.class, e -> {
+            log.error("Error validating token: {}", e.getMessage());
+            return Mono.just(false);
+        });
+    }
+
+    /**
+     * Метод для выделения проверки токена в отдельный span внутри трассировки запроса.
+     * Вызов Auth Service (если он нужен) становится дочерним span этой проверки.
+     *
+     * @param validation - проверка токена
+     * @return - результат проверки
+     */
+    private Mono<Boolean> observeValidation(Mono<Boolean> validation) {
+        return Mono.deferContextual(contextView -> {
+            Observation observation = Observation.createNotStarted("gateway.jwt.validate", observationRegistry)
+                    .contextualName("jwt validate")
+                    .parentObservation(contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .start();
+
+            return validation
+                    .doOnNext(valid -> observation.lowCardinalityKeyValue("jwt.valid", String.valueOf(valid)))
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
     /**
      * Проверяет валидность JWT токена.
      * Проверяет наличие и валидность токена в Auth Service.
@@ -87,23 +282,15 @@ public class JwtFilter implements GlobalFilter {
      * @return Mono<Boolean>, возвращающее true, если токен валиден, иначе false.
      */
     private Mono<Boolean> isValidToken(String token) {
-        log.debug("Sending token to authentication service for validation: {}", token);
+        log.debug("Sending token to authentication service for validation");
 
-        return webClientBuilder.baseUrl("http://authentication-service:8081")
-                .build()
-                .post()
-                .uri("api/v1/auth/validate-token")
-                .bodyValue(new TokenRequest(token)) // Передаем токен в заголовке
+        return authWebClient.post()
+                .uri(properties.getValidatePath())
+                .bodyValue(new TokenRequest(token)) // Передаем токен в теле запроса
                 .retrieve()
-                .onStatus(status -> status.isError(), response -> {
-                    log.error("Error validating token: {}. Status code: {}", token, response.statusCode());
-                    return Mono.empty(); // Если ошибка, возвращаем пустое Mono
-                })
-                .toBodilessEntity()  // Получаем только статусный код
-                .map(response -> {
-                    boolean isValid = response.getStatusCode().is2xxSuccessful(); // Проверяем код статуса, если 2xx, то токен валиден
-                    log.debug("Token validation response: {}", isValid ? "valid" : "invalid");
-                    return isValid;
-                });
+                // Auth Service отвечает 200 и для невалидного токена, результат - в теле ответа
+                .bodyToMono(Boolean.class)
+                .defaultIfEmpty(false)
+                .doOnNext(isValid -> log.debug("Token validation response: {}", isValid ? "valid" : "invalid"));
     }
 }
@@ -0,0 +1,97 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.overload.OverloadDetector;
+import org.example.apigateway.overload.OverloadProperties;
+import org.example.apigateway.overload.RequestPriorities;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Фильтр сброса нагрузки при перегрузке шлюза.
+ * При росте нагрузки первыми отклоняются запросы класса low (массовое чтение списков), затем normal;
+ * critical (смена статуса, администрирование, вход) проходят всегда. Отклоненный запрос получает 503
+ * с Retry-After до проверки токена, поэтому почти ничего не стоит шлюзу.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "overload.enabled", matchIfMissing = true)
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    private final OverloadDetector overloadDetector;
+    private final RequestPriorities requestPriorities;
+    private final OverloadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public LoadSheddingFilter(OverloadDetector overloadDetector,
+                              RequestPriorities requestPriorities,
+                              OverloadProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.overloadDetector = overloadDetector;
+        this.requestPriorities = requestPriorities;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Фильтр для отклонения запросов низкого класса при перегрузке.
+     *
+     * @param exchange Объект Exchange, содержащий информацию о текущем запросе.
+     * @param chain Следующий фильтр в цепочке.
+     * @return Mono<Void> Объект Mono, содержащий результат фильтрации.
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        // Поток событий (SSE) открыт долго и исказил бы число запросов в работе и задержку
+        if (EventStreamRoutes.isEventStream(request)) {
+            return chain.filter(exchange);
+        }
+
+        OverloadProperties.Priority priority = requestPriorities.priorityOf(
+                request.getPath().pathWithinApplication(), request.getMethod());
+        if (overloadDetector.shouldShed(priority)) {
+            log.debug("Overloaded, shedding {} request {} {}", priority, request.getMethod(), request.getPath());
+            count(priority);
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+            return exchange.getResponse().setComplete();
+        }
+
+        overloadDetector.onStart();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    overloadDetector.onComplete();
+                    // Только время ответа сервиса: запросы, отклоненные шлюзом, и медленные клиенты не сигнал перегрузки
+                    Long upstreamNanos = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_TIME_ATTR);
+                    if (upstreamNanos != null) {
+                        overloadDetector.recordUpstreamLatency(upstreamNanos);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // До ограничения частоты и проверки токена
+        return Ordered.HIGHEST_PRECEDENCE + 9_000;
+    }
+
+    private void count(OverloadProperties.Priority priority) {
+        Counter.builder("gateway.overload.shed")
+                .description("Requests rejected by gateway load shedding")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.apigateway.filter;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.ratelimit.RateLimitProperties;
+import org.example.apigateway.ratelimit.RateLimitResult;
+import org.example.apigateway.ratelimit.RateLimitStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр ограничения частоты запросов.
+ * У каждого пользователя (subject JWT с верной подписью) или IP клиента своя корзина токенов на маршруте.
+ * Выполняется до проверки токена, чтобы поток запросов не доходил до Auth Service.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "rate-limit.enabled", matchIfMissing = true)
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitProperties properties;
+    private final RateLimitStore rateLimitStore;
+    private final MeterRegistry meterRegistry;
+    private final JwtParser jwtParser;
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           RateLimitStore rateLimitStore,
+                           MeterRegistry meterRegistry,
+                           @Value("${security.jwt.secret_key}") String secretKey) {
+        this.properties = properties;
+        this.rateLimitStore = rateLimitStore;
+        this.meterRegistry = meterRegistry;
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build();
+        Gauge.builder("gateway.ratelimit.buckets", rateLimitStore, RateLimitStore::size)
+                .description("Number of active rate limit buckets")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Фильтр для ограничения частоты запросов клиента на маршруте.
+     *
+     * @param exchange Объект Exchange, содержащий информацию о текущем запросе.
+     * @param chain Следующий фильтр в цепочке.
+     * @return Mono<Void> Объект Mono, содержащий результат фильтрации.
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        RateLimitProperties.Limit limit = properties.getRoutes().getOrDefault(routeId, properties.getDefaultLimit());
+
+        // Маршрут без лимита
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+
+        String subject = resolveSubject(exchange);
+        String keyType = subject != null ? "user" : "ip";
+        String client = subject != null ? subject : resolveClientIp(exchange);
+
+        return rateLimitStore.tryConsume(routeId + ":" + keyType + ":" + client, limit)
+                .flatMap(result -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.getHeaders().set(LIMIT_HEADER, String.valueOf(limit.getCapacity()));
+                    response.getHeaders().set(REMAINING_HEADER, String.valueOf(result.remaining()));
+                    count(routeId, keyType, result);
+
+                    if (result.allowed()) {
+                        return chain.filter(exchange);
+                    }
+
+                    log.debug("Rate limit exceeded on route {} for {} {}", routeId, keyType, client);
+                    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(result)));
+                    return response.setComplete();
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // После служебных фильтров шлюза, до проверки токена
+        return Ordered.HIGHEST_PRECEDENCE + 10_000;
+    }
+
+    /**
+     * Метод для получения пользователя из токена.
+     * Subject берется только из токена с верной подписью, иначе клиент мог бы менять его,
+     * чтобы получить новую корзину. Для просроченного или поддельного токена лимит считается по IP.
+     *
+     * @param exchange - текущий запрос
+     * @return - subject токена или null
+     */
+    private String resolveSubject(ServerWebExchange exchange) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtParser.parseSignedClaims(authHeader.substring(7)).getPayload().getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String resolveClientIp(ServerWebExchange exchange) {
+        // Шлюз - точка входа, поэтому берется адрес соединения, а не X-Forwarded-For от клиента
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private long retryAfterSeconds(RateLimitResult result) {
+        return Math.max(1, (long) Math.ceil(result.retryAfterNanos() / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private void count(String routeId, String keyType, RateLimitResult result) {
+        Counter.builder("gateway.ratelimit.requests")
+                .description("Requests checked by the gateway rate limiter")
+                .tag("route", routeId)
+                .tag("key", keyType)
+                .tag("outcome", result.allowed() ? "allowed" : "rejected")
+                .register(meterRegistry)
+                .increment();
+    }
+}
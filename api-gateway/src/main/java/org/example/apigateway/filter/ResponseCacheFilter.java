@@ -0,0 +1,189 @@
+package org.example.apigateway.filter;
+
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.cache.CachedResponse;
+import org.example.apigateway.cache.ResponseCache;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Фильтр кэша ответов на GET-запросы.
+ * Свежий ответ отдается из кэша шлюза без обращения к сервису; для устаревшего ответа с ETag
+ * сервису отправляется If-None-Match, и при 304 отдается ответ из кэша. Ключ кэша включает роли
+ * пользователя, поэтому фильтр выполняется после проверки токена и правил доступа.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "response-cache.enabled")
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Фильтр для ответа из кэша или сохранения ответа сервиса в кэш.
+     *
+     * @param exchange Объект Exchange, содержащий информацию о текущем запросе.
+     * @param chain Следующий фильтр в цепочке.
+     * @return Mono<Void> Объект Mono, содержащий результат фильтрации.
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        Duration routeTtl = responseCache.routeTtl(request.getPath().pathWithinApplication());
+        Claims claims = exchange.getAttribute(JwtFilter.CLAIMS_ATTR);
+        // Без проверенных claims ролей нет, и ключ кэша построить нельзя
+        if (routeTtl == null || claims == null || bypassesCache(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        String key = ResponseCache.key(request.getURI().getRawPath() + "?" + request.getURI().getRawQuery(),
+                claims.get("roles", List.class), request.getHeaders());
+        List<String> clientEtags = request.getHeaders().getIfNoneMatch();
+        CachedResponse cached = responseCache.get(key);
+
+        if (cached != null && cached.isFresh(responseCache.now())) {
+            log.debug("Response cache hit: {}", key);
+            return writeCached(exchange.getResponse(), cached, clientEtags, "HIT");
+        }
+
+        // Устаревший ответ проверяется у сервиса по ETag
+        CachedResponse stale = cached != null && cached.etag() != null ? cached : null;
+        ServerWebExchange forwarded = stale == null ? exchange : exchange.mutate()
+                .request(r -> r.headers(h -> h.setIfNoneMatch(stale.etag())))
+                .build();
+
+        CachingResponse response = new CachingResponse(exchange.getResponse(), key, routeTtl, stale, clientEtags);
+        return chain.filter(forwarded.mutate().response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // После проверки токена и правил доступа, до выбора экземпляра сервиса
+        return Ordered.HIGHEST_PRECEDENCE + 10_002;
+    }
+
+    private static boolean bypassesCache(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    /**
+     * Метод для отправки ответа из кэша.
+     * Если ETag клиента совпадает с ETag ответа, отправляется 304 без тела.
+     *
+     * @param response - ответ клиенту
+     * @param cached - закэшированный ответ
+     * @param clientEtags - If-None-Match клиента
+     * @param outcome - HIT или REVALIDATED для заголовка X-Cache
+     * @return - запись ответа
+     */
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, List<String> clientEtags,
+                                   String outcome) {
+        HttpHeaders headers = response.getHeaders();
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, String.valueOf(
+                Math.max(0, Duration.between(cached.storedAt(), responseCache.now()).toSeconds())));
+        headers.set(CACHE_HEADER, outcome);
+
+        if (cached.etag() != null && matches(clientEtags, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean matches(List<String> clientEtags, String etag) {
+        String value = weakless(etag);
+        return clientEtags.stream().anyMatch(clientEtag -> clientEtag.equals("*") || weakless(clientEtag).equals(value));
+    }
+
+    private static String weakless(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Ответ сервиса, который сохраняется в кэш при записи клиенту.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Duration routeTtl;
+        private final CachedResponse stale;
+        private final List<String> clientEtags;
+
+        CachingResponse(ServerHttpResponse delegate, String key, Duration routeTtl, CachedResponse stale,
+                        List<String> clientEtags) {
+            super(delegate);
+            this.key = key;
+            this.routeTtl = routeTtl;
+            this.stale = stale;
+            this.clientEtags = clientEtags;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+
+            // Сервис подтвердил устаревший ответ: он продлевается и отдается клиенту
+            if (stale != null && status != null && status.value() == HttpStatus.NOT_MODIFIED.value()) {
+                CachedResponse revalidated = responseCache.revalidate(key, stale, getHeaders(), routeTtl);
+                log.debug("Response cache revalidated: {}", key);
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(writeCached(getDelegate(), revalidated, clientEtags, "REVALIDATED"));
+            }
+            if (status == null || status.value() != HttpStatus.OK.value()) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(buffer -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+
+                CachedResponse stored = responseCache.put(key, status, getHeaders(), bytes, routeTtl);
+                getHeaders().set(CACHE_HEADER, stored != null ? "MISS" : "BYPASS");
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Потоковые ответы не кэшируются
+            return super.writeAndFlushWith(body);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Фильтр метрик маршрутов: общее время запроса, время проверки токена, время ответа сервиса
+ * и размер ответа с тегами route, status и instance (экземпляр сервиса, выбранный балансировщиком).
+ * Выполняется первым из фильтров шлюза, поэтому учитывает и запросы, отклоненные сбросом нагрузки,
+ * лимитами и проверкой токена. Гистограммы для Prometheus включаются настройками management.metrics.distribution.
+ */
+@Component
+@ConditionalOnProperty(value = "route-metrics.enabled", matchIfMissing = true)
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    public static final String REQUESTS_METRIC = "gateway.route.requests";
+    public static final String AUTH_METRIC = "gateway.route.auth";
+    public static final String UPSTREAM_METRIC = "gateway.route.upstream";
+    public static final String RESPONSE_SIZE_METRIC = "gateway.route.response.size";
+
+    private final MeterRegistry meterRegistry;
+
+    public RouteMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Фильтр для замера запроса и записи метрик после ответа.
+     *
+     * @param exchange Объект Exchange, содержащий информацию о текущем запросе.
+     * @param chain Следующий фильтр в цепочке.
+     * @return Mono<Void> Объект Mono, содержащий результат фильтрации.
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Поток событий (SSE) открыт долго: его длительность исказила бы гистограммы задержки
+        if (EventStreamRoutes.isEventStream(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            CountingResponse response = new CountingResponse(exchange.getResponse());
+            AtomicReference<Throwable> error = new AtomicReference<>();
+
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doOnError(error::set)
+                    .doFinally(signal -> record(exchange, signal, error.get(),
+                            System.nanoTime() - start, response.bytes()));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // До сброса нагрузки (LoadSheddingFilter - HIGHEST_PRECEDENCE + 9_000)
+        return Ordered.HIGHEST_PRECEDENCE + 8_000;
+    }
+
+    /**
+     * Метод для записи метрик запроса.
+     *
+     * @param exchange - завершенный запрос
+     * @param signal - сигнал завершения цепочки фильтров
+     * @param error - ошибка цепочки фильтров или null
+     * @param totalNanos - общее время запроса
+     * @param bytes - размер тела ответа
+     */
+    private void record(ServerWebExchange exchange, SignalType signal, Throwable error, long totalNanos, long bytes) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Tags tags = Tags.of(
+                "route", route != null ? route.getId() : "unknown",
+                "status", status(exchange.getResponse(), signal, error),
+                "instance", instance(exchange));
+
+        timer(REQUESTS_METRIC, "Total time of requests through the gateway", tags)
+                .record(totalNanos, TimeUnit.NANOSECONDS);
+
+        Long validationNanos = exchange.getAttribute(JwtFilter.VALIDATION_TIME_ATTR);
+        if (validationNanos != null) {
+            timer(AUTH_METRIC, "Time spent validating the access token", tags)
+                    .record(validationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        Long upstreamNanos = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_TIME_ATTR);
+        if (upstreamNanos != null) {
+            timer(UPSTREAM_METRIC, "Time until the upstream service returned response headers", tags)
+                    .record(upstreamNanos, TimeUnit.NANOSECONDS);
+        }
+
+        DistributionSummary.builder(RESPONSE_SIZE_METRIC)
+                .description("Size of response bodies sent by the gateway")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Метод для получения статуса ответа.
+     * Ошибку цепочки фильтров статусом ответа превращает обработчик ошибок WebFlux уже после фильтра.
+     *
+     * @param response - ответ шлюза
+     * @param signal - сигнал завершения цепочки фильтров
+     * @param error - ошибка цепочки фильтров или null
+     * @return - код статуса, CANCELLED для запроса, отмененного клиентом
+     */
+    private static String status(ServerHttpResponse response, SignalType signal, Throwable error) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        if (error != null) {
+            return error instanceof ResponseStatusException statusException
+                    ? String.valueOf(statusException.getStatusCode().value())
+                    : "500";
+        }
+        HttpStatusCode status = response.getStatusCode();
+        return String.valueOf(status != null ? status.value() : 200);
+    }
+
+    /**
+     * Метод для получения экземпляра сервиса, выбранного балансировщиком.
+     *
+     * @param exchange - завершенный запрос
+     * @return - host:port экземпляра или none (ответ без обращения к сервису или маршрут без lb://)
+     */
+    private static String instance(ServerWebExchange exchange) {
+        Response<ServiceInstance> response = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer()) {
+            return "none";
+        }
+        ServiceInstance instance = response.getServer();
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * Ответ, который считает байты тела, отправленные клиенту.
+     */
+    private static class CountingResponse extends ServerHttpResponseDecorator {
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        CountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        long bytes() {
+            return bytes.get();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(part -> Flux.from(part).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            bytes.addAndGet(buffer.readableByteCount());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.apigateway.filter;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.resilience.RouteResilience;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр защиты шлюза от неисправного сервиса.
+ * Bulkhead ограничивает одновременные запросы к маршруту, поэтому зависший сервис занимает
+ * не больше своей доли соединений и памяти шлюза и не мешает другим маршрутам.
+ * Circuit breaker после серии ошибок или медленных ответов сразу отвечает 503, не дожидаясь таймаута.
+ * GET и HEAD после ошибки соединения или таймаута повторяются на другом экземпляре в пределах бюджета повторов.
+ * Поток событий задач (GET /api/v1/tasks/events) не ограничивается.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "route-resilience.enabled", matchIfMissing = true)
+public class RouteResilienceFilter implements GlobalFilter, Ordered {
+
+    private final RouteResilience routeResilience;
+    private final MeterRegistry meterRegistry;
+
+    public RouteResilienceFilter(RouteResilience routeResilience, MeterRegistry meterRegistry) {
+        this.routeResilience = routeResilience;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Фильтр для выполнения запроса под защитой политики маршрута.
+     *
+     * @param exchange Объект Exchange, содержащий информацию о текущем запросе.
+     * @param chain Следующий фильтр в цепочке.
+     * @return Mono<Void> Объект Mono, содержащий результат фильтрации.
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        RouteResilience.RoutePolicy policy = route != null ? routeResilience.forRoute(route.getId()) : null;
+        // Поток событий (SSE) открыт долго: он занимал бы bulkhead и считался бы медленным запросом
+        if (policy == null || EventStreamRoutes.isEventStream(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+        String routeId = route.getId();
+
+        if (!policy.bulkhead().tryAcquirePermission()) {
+            log.warn("Too many concurrent requests on route {}", routeId);
+            return reject(exchange, routeId, "bulkhead_full");
+        }
+        policy.retryBudget().onRequest();
+
+        return attempt(exchange, chain, policy, 0)
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.debug("Circuit breaker is open on route {}", routeId);
+                    return reject(exchange, routeId, "circuit_open");
+                })
+                .doFinally(signal -> policy.bulkhead().onComplete());
+    }
+
+    @Override
+    public int getOrder() {
+        // После проверки токена и кэша ответов (ответ из кэша не занимает bulkhead), до выбора экземпляра
+        return Ordered.HIGHEST_PRECEDENCE + 10_003;
+    }
+
+    /**
+     * Метод для одной попытки запроса к сервису.
+     * Повтор заново проходит выбор экземпляра, и балансировщик уводит его от экземпляра с ошибкой.
+     *
+     * @param exchange - текущий запрос
+     * @param chain - следующий фильтр в цепочке
+     * @param policy - защита маршрута
+     * @param retry - номер повтора (0 - первая попытка)
+     * @return - результат попытки
+     */
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain,
+                               RouteResilience.RoutePolicy policy, int retry) {
+        CircuitBreaker circuitBreaker = policy.circuitBreaker();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return Mono.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> {
+                    long duration = System.nanoTime() - start;
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    // Ответ 5xx - ошибка сервиса, 4xx - ошибка клиента, на состояние маршрута не влияет
+                    if (status != null && status.is5xxServerError()) {
+                        circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new ResponseStatusException(status));
+                    } else {
+                        circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                    }
+                })
+                .doOnError(e -> circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e))
+                .doOnCancel(circuitBreaker::releasePermission)
+                .onErrorResume(e -> canRetry(exchange, policy, retry, e), e -> {
+                    log.debug("Retrying request to {} after error: {}", exchange.getRequest().getPath(), e.getMessage());
+                    ServerWebExchangeUtils.reset(exchange);
+                    return attempt(exchange, chain, policy, retry + 1);
+                });
+    }
+
+    /**
+     * Метод для проверки, можно ли повторить запрос.
+     * Повторяются только идемпотентные запросы, ответ на которые еще не начал отправляться клиенту.
+     *
+     * @param exchange - текущий запрос
+     * @param policy - защита маршрута
+     * @param retry - номер текущего повтора
+     * @param error - ошибка попытки
+     * @return - true, если запрос будет повторен
+     */
+    private boolean canRetry(ServerWebExchange exchange, RouteResilience.RoutePolicy policy, int retry,
+                             Throwable error) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (retry >= policy.maxRetries() || error instanceof CallNotPermittedException
+                || (method != HttpMethod.GET && method != HttpMethod.HEAD) || exchange.getResponse().isCommitted()) {
+            return false;
+        }
+        String routeId = policy.circuitBreaker().getName();
+        if (!policy.retryBudget().tryRetry()) {
+            log.warn("Retry budget exhausted on route {}", routeId);
+            count("gateway.resilience.retries", routeId, "budget_exhausted");
+            return false;
+        }
+        count("gateway.resilience.retries", routeId, "retried");
+        return true;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String reason) {
+        count("gateway.resilience.rejected", routeId, reason);
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        return exchange.getResponse().setComplete();
+    }
+
+    private void count(String name, String routeId, String outcome) {
+        Counter.builder(name)
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.aggregation.TaskDetailsAggregator;
+import org.example.apigateway.dto.TaskDetailsDto;
+import org.example.apigateway.token.IdentityHeaders;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Фильтр маршрута экрана задачи (TaskDetails в filters маршрута).
+ * Вместо проксирования запроса собирает ответ из Task Service и Auth Service через TaskDetailsAggregator.
+ * Выполняется после глобальных фильтров проверки токена, правил доступа, лимитов и защиты маршрута,
+ * поэтому сервисам передаются токен и подписанные заголовки пользователя.
+ */
+@Slf4j
+@Component
+public class TaskDetailsGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    public static final String TASK_ID_VARIABLE = "taskId";
+
+    private final TaskDetailsAggregator aggregator;
+    private final ObjectMapper objectMapper;
+
+    public TaskDetailsGatewayFilterFactory(TaskDetailsAggregator aggregator, ObjectMapper objectMapper) {
+        super(Object.class);
+        this.aggregator = aggregator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        // После глобальных фильтров шлюза (RouteResilienceFilter - HIGHEST_PRECEDENCE + 10_003)
+        return new OrderedGatewayFilter(this::filter, Ordered.HIGHEST_PRECEDENCE + 10_004);
+    }
+
+    /**
+     * Фильтр для ответа агрегированными данными задачи.
+     * Запрос не передается дальше по цепочке: ответ пишется шлюзом.
+     *
+     * @param exchange Объект Exchange, содержащий информацию о текущем запросе.
+     * @param chain Следующий фильтр в цепочке.
+     * @return Mono<Void> Объект Mono, содержащий результат фильтрации.
+     */
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpResponse response = exchange.getResponse();
+        Long taskId = taskId(exchange);
+        if (taskId == null) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return response.setComplete();
+        }
+
+        return aggregator.aggregate(taskId, forwardedHeaders(exchange.getRequest().getHeaders()))
+                .flatMap(details -> write(response, details))
+                // Пустой ответ Task Service на запрос задачи
+                .switchIfEmpty(Mono.defer(() -> {
+                    response.setStatusCode(HttpStatus.BAD_GATEWAY);
+                    return response.setComplete();
+                }))
+                .onErrorResume(e -> {
+                    HttpStatusCode status = status(e);
+                    log.warn("Task details for task {} failed with {}: {}", taskId, status, e.getMessage());
+                    response.setStatusCode(status);
+                    return response.setComplete();
+                });
+    }
+
+    private Long taskId(ServerWebExchange exchange) {
+        String taskId = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get(TASK_ID_VARIABLE);
+        try {
+            return taskId != null ? Long.parseLong(taskId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Метод для выбора заголовков, которые передаются сервисам.
+     *
+     * @param headers - заголовки запроса после проверки токена
+     * @return - токен и заголовки пользователя
+     */
+    private HttpHeaders forwardedHeaders(HttpHeaders headers) {
+        HttpHeaders forwarded = new HttpHeaders();
+        if (headers.containsKey(HttpHeaders.AUTHORIZATION)) {
+            forwarded.put(HttpHeaders.AUTHORIZATION, headers.get(HttpHeaders.AUTHORIZATION));
+        }
+        for (String name : IdentityHeaders.ALL) {
+            if (headers.containsKey(name)) {
+                forwarded.put(name, headers.get(name));
+            }
+        }
+        return forwarded;
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, TaskDetailsDto details) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(details);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Метод для выбора статуса ответа, если не удалось получить задачу.
+     * Ответы 4xx Task Service (нет задачи, нет доступа) передаются клиенту как есть.
+     *
+     * @param e - ошибка запроса задачи
+     * @return - статус ответа шлюза
+     */
+    static HttpStatusCode status(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        if (e instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().is4xxClientError()) {
+            return responseException.getStatusCode();
+        }
+        return HttpStatus.BAD_GATEWAY;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.apigateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Фильтр замера времени ответа сервиса.
+ * Выполняется после выбора экземпляра сервиса, непосредственно перед отправкой запроса, и
+ * замеряет время до получения заголовков ответа (получение соединения из пула, отправка запроса и ожидание ответа).
+ * Результат записывают RouteMetricsFilter и LoadSheddingFilter.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    // Время ответа сервиса в наносекундах для метрик маршрута и оценки перегрузки
+    public static final String UPSTREAM_TIME_ATTR = UpstreamTimingFilter.class.getName() + ".upstreamTime";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // doOnTerminate, а не doFinally: время нужно записать до того, как завершение дойдет до внешних фильтров.
+            // Запрос, повторенный RouteResilienceFilter, перезаписывает время предыдущей попытки
+            return chain.filter(exchange)
+                    .doOnTerminate(() -> exchange.getAttributes().put(UPSTREAM_TIME_ATTR, System.nanoTime() - start));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // После выбора экземпляра (ReactiveLoadBalancerClientFilter), до NettyRoutingFilter
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
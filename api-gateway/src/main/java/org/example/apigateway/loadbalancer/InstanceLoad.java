@@ -0,0 +1,109 @@
+package org.example.apigateway.loadbalancer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Нагрузка экземпляра сервиса: запросы в работе и скользящее среднее задержки (EWMA).
+ * Среднее чувствительно к пикам: задержка выше среднего принимается сразу, ниже - постепенно.
+ * Без новых замеров среднее затухает, и экземпляр, который был медленным, снова получает запросы.
+ * Запрос в работе - это резервирование со временем начала. Для отмененного запроса (клиент закрыл
+ * соединение, таймаут в WebClient) LoadBalancerLifecycle не вызывает onComplete, поэтому резервирование
+ * снимается само через in-flight-timeout, и экземпляр не остается навсегда "занятым".
+ */
+class InstanceLoad {
+
+    // Минимальная задержка в оценке, чтобы экземпляры без замеров сравнивались по числу запросов в работе
+    private static final double MIN_LATENCY_NANOS = 1_000_000;
+
+    private final double decayNanos;
+    private final long inFlightTimeoutNanos;
+
+    // Резервирования в порядке начала: время начала по запросу балансировщика (сравнение по ссылке)
+    private final Map<RequestKey, Long> inFlight = new LinkedHashMap<>();
+
+    private double ewmaNanos;
+    private long stampNanos;
+
+    InstanceLoad(long decayNanos, long inFlightTimeoutNanos, long now) {
+        this.decayNanos = decayNanos;
+        this.inFlightTimeoutNanos = inFlightTimeoutNanos;
+        this.stampNanos = now;
+    }
+
+    /**
+     * Метод для учета начатого запроса.
+     *
+     * @param request - запрос балансировщика
+     * @param now - текущее время (System.nanoTime)
+     */
+    synchronized void start(Object request, long now) {
+        inFlight.put(new RequestKey(request), now);
+    }
+
+    /**
+     * Метод для учета завершенного запроса.
+     * Задержка учитывается, даже если резервирование уже снято по таймауту.
+     *
+     * @param request - запрос балансировщика
+     * @param latencyNanos - задержка запроса
+     * @param now - текущее время (System.nanoTime)
+     */
+    synchronized void complete(Object request, long latencyNanos, long now) {
+        inFlight.remove(new RequestKey(request));
+        double decayed = decayed(now);
+        ewmaNanos = latencyNanos > decayed
+                ? latencyNanos
+                : decayed + (latencyNanos - decayed) * (1 - weight(now));
+        stampNanos = now;
+    }
+
+    /**
+     * Метод для оценки стоимости запроса к экземпляру: ожидаемая задержка с учетом очереди.
+     *
+     * @param now - текущее время (System.nanoTime)
+     * @return - оценка, чем меньше, тем лучше
+     */
+    synchronized double cost(long now) {
+        return Math.max(decayed(now), MIN_LATENCY_NANOS) * (inFlight(now) + 1);
+    }
+
+    synchronized int inFlight(long now) {
+        expire(now);
+        return inFlight.size();
+    }
+
+    // Резервирования добавляются в порядке начала, поэтому просроченные - в начале
+    private void expire(long now) {
+        Iterator<Long> starts = inFlight.values().iterator();
+        while (starts.hasNext() && now - starts.next() > inFlightTimeoutNanos) {
+            starts.remove();
+        }
+    }
+
+    private double decayed(long now) {
+        return ewmaNanos * weight(now);
+    }
+
+    private double weight(long now) {
+        return Math.exp(-Math.max(0, now - stampNanos) / decayNanos);
+    }
+
+    /**
+     * Ключ резервирования: один и тот же объект запроса передается в onStartRequest и onComplete,
+     * а разные запросы с одинаковыми данными не должны совпадать.
+     */
+    private record RequestKey(Object request) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RequestKey key && key.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.apigateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Выбор экземпляра сервиса по нагрузке (power of two choices).
+ * Из списка Eureka берутся два случайных экземпляра, и запрос уходит тому, у кого меньше
+ * оценка: EWMA задержки, умноженная на число запросов в работе. Медленный экземпляр (пауза GC,
+ * перегрузка) быстро теряет долю запросов, а случайный выбор пары не дает всем экземплярам
+ * шлюза одновременно нагрузить один и тот же экземпляр сервиса.
+ * Нагрузка учитывается через LoadBalancerLifecycle, который вызывают фильтр маршрутов lb://
+ * и WebClient с балансировкой; отмененные запросы перестают считаться через in-flight-timeout.
+ */
+@Slf4j
+public class LeastLoadedLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final long inFlightTimeoutNanos;
+
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public LeastLoadedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                   String serviceId,
+                                   Duration decayTime,
+                                   Duration failurePenalty,
+                                   Duration inFlightTimeout) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.decayNanos = decayTime.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.inFlightTimeoutNanos = inFlightTimeout.toNanos();
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Метод для выбора наименее загруженного из двух случайных экземпляров.
+     *
+     * @param instances - доступные экземпляры
+     * @return - выбранный экземпляр или пустой ответ
+     */
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        forgetRemoved(instances);
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        long now = System.nanoTime();
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(load(a).cost(now) <= load(b).cost(now) ? a : b);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context && context.getRequestStartTime() == 0) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            load(lbResponse.getServer()).start(request, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null
+                || !lbResponse.hasServer()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long latency = 0;
+        if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() > 0) {
+            latency = now - context.getRequestStartTime();
+        }
+        // Быстрый отказ не должен делать экземпляр привлекательнее
+        if (isFailure(completionContext)) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        InstanceLoad load = loads.get(key(lbResponse.getServer()));
+        if (load != null) {
+            load.complete(completionContext.getLoadBalancerRequest(), latency, now);
+        }
+    }
+
+    int inFlight(ServiceInstance instance) {
+        InstanceLoad load = loads.get(key(instance));
+        return load != null ? load.inFlight(System.nanoTime()) : 0;
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceLoad load(ServiceInstance instance) {
+        return loads.computeIfAbsent(key(instance), key -> new InstanceLoad(decayNanos, inFlightTimeoutNanos, System.nanoTime()));
+    }
+
+    // Экземпляры, которых больше нет в Eureka, не копятся в памяти
+    private void forgetRemoved(List<ServiceInstance> instances) {
+        if (loads.size() > instances.size()) {
+            Set<String> current = instances.stream().map(LeastLoadedLoadBalancer::key).collect(Collectors.toSet());
+            loads.keySet().retainAll(current);
+        }
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+}
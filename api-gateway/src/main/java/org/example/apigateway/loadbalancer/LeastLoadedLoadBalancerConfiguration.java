@@ -0,0 +1,31 @@
+package org.example.apigateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Конфигурация балансировщика для контекста каждого сервиса.
+ * Не помечена @Configuration: подключается через @LoadBalancerClients, а не сканированием компонентов.
+ */
+public class LeastLoadedLoadBalancerConfiguration {
+
+    /**
+     * Балансировщик по нагрузке экземпляров, он же учитывает запросы через LoadBalancerLifecycle
+     *
+     * @param environment - окружение контекста сервиса
+     * @param loadBalancerClientFactory - фабрика контекстов сервисов
+     * @param properties - настройки балансировки
+     * @return LeastLoadedLoadBalancer
+     */
+    @Bean
+    public LeastLoadedLoadBalancer leastLoadedLoadBalancer(Environment environment,
+                                                           LoadBalancerClientFactory loadBalancerClientFactory,
+                                                           LoadBalancingProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastLoadedLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, properties.getDecayTime(), properties.getFailurePenalty(), properties.getInFlightTimeout());
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.apigateway.loadbalancer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки выбора экземпляра сервиса для маршрутов lb:// и вызовов Auth Service.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "load-balancing")
+public class LoadBalancingProperties {
+
+    // least-loaded - наименее загруженный из двух случайных экземпляров, round-robin - по кругу (Spring Cloud)
+    private Strategy strategy = Strategy.LEAST_LOADED;
+
+    // Время, за которое старые замеры задержки теряют вес (EWMA)
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    // Задержка, которая засчитывается экземпляру за ошибку соединения или ответ 5xx
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    // Через это время запрос перестает считаться "в работе", даже если о завершении не сообщили
+    // (отмена клиентом или таймаутом не доходит до LoadBalancerLifecycle); больше таймаута ответа сервиса
+    private Duration inFlightTimeout = Duration.ofSeconds(35);
+
+    public enum Strategy {
+        LEAST_LOADED,
+        ROUND_ROBIN
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.apigateway.overload;
+
+import io.netty.channel.EventLoopGroup;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Замер задержки event loop: в цикл отправляется пустая задача и измеряется, как скоро она выполнится.
+ * Пока задача не выполнена, ее возраст тоже считается задержкой, поэтому заблокированный цикл
+ * обнаруживается, даже если задача еще стоит в очереди.
+ */
+public class EventLoopLagProbe {
+
+    // Группа берется при замере: ресурсы Reactor Netty создаются при старте контекста
+    private final Supplier<EventLoopGroup> eventLoopGroup;
+    private final OverloadDetector overloadDetector;
+
+    // Время отправки незавершенной задачи (0 - задач в очереди нет)
+    private final AtomicLong pendingSince = new AtomicLong();
+
+    public EventLoopLagProbe(Supplier<EventLoopGroup> eventLoopGroup, OverloadDetector overloadDetector) {
+        this.eventLoopGroup = eventLoopGroup;
+        this.overloadDetector = overloadDetector;
+    }
+
+    /**
+     * Метод для очередного замера (каждый раз - следующий цикл группы).
+     */
+    public void sample() {
+        long now = System.nanoTime();
+        long pending = pendingSince.get();
+        if (pending != 0) {
+            overloadDetector.recordEventLoopLag(now - pending);
+            return;
+        }
+        if (!pendingSince.compareAndSet(0, now)) {
+            return;
+        }
+        try {
+            eventLoopGroup.get().next().execute(() -> {
+                overloadDetector.recordEventLoopLag(System.nanoTime() - now);
+                pendingSince.set(0);
+            });
+        } catch (RejectedExecutionException e) {
+            // Циклы остановлены при завершении шлюза
+            pendingSince.set(0);
+        }
+    }
+}
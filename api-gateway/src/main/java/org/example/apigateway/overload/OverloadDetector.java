@@ -0,0 +1,177 @@
+package org.example.apigateway.overload;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Оценка перегрузки шлюза по трем сигналам: запросы в работе (очередь), задержка ответов сервисов
+ * и задержка event loop. Нагрузка - максимум из отношений сигналов к порогам, поэтому
+ * любой исчерпанный ресурс включает сброс. Задержка ответов - перцентиль за скользящее окно:
+ * единичный долгий ответ (таймаут сервиса) не включает сброс, нужна устойчивая доля медленных ответов.
+ * Замеры выходят из окна и затухают без новых запросов, и сброс прекращается,
+ * даже если в перегрузке проходили только критичные запросы.
+ */
+public class OverloadDetector {
+
+    private final OverloadProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LatencyWindow latency;
+    private final DecayingMaximum eventLoopLag;
+
+    public OverloadDetector(OverloadProperties properties) {
+        this.properties = properties;
+        this.latency = new LatencyWindow(properties.getLatencyWindow().toNanos(),
+                properties.getLatencyPercentile(), properties.getLatencyMinSamples(), System.nanoTime());
+        this.eventLoopLag = new DecayingMaximum(properties.getDecayTime().toNanos());
+    }
+
+    public void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    public void onComplete() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Метод для учета времени ответа сервиса.
+     * Время клиента (медленная загрузка тела ответа) и отклоненные шлюзом запросы не учитываются.
+     *
+     * @param latencyNanos - время до получения заголовков ответа сервиса
+     */
+    public void recordUpstreamLatency(long latencyNanos) {
+        latency.record(latencyNanos, System.nanoTime());
+    }
+
+    public void recordEventLoopLag(long lagNanos) {
+        eventLoopLag.record(lagNanos, System.nanoTime());
+    }
+
+    /**
+     * Метод для расчета текущей нагрузки.
+     *
+     * @return - 1.0 - один из сигналов достиг порога
+     */
+    public double pressure() {
+        long now = System.nanoTime();
+        double queue = inFlight.get() / (double) properties.getMaxInFlight();
+        double latencyPressure = latency.get(now) / properties.getLatencyThreshold().toNanos();
+        double lagPressure = eventLoopLag.get(now) / properties.getEventLoopLagThreshold().toNanos();
+        return Math.max(queue, Math.max(latencyPressure, lagPressure));
+    }
+
+    /**
+     * Метод для проверки, нужно ли сбросить запрос класса.
+     *
+     * @param priority - класс запроса
+     * @return - true, если запрос нужно отклонить
+     */
+    public boolean shouldShed(OverloadProperties.Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> false;
+            case NORMAL -> pressure() >= properties.getNormalShedAt();
+            case LOW -> pressure() >= properties.getLowShedAt();
+        };
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public double latencyNanos() {
+        return latency.get(System.nanoTime());
+    }
+
+    public double eventLoopLagNanos() {
+        return eventLoopLag.get(System.nanoTime());
+    }
+
+    /**
+     * Перцентиль задержки за скользящее окно по последним замерам.
+     * Пока замеров в окне меньше минимума, задержка считается нулевой: по нескольким запросам
+     * нельзя отличить перегрузку от отдельных медленных ответов.
+     */
+    private static class LatencyWindow {
+
+        // Число хранимых замеров, при большем потоке окно фактически короче
+        private static final int CAPACITY = 256;
+        // Перцентиль пересчитывается не чаще, чем раз в этот период, а не на каждый запрос
+        private static final long REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+        private final long windowNanos;
+        private final double percentile;
+        private final int minSamples;
+        private final long[] samples = new long[CAPACITY];
+        private final long[] stamps = new long[CAPACITY];
+        private int next;
+        private int size;
+        private double value;
+        private long computedAt;
+
+        LatencyWindow(long windowNanos, double percentile, int minSamples, long now) {
+            this.windowNanos = windowNanos;
+            this.percentile = percentile;
+            this.minSamples = Math.max(1, minSamples);
+            this.computedAt = now - REFRESH_NANOS;
+        }
+
+        synchronized void record(long sample, long now) {
+            samples[next] = sample;
+            stamps[next] = now;
+            next = (next + 1) % CAPACITY;
+            size = Math.min(size + 1, CAPACITY);
+        }
+
+        synchronized double get(long now) {
+            if (now - computedAt >= REFRESH_NANOS) {
+                value = compute(now);
+                computedAt = now;
+            }
+            return value;
+        }
+
+        private double compute(long now) {
+            long[] recent = new long[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (now - stamps[i] <= windowNanos) {
+                    recent[count++] = samples[i];
+                }
+            }
+            if (count < minSamples) {
+                return 0;
+            }
+            Arrays.sort(recent, 0, count);
+            return recent[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    /**
+     * Скользящее среднее, чувствительное к пикам: рост принимается сразу, снижение - постепенно.
+     */
+    private static class DecayingMaximum {
+
+        private final double decayNanos;
+        private double value;
+        private long stamp = System.nanoTime();
+
+        DecayingMaximum(long decayNanos) {
+            this.decayNanos = decayNanos;
+        }
+
+        synchronized void record(long sample, long now) {
+            double decayed = get(now);
+            value = sample > decayed ? sample : decayed + (sample - decayed) * (1 - weight(now));
+            stamp = now;
+        }
+
+        synchronized double get(long now) {
+            return value * weight(now);
+        }
+
+        private double weight(long now) {
+            return Math.exp(-Math.max(0, now - stamp) / decayNanos);
+        }
+    }
+}
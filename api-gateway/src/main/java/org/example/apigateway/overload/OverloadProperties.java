@@ -0,0 +1,70 @@
+package org.example.apigateway.overload;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки сброса нагрузки при перегрузке шлюза.
+ * Нагрузка - максимум из отношений запросов в работе, задержки ответов сервисов и задержки event loop
+ * к их порогам. Запросы класса сбрасываются (503), когда нагрузка достигает порога класса.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "overload")
+public class OverloadProperties {
+
+    private boolean enabled = true;
+
+    // Пороги сигналов, при которых нагрузка равна 1
+    private int maxInFlight = 1000;
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+    private Duration eventLoopLagThreshold = Duration.ofMillis(100);
+
+    // Задержка ответов сервисов - перцентиль замеров за окно; при меньшем числе замеров не учитывается
+    private Duration latencyWindow = Duration.ofSeconds(10);
+    private double latencyPercentile = 0.9;
+    private int latencyMinSamples = 20;
+
+    // Время, за которое старые замеры задержки event loop теряют вес
+    private Duration decayTime = Duration.ofSeconds(5);
+
+    // Период замера задержки event loop
+    private Duration probeInterval = Duration.ofMillis(100);
+
+    // Значение Retry-After для сброшенных запросов
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    // Нагрузка, начиная с которой сбрасываются запросы классов low и normal (critical не сбрасывается)
+    private double lowShedAt = 1.0;
+    private double normalShedAt = 1.5;
+
+    // Класс запросов, не подходящих ни под одно правило
+    private Priority defaultPriority = Priority.NORMAL;
+
+    // Классы запросов, применяется первое правило с подходящим путем и методом
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum Priority {
+        CRITICAL,
+        NORMAL,
+        LOW
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        // Шаблон пути запроса к шлюзу
+        private String path;
+
+        // HTTP-методы правила (пусто - все методы)
+        private List<String> methods = new ArrayList<>();
+
+        private Priority priority = Priority.NORMAL;
+    }
+}
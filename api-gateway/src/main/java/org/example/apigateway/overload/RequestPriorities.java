@@ -0,0 +1,54 @@
+package org.example.apigateway.overload;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Определение класса запроса по правилам.
+ * Шаблоны путей разбираются один раз при запуске.
+ */
+public class RequestPriorities {
+
+    private final List<CompiledRule> rules;
+    private final OverloadProperties.Priority defaultPriority;
+
+    public RequestPriorities(List<OverloadProperties.Rule> rules, OverloadProperties.Priority defaultPriority) {
+        this.rules = rules.stream().map(RequestPriorities::compile).toList();
+        this.defaultPriority = defaultPriority;
+    }
+
+    /**
+     * Метод для определения класса запроса.
+     *
+     * @param path - путь запроса
+     * @param method - HTTP-метод
+     * @return - класс первого подходящего правила или класс по умолчанию
+     */
+    public OverloadProperties.Priority priorityOf(PathContainer path, HttpMethod method) {
+        for (CompiledRule rule : rules) {
+            if ((rule.methods().isEmpty() || rule.methods().contains(method)) && rule.pattern().matches(path)) {
+                return rule.priority();
+            }
+        }
+        return defaultPriority;
+    }
+
+    private static CompiledRule compile(OverloadProperties.Rule rule) {
+        if (rule.getPath() == null) {
+            throw new IllegalStateException("overload.rules requires path");
+        }
+        Set<HttpMethod> methods = rule.getMethods().stream()
+                .map(method -> HttpMethod.valueOf(method.toUpperCase()))
+                .collect(Collectors.toSet());
+        return new CompiledRule(PathPatternParser.defaultInstance.parse(rule.getPath()), methods, rule.getPriority());
+    }
+
+    private record CompiledRule(PathPattern pattern, Set<HttpMethod> methods, OverloadProperties.Priority priority) {
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.apigateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Общий лимит кластера шлюзов без общего хранилища.
+ * Каждый экземпляр держит локальные корзины с долей лимита 1/N, где N - количество экземпляров
+ * шлюза в Eureka. При равномерной балансировке клиентов сумма совпадает с общим лимитом;
+ * для точного учета достаточно заменить локальное хранилище общим.
+ */
+@Slf4j
+public class ClusterRateLimitStore implements RateLimitStore {
+
+    private final LocalRateLimitStore localStore;
+    private final DiscoveryClient discoveryClient;
+    private final String serviceId;
+
+    // Количество экземпляров шлюза (обновляется по расписанию)
+    private volatile int instances = 1;
+
+    public ClusterRateLimitStore(LocalRateLimitStore localStore, DiscoveryClient discoveryClient, String serviceId) {
+        this.localStore = localStore;
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+    }
+
+    @Override
+    public Mono<RateLimitResult> tryConsume(String key, RateLimitProperties.Limit limit) {
+        int count = instances;
+        if (count <= 1) {
+            return localStore.tryConsume(key, limit);
+        }
+        RateLimitProperties.Limit share = new RateLimitProperties.Limit();
+        share.setCapacity(Math.max(1, limit.getCapacity() / count));
+        share.setRefillPerSecond(limit.getRefillPerSecond() / count);
+        return localStore.tryConsume(key, share);
+    }
+
+    @Override
+    public int size() {
+        return localStore.size();
+    }
+
+    /**
+     * Метод для обновления количества экземпляров шлюза из реестра сервисов.
+     * Реестр Eureka кэшируется клиентом, запрос в сеть не выполняется.
+     */
+    public void refreshInstances() {
+        try {
+            int count = discoveryClient.getInstances(serviceId).size();
+            if (count != instances) {
+                log.info("Rate limit is shared between {} gateway instances", Math.max(1, count));
+            }
+            instances = Math.max(1, count);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh gateway instances for rate limiting: {}", e.getMessage());
+        }
+    }
+}
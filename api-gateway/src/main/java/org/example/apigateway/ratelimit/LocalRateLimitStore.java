@@ -0,0 +1,39 @@
+package org.example.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Корзины токенов в памяти экземпляра шлюза.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<RateLimitResult> tryConsume(String key, RateLimitProperties.Limit limit) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        return Mono.just(bucket.tryConsume(now, limit.getCapacity(), limit.getRefillPerSecond()));
+    }
+
+    @Override
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Метод для удаления полных корзин.
+     * Полная корзина ничем не отличается от новой, поэтому ее удаление не меняет лимит клиента.
+     *
+     * @return - количество удаленных корзин
+     */
+    public int evictFull() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.apigateway.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки ограничения частоты запросов на шлюзе.
+ * Лимит считается отдельно для каждого пользователя (subject JWT) или IP клиента на каждом маршруте.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // local - лимит на каждом экземпляре шлюза, cluster - общий лимит, поделенный между экземплярами
+    private Mode mode = Mode.LOCAL;
+
+    // Лимит маршрутов без собственных настроек (null - без ограничения)
+    private Limit defaultLimit;
+
+    // ID маршрута -> лимит
+    private Map<String, Limit> routes = new HashMap<>();
+
+    // Период удаления полных (неиспользуемых) корзин
+    private Duration cleanupInterval = Duration.ofMinutes(1);
+
+    // Период обновления количества экземпляров шлюза (режим cluster)
+    private Duration instancesRefreshInterval = Duration.ofSeconds(30);
+
+    public enum Mode {
+        LOCAL,
+        CLUSTER
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        // Размер корзины - сколько запросов можно сделать подряд
+        private int capacity;
+
+        // Скорость пополнения корзины
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.apigateway.ratelimit;
+
+/**
+ * Результат попытки взять токен из корзины.
+ *
+ * @param allowed - запрос разрешен
+ * @param remaining - сколько запросов еще можно сделать без ожидания
+ * @param retryAfterNanos - через сколько наносекунд появится токен (для отклоненного запроса)
+ */
+public record RateLimitResult(boolean allowed, long remaining, long retryAfterNanos) {
+
+    static RateLimitResult allowed(long remaining) {
+        return new RateLimitResult(true, remaining, 0);
+    }
+
+    static RateLimitResult rejected(long retryAfterNanos) {
+        return new RateLimitResult(false, 0, retryAfterNanos);
+    }
+}
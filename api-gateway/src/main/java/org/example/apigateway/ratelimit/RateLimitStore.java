@@ -0,0 +1,26 @@
+package org.example.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Хранилище корзин токенов.
+ * Реактивный интерфейс позволяет заменить локальное хранилище общим (например, Redis) без изменения фильтра.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Метод для попытки взять токен из корзины ключа.
+     *
+     * @param key - ключ корзины (маршрут и клиент)
+     * @param limit - лимит маршрута
+     * @return - результат попытки
+     */
+    Mono<RateLimitResult> tryConsume(String key, RateLimitProperties.Limit limit);
+
+    /**
+     * Метод для получения количества корзин (для метрик).
+     *
+     * @return - количество корзин
+     */
+    int size();
+}
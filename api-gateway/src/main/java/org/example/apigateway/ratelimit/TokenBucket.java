@@ -0,0 +1,56 @@
+package org.example.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок.
+ * Состояние - одно число: момент, когда корзина снова станет полной (алгоритм GCRA,
+ * эквивалентный корзине токенов). Токен берется одной операцией compareAndSet,
+ * поэтому параллельные запросы одного пользователя не ждут друг друга.
+ */
+public class TokenBucket {
+
+    // Момент полного пополнения корзины (System.nanoTime)
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Метод для попытки взять один токен.
+     *
+     * @param now - текущее время (System.nanoTime)
+     * @param capacity - размер корзины
+     * @param refillPerSecond - скорость пополнения
+     * @return - результат попытки
+     */
+    public RateLimitResult tryConsume(long now, int capacity, double refillPerSecond) {
+        // Время пополнения одного токена и всей корзины
+        long interval = (long) (1_000_000_000L / refillPerSecond);
+        long window = interval * capacity;
+
+        while (true) {
+            long current = fullAt.get();
+            // Пустое время до полного пополнения не копится: полная корзина начинает отсчет с now
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - window;
+            if (wait > 0) {
+                return RateLimitResult.rejected(wait);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return RateLimitResult.allowed((window - (next - now)) / interval);
+            }
+        }
+    }
+
+    /**
+     * Метод для проверки, что корзина полная и ее можно удалить без потери состояния.
+     *
+     * @param now - текущее время (System.nanoTime)
+     * @return - true, если корзина полная
+     */
+    public boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
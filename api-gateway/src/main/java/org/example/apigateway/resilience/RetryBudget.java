@@ -0,0 +1,57 @@
+package org.example.apigateway.resilience;
+
+import java.time.Duration;
+
+/**
+ * Бюджет повторов маршрута.
+ * Повтор разрешен, пока число повторов за окно меньше доли от числа запросов плюс небольшой запас
+ * в секунду. Когда сервис отвечает ошибками на все запросы, повторы не удваивают нагрузку на него.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final long reserve;
+    private final long windowNanos;
+
+    private long windowStart;
+    private long requests;
+    private long retries;
+
+    public RetryBudget(double ratio, int minRetriesPerSecond, Duration window) {
+        this.ratio = ratio;
+        this.reserve = Math.max(0, (long) minRetriesPerSecond * Math.max(1, window.toSeconds()));
+        this.windowNanos = window.toNanos();
+        this.windowStart = System.nanoTime();
+    }
+
+    /**
+     * Метод для учета первой попытки запроса.
+     */
+    public synchronized void onRequest() {
+        roll();
+        requests++;
+    }
+
+    /**
+     * Метод для получения разрешения на повтор.
+     *
+     * @return - true, если бюджет не исчерпан (повтор учтен)
+     */
+    public synchronized boolean tryRetry() {
+        roll();
+        if (retries >= reserve + (long) (ratio * requests)) {
+            return false;
+        }
+        retries++;
+        return true;
+    }
+
+    private void roll() {
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos) {
+            windowStart = now;
+            requests = 0;
+            retries = 0;
+        }
+    }
+}
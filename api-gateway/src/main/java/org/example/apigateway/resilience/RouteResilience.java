@@ -0,0 +1,87 @@
+package org.example.apigateway.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker, bulkhead и бюджет повторов каждого маршрута.
+ * Создаются при первом запросе к маршруту по его политике.
+ */
+public class RouteResilience {
+
+    private final RouteResilienceProperties properties;
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final Map<String, RoutePolicy> policies = new ConcurrentHashMap<>();
+
+    public RouteResilience(RouteResilienceProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Метод для получения защиты маршрута.
+     *
+     * @param routeId - ID маршрута
+     * @return - защита маршрута или null, если для маршрута нет политики
+     */
+    public RoutePolicy forRoute(String routeId) {
+        RouteResilienceProperties.Policy policy = properties.getRoutes()
+                .getOrDefault(routeId, properties.getDefaultPolicy());
+        if (policy == null) {
+            return null;
+        }
+        return policies.computeIfAbsent(routeId, id -> create(id, policy));
+    }
+
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return circuitBreakerRegistry;
+    }
+
+    public BulkheadRegistry getBulkheadRegistry() {
+        return bulkheadRegistry;
+    }
+
+    private RoutePolicy create(String routeId, RouteResilienceProperties.Policy policy) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(policy.getFailureRateThreshold())
+                .slowCallDurationThreshold(policy.getSlowCallDuration())
+                .slowCallRateThreshold(policy.getSlowCallRateThreshold())
+                .slidingWindowSize(policy.getSlidingWindowSize())
+                .minimumNumberOfCalls(policy.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(policy.getOpenDuration())
+                .permittedNumberOfCallsInHalfOpenState(policy.getPermittedCallsInHalfOpenState())
+                .build();
+        // Без ожидания: запрос, которому не хватило места, сразу получает 503, а не копится в очереди
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(policy.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+
+        RouteResilienceProperties.Retry retry = policy.getRetry();
+        return new RoutePolicy(
+                circuitBreakerRegistry.circuitBreaker(routeId, circuitBreakerConfig),
+                bulkheadRegistry.bulkhead(routeId, bulkheadConfig),
+                retry.getMaxRetries(),
+                new RetryBudget(retry.getBudgetRatio(), retry.getMinRetriesPerSecond(), retry.getBudgetWindow()));
+    }
+
+    /**
+     * Защита маршрута.
+     *
+     * @param circuitBreaker - circuit breaker
+     * @param bulkhead - ограничение одновременных запросов
+     * @param maxRetries - максимум повторов запроса
+     * @param retryBudget - бюджет повторов
+     */
+    public record RoutePolicy(CircuitBreaker circuitBreaker, Bulkhead bulkhead, int maxRetries,
+                              RetryBudget retryBudget) {
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.apigateway.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки защиты шлюза от неисправного сервиса на каждом маршруте:
+ * circuit breaker, ограничение одновременных запросов (bulkhead) и повтор GET-запросов с бюджетом.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "route-resilience")
+public class RouteResilienceProperties {
+
+    private boolean enabled = true;
+
+    // Политика маршрутов, для которых нет своей (null - без защиты)
+    private Policy defaultPolicy = new Policy();
+
+    // Политики по ID маршрута
+    private Map<String, Policy> routes = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        // Bulkhead: одновременные запросы к маршруту, лишние сразу получают 503
+        private int maxConcurrentCalls = 100;
+
+        // Circuit breaker: доля ошибок (5xx, ошибки соединения и таймауты) в процентах, после которой маршрут закрывается
+        private float failureRateThreshold = 50;
+
+        // Circuit breaker: медленный запрос и доля медленных запросов в процентах
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        private float slowCallRateThreshold = 80;
+
+        // Circuit breaker: окно из последних запросов и минимум запросов для решения
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+
+        // Circuit breaker: время в открытом состоянии и пробные запросы после него
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+
+        private Retry retry = new Retry();
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        // Повторы GET/HEAD после ошибки соединения или таймаута (0 - без повторов)
+        private int maxRetries = 1;
+
+        // Бюджет: повторы не больше этой доли запросов маршрута за окно
+        private double budgetRatio = 0.1;
+
+        // Повторы, разрешенные в секунду сверх доли (для маршрутов с малым трафиком)
+        private int minRetriesPerSecond = 1;
+
+        // Окно подсчета бюджета
+        private Duration budgetWindow = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.apigateway.token;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Заголовки пользователя для сервисов за шлюзом.
+ * После проверки токена шлюз передает subject, имя и роли с подписью HMAC-SHA256 внутренним ключом,
+ * и сервисы не разбирают JWT повторно. Такие же заголовки от клиента всегда удаляются.
+ */
+public class IdentityHeaders {
+
+    public static final String SUBJECT = "X-Auth-Subject";
+    public static final String NAME = "X-Auth-Name";
+    public static final String ROLES = "X-Auth-Roles";
+    public static final String TIMESTAMP = "X-Auth-Timestamp";
+    public static final String SIGNATURE = "X-Auth-Signature";
+
+    public static final List<String> ALL = List.of(SUBJECT, NAME, ROLES, TIMESTAMP, SIGNATURE);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public IdentityHeaders(String secretKey) {
+        if (secretKey == null || secretKey.isBlank()) {
+            throw new IllegalStateException("security.identity-headers.secret_key is required when identity headers are enabled");
+        }
+        this.key = new SecretKeySpec(Base64.getDecoder().decode(secretKey), ALGORITHM);
+    }
+
+    /**
+     * Метод для записи подписанных заголовков пользователя.
+     *
+     * @param headers - заголовки запроса к сервису
+     * @param claims - claims проверенного токена
+     * @param now - текущее время, секунды с начала эпохи
+     */
+    public void write(HttpHeaders headers, Claims claims, long now) {
+        String subject = claims.getSubject();
+        String nameClaim = claims.get("name", String.class);
+        // Имя может быть не в ASCII, а заголовки передаются в ASCII
+        String name = nameClaim != null ? URLEncoder.encode(nameClaim, StandardCharsets.UTF_8) : "";
+        List<?> rolesClaim = claims.get("roles", List.class);
+        String roles = rolesClaim != null ? String.join(",", rolesClaim.stream().map(String::valueOf).toList()) : "";
+        String timestamp = String.valueOf(now);
+
+        headers.set(SUBJECT, subject);
+        headers.set(NAME, name);
+        headers.set(ROLES, roles);
+        headers.set(TIMESTAMP, timestamp);
+        headers.set(SIGNATURE, sign(subject, name, roles, timestamp));
+    }
+
+    /**
+     * Метод для вычисления подписи: HMAC-SHA256 от subject, имени, ролей и времени через перевод строки.
+     *
+     * @return - подпись в base64url
+     */
+    String sign(String subject, String name, String roles, String timestamp) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            String payload = subject + "\n" + name + "\n" + roles + "\n" + timestamp;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign identity headers", e);
+        }
+    }
+}
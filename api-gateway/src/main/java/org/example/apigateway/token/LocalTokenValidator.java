@@ -0,0 +1,79 @@
+package org.example.apigateway.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Проверка access токена на шлюзе без обращения к Auth Service.
+ * Подпись и срок действия проверяются ключом, отзыв - по списку из потока Auth Service.
+ */
+public class LocalTokenValidator {
+
+    private final JwtParser jwtParser;
+    private final RevocationSet revocationSet;
+
+    public LocalTokenValidator(String secretKey, RevocationSet revocationSet) {
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build();
+        this.revocationSet = revocationSet;
+    }
+
+    /**
+     * Метод для проверки access токена.
+     *
+     * @param token - JWT токен
+     * @return - VALID или INVALID; UNVERIFIED, если отзыв нельзя проверить локально
+     * (токен без jti или список отозванных токенов неполон)
+     */
+    public Result validate(String token) {
+        return validate(parse(token));
+    }
+
+    /**
+     * Метод для проверки уже разобранного access токена.
+     *
+     * @param claims - claims токена из parse (null - подпись или срок неверны)
+     * @return - результат проверки
+     */
+    public Result validate(Claims claims) {
+        if (claims == null) {
+            return Result.INVALID;
+        }
+
+        // Refresh токен не дает доступа к ресурсам
+        if ("refresh".equals(claims.get("token_type", String.class))) {
+            return Result.INVALID;
+        }
+
+        String jti = claims.getId();
+        if (jti == null || !revocationSet.isSynced()) {
+            return Result.UNVERIFIED;
+        }
+        return revocationSet.isRevoked(jti) ? Result.INVALID : Result.VALID;
+    }
+
+    /**
+     * Метод для получения claims токена с проверкой подписи и срока действия.
+     *
+     * @param token - JWT токен
+     * @return - claims или null для токена с неверной подписью, истекшим сроком или поврежденного
+     */
+    public Claims parse(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public enum Result {
+        VALID,
+        INVALID,
+        UNVERIFIED
+    }
+}
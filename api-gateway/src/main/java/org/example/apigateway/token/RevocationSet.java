@@ -0,0 +1,63 @@
+package org.example.apigateway.token;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Отозванные access токены в памяти шлюза: ID токена (jti) -> срок действия (секунды с начала эпохи).
+ * После истечения срока токен отклоняется и без списка, поэтому запись удаляется.
+ * Пока поток из Auth Service не передал snapshot (или соединение потеряно), список считается неполным.
+ */
+public class RevocationSet {
+
+    private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile boolean synced;
+
+    /**
+     * Метод для добавления отозванного токена.
+     *
+     * @param jti - ID токена
+     * @param exp - срок действия токена, секунды с начала эпохи
+     * @param now - текущее время, секунды с начала эпохи
+     */
+    public void revoke(String jti, long exp, long now) {
+        if (jti != null && exp > now) {
+            revoked.put(jti, exp);
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Метод для удаления записей истекших токенов.
+     *
+     * @param now - текущее время, секунды с начала эпохи
+     * @return - количество удаленных записей
+     */
+    public int purgeExpired(long now) {
+        int before = revoked.size();
+        revoked.values().removeIf(exp -> exp <= now);
+        return before - revoked.size();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    // Snapshot получен: список полон, пока соединение с Auth Service не прервется
+    public void markSynced() {
+        synced = true;
+    }
+
+    // Соединение прервано: отзывы могут теряться до следующего snapshot
+    public void markStale() {
+        synced = false;
+    }
+}
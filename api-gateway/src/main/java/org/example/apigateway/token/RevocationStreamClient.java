@@ -0,0 +1,97 @@
+package org.example.apigateway.token;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.apigateway.dto.RevokedTokenDto;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Подписка на поток отозванных токенов Auth Service (SSE).
+ * Соединение держится постоянно; при обрыве, завершении или долгом молчании потока список
+ * помечается неполным и соединение переоткрывается с нарастающей паузой.
+ * После переподключения Auth Service заново присылает snapshot, поэтому пропущенные отзывы не теряются.
+ */
+@Slf4j
+public class RevocationStreamClient {
+
+    public static final String SECRET_HEADER = "X-Revocations-Secret";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<List<RevokedTokenDto>>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final RevocationSet revocationSet;
+    private final TokenValidationProperties properties;
+
+    private volatile Disposable subscription;
+
+    public RevocationStreamClient(WebClient webClient,
+                                  RevocationSet revocationSet,
+                                  TokenValidationProperties properties) {
+        this.webClient = webClient;
+        this.revocationSet = revocationSet;
+        this.properties = properties;
+    }
+
+    /**
+     * Метод для открытия подписки на поток отозванных токенов.
+     */
+    public void start() {
+        subscription = webClient.get()
+                .uri(properties.getRevocationsPath())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(headers -> {
+                    if (properties.getRevocationsSecret() != null) {
+                        headers.set(SECRET_HEADER, properties.getRevocationsSecret());
+                    }
+                })
+                .retrieve()
+                .bodyToFlux(EVENT_TYPE)
+                .timeout(properties.getStreamTimeout())
+                .doOnNext(this::apply)
+                // Завершение потока - тоже обрыв соединения
+                .then(Mono.error(new IllegalStateException("Token revocation stream closed")))
+                .doOnError(e -> {
+                    revocationSet.markStale();
+                    log.warn("Token revocation stream lost, reconnecting: {}", e.getMessage());
+                })
+                // transientErrors: пауза сбрасывается, если после переподключения пришли события
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectMinBackoff())
+                        .maxBackoff(properties.getReconnectMaxBackoff())
+                        .transientErrors(true))
+                .subscribe();
+    }
+
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        revocationSet.markStale();
+    }
+
+    /**
+     * Метод для применения события потока к списку отозванных токенов.
+     * Snapshot дополняет список, а не заменяет его: отзыв мог прийти раньше snapshot.
+     *
+     * @param event - событие потока (heartbeat приходит без данных)
+     */
+    void apply(ServerSentEvent<List<RevokedTokenDto>> event) {
+        long now = Instant.now().getEpochSecond();
+        if (event.data() != null) {
+            event.data().forEach(token -> revocationSet.revoke(token.getJti(), token.getExp(), now));
+        }
+        if ("snapshot".equals(event.event())) {
+            revocationSet.markSynced();
+            log.info("Token revocation snapshot received, {} revoked tokens", revocationSet.size());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.apigateway.token;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Объединение одновременных одинаковых вызовов.
+ * Пока вызов по ключу выполняется, остальные запросы с тем же ключом ждут его результата,
+ * а не делают свой вызов. После завершения ключ освобождается, результат не запоминается.
+ *
+ * @param <K> - ключ вызова
+ * @param <V> - результат вызова
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Метод для выполнения вызова или присоединения к уже выполняющемуся.
+     *
+     * @param key - ключ вызова
+     * @param call - вызов
+     * @return - результат вызова
+     */
+    public Mono<V> execute(K key, Function<K, Mono<V>> call) {
+        return Mono.deferContextual(contextView -> {
+            CompletableFuture<V> promise = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+            if (existing != null) {
+                return Mono.fromFuture(existing, true);
+            }
+
+            promise.whenComplete((value, error) -> inFlight.remove(key, promise));
+            // Вызов выполняется в контексте первого запроса (трассировка) и не отменяется вместе с ним
+            call.apply(key)
+                    .contextWrite(contextView)
+                    .subscribe(promise::complete, promise::completeExceptionally, () -> promise.complete(null));
+            return Mono.fromFuture(promise, true);
+        });
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.apigateway.token;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.Map;
+
+/**
+ * Actuator-эндпоинт кэша результатов проверки токенов.
+ * Нужен, чтобы сразу отозвать доступ пользователя, не дожидаясь истечения записей кэша.
+ */
+@Endpoint(id = "tokencache")
+public class TokenCacheEndpoint {
+
+    private final TokenValidationCache cache;
+
+    public TokenCacheEndpoint(TokenValidationCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Метод для получения статистики кэша.
+     *
+     * @return - размер кэша и доля попаданий
+     */
+    @ReadOperation
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.getCache().synchronous().stats();
+        return Map.of(
+                "size", cache.getCache().synchronous().estimatedSize(),
+                "hitCount", stats.hitCount(),
+                "missCount", stats.missCount(),
+                "hitRate", stats.hitRate());
+    }
+
+    /**
+     * Метод для сброса результатов проверки токенов пользователя.
+     *
+     * @param subject - subject токенов (email пользователя)
+     * @return - количество удаленных записей
+     */
+    @DeleteOperation
+    public Map<String, Object> flushSubject(@Selector String subject) {
+        return Map.of("subject", subject, "removed", cache.invalidateSubject(subject));
+    }
+
+    /**
+     * Метод для сброса всего кэша.
+     */
+    @DeleteOperation
+    public void flushAll() {
+        cache.invalidateAll();
+    }
+}
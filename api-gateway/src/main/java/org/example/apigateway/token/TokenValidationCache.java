@@ -0,0 +1,122 @@
+package org.example.apigateway.token;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Кэш результатов проверки токенов в Auth Service.
+ * Ключ - SHA-256 токена, сам токен в памяти шлюза не хранится. Положительный результат живет
+ * не дольше заданного срока и срока действия токена, отрицательный - свой (обычно короткий) срок.
+ * Ошибки вызова Auth Service не кэшируются. Одновременные проверки одного токена ждут одного вызова.
+ */
+public class TokenValidationCache {
+
+    private final AsyncCache<String, CachedValidation> cache;
+
+    public TokenValidationCache(long maximumSize, Duration ttl, Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ValidationExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Метод для получения результата проверки из кэша или из Auth Service.
+     *
+     * @param token - JWT токен
+     * @param claims - claims токена с проверенной подписью (null, если подпись или срок неверны)
+     * @param loader - проверка токена в Auth Service
+     * @return - true, если токен валиден
+     */
+    public Mono<Boolean> get(String token, Claims claims, Function<String, Mono<Boolean>> loader) {
+        String subject = claims != null ? claims.getSubject() : null;
+        Instant expiresAt = claims != null && claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+
+        // suppressCancel: отмена одного запроса не должна отменять вызов, которого ждут другие
+        return Mono.fromFuture(cache.get(hash(token), (key, executor) -> loader.apply(token)
+                        .defaultIfEmpty(false)
+                        .map(valid -> new CachedValidation(valid, subject, expiresAt))
+                        .toFuture()), true)
+                .map(CachedValidation::valid);
+    }
+
+    /**
+     * Метод для удаления результатов проверки токенов пользователя.
+     *
+     * @param subject - subject токенов (email пользователя)
+     * @return - количество удаленных записей
+     */
+    public int invalidateSubject(String subject) {
+        int before = cache.synchronous().asMap().size();
+        cache.synchronous().asMap().values().removeIf(validation -> Objects.equals(subject, validation.subject()));
+        return before - cache.synchronous().asMap().size();
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public AsyncCache<String, CachedValidation> getCache() {
+        return cache;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Результат проверки токена.
+     *
+     * @param valid - токен валиден
+     * @param subject - subject токена, для сброса по пользователю
+     * @param expiresAt - срок действия токена
+     */
+    public record CachedValidation(boolean valid, String subject, Instant expiresAt) {
+    }
+
+    /**
+     * Срок жизни записи: для валидного токена - минимум из ttl и оставшегося срока действия токена.
+     */
+    private record ValidationExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, CachedValidation> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+            if (!value.valid()) {
+                return negativeTtl.toNanos();
+            }
+            if (value.expiresAt() == null) {
+                return ttl.toNanos();
+            }
+            Duration untilExpiration = Duration.between(Instant.now(), value.expiresAt());
+            return Math.max(0, (untilExpiration.compareTo(ttl) < 0 ? untilExpiration : ttl).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.apigateway.token;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки проверки JWT на шлюзе.
+ * В режиме local подпись и срок действия проверяются на шлюзе, а отозванные токены
+ * приходят потоком из Auth Service. В режиме remote каждый токен проверяется в Auth Service.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "token-validation")
+public class TokenValidationProperties {
+
+    private Mode mode = Mode.LOCAL;
+
+    // Имя Auth Service в Eureka: проверка токенов распределяется между его экземплярами
+    private String authServiceId = "authentication-service";
+
+    private String validatePath = "/api/v1/auth/validate-token";
+
+    // Пул соединений и таймауты клиента проверки токенов
+    private Client client = new Client();
+
+    // Поток отозванных токенов (SSE): экземпляр Auth Service выбирается через Eureka,
+    // каждый экземпляр рассылает отзывы всех экземпляров
+    private String revocationsPath = "/api/v1/auth/revocations";
+
+    // Общий с Auth Service ключ подписчика потока отозванных токенов
+    private String revocationsSecret;
+
+    // Если за это время не пришло ни одного события (в том числе heartbeat), соединение переоткрывается
+    private Duration streamTimeout = Duration.ofSeconds(45);
+
+    // Пауза перед переподключением к потоку: растет от минимальной до максимальной
+    private Duration reconnectMinBackoff = Duration.ofSeconds(1);
+    private Duration reconnectMaxBackoff = Duration.ofSeconds(30);
+
+    // Период удаления истекших записей из списка отозванных токенов
+    private Duration purgeInterval = Duration.ofMinutes(1);
+
+    // Кэш результатов проверки токенов в Auth Service
+    private Cache cache = new Cache();
+
+    public enum Mode {
+        LOCAL,
+        REMOTE
+    }
+
+    @Getter
+    @Setter
+    public static class Client {
+
+        private int maxConnections = 100;
+
+        // Сколько запрос ждет свободного соединения из пула
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+
+        // Соединение без запросов дольше этого срока закрывается
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        private Duration connectTimeout = Duration.ofSeconds(1);
+
+        private Duration responseTimeout = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        private long maximumSize = 100_000;
+
+        // Сколько шлюз может не знать об отзыве токена, проверенного в Auth Service
+        private Duration ttl = Duration.ofSeconds(30);
+
+        // Срок хранения отрицательного результата
+        private Duration negativeTtl = Duration.ofSeconds(10);
+    }
+}
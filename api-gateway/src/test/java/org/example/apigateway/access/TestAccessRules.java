@@ -0,0 +1,76 @@
+package org.example.apigateway.access;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAccessRules {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccessRules accessRules;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accessRules = new AccessRules(List.of(
+                rule("/api/v1/tasks/admin/**", List.of(), List.of("ROLE_ADMIN")),
+                rule("/api/v1/tasks/executors/**", List.of(), List.of("ROLE_ADMIN", "ROLE_EXECUTOR")),
+                rule("/api/v1/tasks/**", List.of("delete"), List.of("ROLE_ADMIN"))
+        ), meterRegistry);
+    }
+
+    @Test
+    public void testAdminRouteRequiresAdminRole() {
+        assertFalse(accessRules.isAllowed(path("/api/v1/tasks/admin/users"), HttpMethod.GET, List.of("ROLE_USER")));
+        assertTrue(accessRules.isAllowed(path("/api/v1/tasks/admin/users"), HttpMethod.GET,
+                List.of("ROLE_USER", "ROLE_ADMIN")));
+        assertFalse(accessRules.isAllowed(path("/api/v1/tasks/admin/users"), HttpMethod.GET, null));
+
+        assertEquals(2, meterRegistry.get("gateway.access.denied").tag("rule", "/api/v1/tasks/admin/**")
+                .counter().count());
+    }
+
+    @Test
+    public void testAnyOfRoles() {
+        assertTrue(accessRules.isAllowed(path("/api/v1/tasks/executors/1/comment"), HttpMethod.POST,
+                List.of("ROLE_EXECUTOR")));
+        assertFalse(accessRules.isAllowed(path("/api/v1/tasks/executors/1/comment"), HttpMethod.POST,
+                List.of("ROLE_USER")));
+    }
+
+    @Test
+    public void testMethodRestrictedRule() {
+        assertTrue(accessRules.isAllowed(path("/api/v1/tasks/1"), HttpMethod.GET, List.of("ROLE_USER")));
+        assertFalse(accessRules.isAllowed(path("/api/v1/tasks/1"), HttpMethod.DELETE, List.of("ROLE_USER")));
+    }
+
+    @Test
+    public void testRouteWithoutRuleAllowed() {
+        assertTrue(accessRules.isAllowed(path("/api/v1/tasks"), HttpMethod.GET, List.of()));
+        assertTrue(accessRules.isAllowed(path("/api/v1/tasks/administration"), HttpMethod.GET, List.of("ROLE_USER")));
+    }
+
+    @Test
+    public void testRuleWithoutRolesRejected() {
+        assertThrows(IllegalStateException.class, () -> new AccessRules(
+                List.of(rule("/api/v1/tasks/admin/**", List.of(), List.of())), meterRegistry));
+    }
+
+    private static PathContainer path(String path) {
+        return PathContainer.parsePath(path);
+    }
+
+    private static AccessRuleProperties.Rule rule(String path, List<String> methods, List<String> roles) {
+        AccessRuleProperties.Rule rule = new AccessRuleProperties.Rule();
+        rule.setPath(path);
+        rule.setMethods(methods);
+        rule.setRoles(roles);
+        return rule;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.apigateway.aggregation;
+
+import org.example.apigateway.dto.TaskDetailsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskDetailsAggregator {
+
+    private static final String TASK = "{\"id\":1,\"name\":\"Задача\",\"authorId\":10,\"executorId\":[20,10]}";
+    private static final String COMMENTS = "{\"content\":[{\"text\":\"Готово\"}],\"totalElements\":1}";
+
+    // Ответы сервисов по пути запроса
+    private final Map<String, Function<ClientRequest, Mono<ClientResponse>>> responses = new ConcurrentHashMap<>();
+    private final Queue<ClientRequest> requests = new ConcurrentLinkedQueue<>();
+
+    private TaskDetailsAggregator aggregator;
+
+    @BeforeEach
+    public void setUp() {
+        responses.put("/api/v1/tasks/1", request -> ok(TASK));
+        responses.put("/api/v1/tasks/comment/1", request -> ok(COMMENTS));
+        responses.put("/api/v1/auth/executor/10", request -> ok("{\"id\":10,\"name\":\"Автор\"}"));
+        responses.put("/api/v1/auth/executor/20", request -> ok("{\"id\":20,\"name\":\"Исполнитель\"}"));
+
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return responses.getOrDefault(request.url().getPath(),
+                            r -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build())).apply(request);
+                })
+                .build();
+
+        TaskDetailsProperties properties = new TaskDetailsProperties();
+        properties.setCommentsTimeout(Duration.ofMillis(100));
+        properties.setUsersTimeout(Duration.ofMillis(100));
+        aggregator = new TaskDetailsAggregator(webClient, properties);
+    }
+
+    @Test
+    public void testMergesAllParts() {
+        TaskDetailsDto details = aggregate();
+
+        assertEquals("Задача", details.getTask().get("name").asText());
+        assertEquals(1, details.getComments().get("totalElements").asInt());
+        // Автор и исполнитель - один пользователь, он запрашивается один раз
+        assertEquals(List.of(10L, 20L), details.getUsers().stream().map(user -> user.get("id").asLong()).toList());
+        assertTrue(details.getErrors().isEmpty());
+        assertEquals(4, requests.size());
+        assertTrue(requests.stream().allMatch(request ->
+                "Bearer token".equals(request.headers().getFirst(HttpHeaders.AUTHORIZATION))));
+    }
+
+    @Test
+    public void testCommentsTimeoutGivesPartialResult() {
+        responses.put("/api/v1/tasks/comment/1", request -> Mono.never());
+
+        TaskDetailsDto details = aggregate();
+
+        assertNotNull(details.getTask());
+        assertNull(details.getComments());
+        assertEquals(2, details.getUsers().size());
+        assertEquals(Map.of("comments", "timeout"), details.getErrors());
+    }
+
+    @Test
+    public void testFailedUserIsSkipped() {
+        responses.put("/api/v1/auth/executor/20", request -> Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN).build()));
+
+        TaskDetailsDto details = aggregate();
+
+        assertEquals(1, details.getUsers().size());
+        assertNotNull(details.getComments());
+        assertEquals(Map.of("users", "status 403"), details.getErrors());
+    }
+
+    @Test
+    public void testUsersTimeout() {
+        responses.put("/api/v1/auth/executor/20", request -> ok("{}").delayElement(Duration.ofSeconds(5)));
+
+        TaskDetailsDto details = aggregate();
+
+        assertTrue(details.getUsers().isEmpty());
+        assertEquals(Map.of("users", "timeout"), details.getErrors());
+    }
+
+    @Test
+    public void testTaskErrorFailsAggregation() {
+        responses.remove("/api/v1/tasks/1");
+
+        WebClientResponseException e = assertThrows(WebClientResponseException.class, this::aggregate);
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        // Пользователи без задачи не запрашиваются
+        assertTrue(requests.stream().noneMatch(request -> request.url().getPath().startsWith("/api/v1/auth")));
+    }
+
+    private TaskDetailsDto aggregate() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("token");
+        return aggregator.aggregate(1, headers).block(Duration.ofSeconds(5));
+    }
+
+    private static Mono<ClientResponse> ok(String body) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+}
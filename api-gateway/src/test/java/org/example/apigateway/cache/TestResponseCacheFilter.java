@@ -0,0 +1,177 @@
+package org.example.apigateway.cache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.example.apigateway.filter.JwtFilter;
+import org.example.apigateway.filter.ResponseCacheFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestResponseCacheFilter {
+
+    private static final String ETAG = "\"0a1b2c\"";
+
+    private final MutableClock clock = new MutableClock();
+    private final List<String> upstreamEtags = new ArrayList<>();
+
+    private String upstreamCacheControl = "max-age=60";
+    private ResponseCacheFilter filter;
+
+    // Сервис задач: ETag по телу и 304 на совпадающий If-None-Match
+    private final GatewayFilterChain chain = exchange -> {
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        upstreamEtags.add(ifNoneMatch);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(ETAG);
+        response.getHeaders().setCacheControl(upstreamCacheControl);
+        if (ETAG.equals(ifNoneMatch)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.writeWith(Mono.empty());
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+        byte[] body = ("{\"path\":\"" + exchange.getRequest().getURI().getPath() + "\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    };
+
+    @BeforeEach
+    public void setUp() {
+        ResponseCacheProperties.Route route = new ResponseCacheProperties.Route();
+        route.setPath("/api/v1/tasks/{taskId:\\d+}");
+        route.setTtl(Duration.ofSeconds(5));
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setRoutes(List.of(route));
+
+        filter = new ResponseCacheFilter(new ResponseCache(properties, clock));
+    }
+
+    @Test
+    public void testFreshResponseServedFromCache() {
+        MockServerWebExchange first = send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+        MockServerWebExchange second = send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+
+        assertEquals(1, upstreamEtags.size());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals("{\"path\":\"/api/v1/tasks/1\"}", second.getResponse().getBodyAsString().block());
+        assertEquals(ETAG, second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    public void testKeyIncludesRolesAndPath() {
+        send("/api/v1/tasks/1", List.of("ROLE_USER", "ROLE_ADMIN"), null);
+        send("/api/v1/tasks/1", List.of("ROLE_ADMIN", "ROLE_USER"), null);
+        send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+        send("/api/v1/tasks/2", List.of("ROLE_USER"), null);
+
+        assertEquals(3, upstreamEtags.size());
+    }
+
+    @Test
+    public void testClientEtagMatchGets304() {
+        send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+        MockServerWebExchange conditional = send("/api/v1/tasks/1", List.of("ROLE_USER"), ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(1, upstreamEtags.size());
+    }
+
+    @Test
+    public void testStaleResponseRevalidatedWithEtag() {
+        send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+        clock.advance(Duration.ofSeconds(6));
+
+        MockServerWebExchange revalidated = send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+
+        assertEquals(ETAG, upstreamEtags.get(1));
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals("REVALIDATED", revalidated.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("{\"path\":\"/api/v1/tasks/1\"}", revalidated.getResponse().getBodyAsString().block());
+
+        // После 304 ответ снова свежий
+        send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+        assertEquals(2, upstreamEtags.size());
+    }
+
+    @Test
+    public void testServiceCacheControlHonored() {
+        upstreamCacheControl = "no-cache, no-store, max-age=0, must-revalidate";
+        send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+        send("/api/v1/tasks/1", List.of("ROLE_USER"), null);
+        assertEquals(2, upstreamEtags.size());
+
+        // max-age сервиса меньше срока маршрута
+        upstreamCacheControl = "max-age=1";
+        send("/api/v1/tasks/2", List.of("ROLE_USER"), null);
+        clock.advance(Duration.ofSeconds(2));
+        send("/api/v1/tasks/2", List.of("ROLE_USER"), null);
+        assertEquals(ETAG, upstreamEtags.get(3));
+    }
+
+    @Test
+    public void testNotCachedRouteOrWithoutClaims() {
+        send("/api/v1/tasks/admin/1", List.of("ROLE_ADMIN"), null);
+        send("/api/v1/tasks/admin/1", List.of("ROLE_ADMIN"), null);
+        send("/api/v1/tasks/1", null, null);
+        send("/api/v1/tasks/1", null, null);
+
+        assertEquals(4, upstreamEtags.size());
+    }
+
+    private MockServerWebExchange send(String path, List<String> roles, String ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        if (roles != null) {
+            Claims claims = Jwts.claims().subject("a@example.com").add("roles", roles).build();
+            exchange.getAttributes().put(JwtFilter.CLAIMS_ATTR, claims);
+        }
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.apigateway.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apigateway.ratelimit.LocalRateLimitStore;
+import org.example.apigateway.ratelimit.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRateLimitFilter {
+
+    private static final String SECRET = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        passed.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(2);
+        limit.setRefillPerSecond(0.001);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("task-service", limit);
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties, new LocalRateLimitStore(), meterRegistry, SECRET);
+    }
+
+    @Test
+    public void testRejectsOverLimitWithRetryAfter() {
+        assertEquals(HttpStatus.OK, status(send(exchange("task-service", token("a@example.com"), "10.0.0.1"))));
+        MockServerWebExchange second = send(exchange("task-service", token("a@example.com"), "10.0.0.1"));
+        assertEquals("0", second.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+
+        MockServerWebExchange rejected = send(exchange("task-service", token("a@example.com"), "10.0.0.1"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertNotNull(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("2", rejected.getResponse().getHeaders().getFirst(RateLimitFilter.LIMIT_HEADER));
+        assertEquals(2, passed.get());
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.requests")
+                .tag("outcome", "rejected").tag("key", "user").counter().count());
+    }
+
+    @Test
+    public void testUsersHaveSeparateBuckets() {
+        // Один IP, разные пользователи
+        for (int i = 0; i < 2; i++) {
+            send(exchange("task-service", token("a@example.com"), "10.0.0.1"));
+            send(exchange("task-service", token("b@example.com"), "10.0.0.1"));
+        }
+        assertEquals(4, passed.get());
+    }
+
+    @Test
+    public void testForgedTokenFallsBackToIp() {
+        String forged = Jwts.builder().subject("c@example.com")
+                .signWith(Keys.hmacShaKeyFor(new byte[32])).compact();
+
+        send(exchange("task-service", forged, "10.0.0.2"));
+        send(exchange("task-service", null, "10.0.0.2"));
+        MockServerWebExchange rejected = send(exchange("task-service", forged, "10.0.0.2"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testRouteWithoutLimit() {
+        for (int i = 0; i < 5; i++) {
+            send(exchange("authentication-service", null, "10.0.0.3"));
+        }
+        assertEquals(5, passed.get());
+    }
+
+    private MockServerWebExchange send(MockServerWebExchange exchange) {
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private HttpStatus status(MockServerWebExchange exchange) {
+        return exchange.getResponse().getStatusCode() != null
+                ? HttpStatus.valueOf(exchange.getResponse().getStatusCode().value())
+                : HttpStatus.OK;
+    }
+
+    private MockServerWebExchange exchange(String routeId, String token, String ip) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/tasks")
+                .remoteAddress(new InetSocketAddress(ip, 40000));
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = Route.async().id(routeId).uri("lb://TASK-SERVICE").predicate(e -> true).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private String token(String subject) {
+        return Jwts.builder().subject(subject)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).compact();
+    }
+}
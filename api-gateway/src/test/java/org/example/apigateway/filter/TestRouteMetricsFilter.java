@@ -0,0 +1,112 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRouteMetricsFilter {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RouteMetricsFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RouteMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    public void testRecordsRouteMetrics() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/tasks/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                new DefaultResponse(new DefaultServiceInstance("task-1", "task-service", "10.0.0.5", 8082, false)));
+        exchange.getAttributes().put(JwtFilter.VALIDATION_TIME_ATTR, TimeUnit.MILLISECONDS.toNanos(3));
+
+        // Ответ сервиса проходит через фильтр замера времени сервиса
+        GatewayFilterChain upstream = ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            return ex.getResponse().writeWith(Mono.just(ex.getResponse().bufferFactory()
+                    .wrap("{\"id\":1}".getBytes(StandardCharsets.UTF_8))));
+        };
+        filter.filter(exchange, ex -> new UpstreamTimingFilter().filter(ex, upstream)).block();
+
+        String[] tags = {"route", "task-service", "status", "200", "instance", "10.0.0.5:8082"};
+        assertEquals(1, meterRegistry.get(RouteMetricsFilter.REQUESTS_METRIC).tags(tags).timer().count());
+        assertEquals(3, meterRegistry.get(RouteMetricsFilter.AUTH_METRIC).tags(tags).timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, meterRegistry.get(RouteMetricsFilter.UPSTREAM_METRIC).tags(tags).timer().count());
+        assertEquals(8, meterRegistry.get(RouteMetricsFilter.RESPONSE_SIZE_METRIC).tags(tags).summary().totalAmount());
+    }
+
+    @Test
+    public void testRejectedRequestHasNoUpstreamTime() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/tasks/1"));
+
+        filter.filter(exchange, ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return ex.getResponse().setComplete();
+        }).block();
+
+        String[] tags = {"route", "task-service", "status", "401", "instance", "none"};
+        assertEquals(1, meterRegistry.get(RouteMetricsFilter.REQUESTS_METRIC).tags(tags).timer().count());
+        assertNull(meterRegistry.find(RouteMetricsFilter.UPSTREAM_METRIC).timer());
+        assertNull(meterRegistry.find(RouteMetricsFilter.AUTH_METRIC).timer());
+        assertEquals(0, meterRegistry.get(RouteMetricsFilter.RESPONSE_SIZE_METRIC).tags(tags).summary().totalAmount());
+    }
+
+    @Test
+    public void testErrorStatus() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/tasks/1"));
+
+        assertThrows(ResponseStatusException.class, () -> filter.filter(exchange,
+                ex -> Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT))).block());
+
+        assertEquals(1, meterRegistry.get(RouteMetricsFilter.REQUESTS_METRIC).tag("status", "504").timer().count());
+    }
+
+    @Test
+    public void testEventStreamIsNotMeasured() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/tasks/events")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        filter.filter(exchange, ex -> ex.getResponse().setComplete()).block();
+
+        assertNull(meterRegistry.find(RouteMetricsFilter.REQUESTS_METRIC).timer());
+    }
+
+    @Test
+    public void testAcceptHeaderDoesNotSkipMetrics() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/tasks")
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+
+        filter.filter(exchange, ex -> ex.getResponse().setComplete()).block();
+
+        assertEquals(1, meterRegistry.get(RouteMetricsFilter.REQUESTS_METRIC).timer().count());
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("task-service")
+                .uri("lb://task-service")
+                .predicate(ex -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.apigateway.loadbalancer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка балансировщика на трех локальных экземплярах вместо Eureka.
+ */
+public class TestLeastLoadedLoadBalancer {
+
+    private final ServiceInstance fast1 = instance("task-service-1", 8082);
+    private final ServiceInstance fast2 = instance("task-service-2", 8083);
+    private final ServiceInstance slow = instance("task-service-3", 8084);
+
+    private LeastLoadedLoadBalancer loadBalancer;
+
+    @BeforeEach
+    public void setUp() {
+        loadBalancer = new LeastLoadedLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("task-service", fast1, fast2, slow),
+                "task-service", Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void testSlowInstanceGetsLessTraffic() {
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            ServiceInstance chosen = execute();
+            picks.merge(chosen.getInstanceId(), 1, Integer::sum);
+        }
+
+        // Round-robin отдал бы каждому экземпляру треть запросов.
+        // Доли двух быстрых экземпляров зависят от шума измеренной задержки, проверяется только, что оба в работе
+        assertTrue(picks.getOrDefault("task-service-3", 0) < 300, picks.toString());
+        assertTrue(picks.get("task-service-1") + picks.get("task-service-2") > 2700, picks.toString());
+        assertTrue(picks.get("task-service-1") > 300, picks.toString());
+        assertTrue(picks.get("task-service-2") > 300, picks.toString());
+    }
+
+    @Test
+    public void testInFlightRequestsAvoided() {
+        // Экземпляр с зависшими запросами при равной задержке проигрывает любому другому
+        for (int i = 0; i < 5; i++) {
+            loadBalancer.onStartRequest(new DefaultRequest<>(new DefaultRequestContext()), new DefaultResponse(fast1));
+        }
+        assertEquals(5, loadBalancer.inFlight(fast1));
+
+        for (int i = 0; i < 200; i++) {
+            assertNotEquals(fast1, loadBalancer.choose(List.of(fast1, fast2)).getServer());
+        }
+    }
+
+    @Test
+    public void testFailuresPenalized() {
+        for (int i = 0; i < 50; i++) {
+            complete(fast1, 1, CompletionContext.Status.FAILED);
+            complete(fast2, 20, CompletionContext.Status.SUCCESS);
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(fast2, loadBalancer.choose(List.of(fast1, fast2)).getServer());
+        }
+    }
+
+    @Test
+    public void testCancelledRequestsReleased() throws InterruptedException {
+        loadBalancer = new LeastLoadedLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("task-service", fast1, fast2),
+                "task-service", Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofMillis(50));
+
+        // Отмененные запросы: onComplete не вызывается
+        for (int i = 0; i < 5; i++) {
+            loadBalancer.onStartRequest(new DefaultRequest<>(new DefaultRequestContext()), new DefaultResponse(fast1));
+        }
+        assertEquals(5, loadBalancer.inFlight(fast1));
+
+        Thread.sleep(100);
+
+        assertEquals(0, loadBalancer.inFlight(fast1));
+        Map<ServiceInstance, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            picks.merge(loadBalancer.choose(List.of(fast1, fast2)).getServer(), 1, Integer::sum);
+        }
+        assertTrue(picks.getOrDefault(fast1, 0) > 0, picks.toString());
+    }
+
+    @Test
+    public void testCompletionReleasesOwnRequestOnly() {
+        // Запросы с одинаковыми данными - разные запросы
+        Request<Object> first = new DefaultRequest<>(new DefaultRequestContext());
+        Request<Object> second = new DefaultRequest<>(new DefaultRequestContext());
+        loadBalancer.onStartRequest(first, new DefaultResponse(fast1));
+        loadBalancer.onStartRequest(second, new DefaultResponse(fast1));
+
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, first, new DefaultResponse(fast1)));
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, first, new DefaultResponse(fast1)));
+
+        assertEquals(1, loadBalancer.inFlight(fast1));
+    }
+
+    @Test
+    public void testSingleAndNoInstances() {
+        assertEquals(slow, loadBalancer.choose(List.of(slow)).getServer());
+        assertFalse(loadBalancer.choose(List.of()).hasServer());
+    }
+
+    private ServiceInstance chosen() {
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>(new DefaultRequestContext()))
+                .block();
+        assertNotNull(response);
+        return response.getServer();
+    }
+
+    // Выбор экземпляра и выполнение запроса, как это делает фильтр маршрутов lb://
+    private ServiceInstance execute() {
+        ServiceInstance chosen = chosen();
+        complete(chosen, chosen == slow ? 200 : 10, CompletionContext.Status.SUCCESS);
+        return chosen;
+    }
+
+    private void complete(ServiceInstance instance, long latencyMillis, CompletionContext.Status status) {
+        DefaultRequestContext context = new DefaultRequestContext();
+        context.setRequestStartTime(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        Request<Object> request = new DefaultRequest<>(context);
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<>(status, request, response));
+    }
+
+    private static ServiceInstance instance(String instanceId, int port) {
+        return new DefaultServiceInstance(instanceId, "task-service", "localhost", port, false);
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.apigateway.overload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoopGroup;
+import org.example.apigateway.filter.LoadSheddingFilter;
+import org.example.apigateway.filter.UpstreamTimingFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLoadSheddingFilter {
+
+    private final GatewayFilterChain passing = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    private OverloadDetector overloadDetector;
+    private SimpleMeterRegistry meterRegistry;
+    private LoadSheddingFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        OverloadProperties properties = new OverloadProperties();
+        properties.setMaxInFlight(2);
+        properties.setRules(List.of(
+                rule("/api/v1/tasks/executors/**", List.of("PATCH"), OverloadProperties.Priority.CRITICAL),
+                rule("/api/v1/tasks", List.of("GET"), OverloadProperties.Priority.LOW)));
+
+        overloadDetector = new OverloadDetector(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new LoadSheddingFilter(overloadDetector,
+                new RequestPriorities(properties.getRules(), properties.getDefaultPriority()), properties, meterRegistry);
+    }
+
+    @Test
+    public void testLowPriorityShedWhenQueueFull() {
+        GatewayFilterChain hanging = exchange -> Mono.never();
+        Disposable first = filter.filter(exchange(HttpMethod.GET, "/api/v1/tasks/1"), hanging).subscribe();
+        Disposable second = filter.filter(exchange(HttpMethod.GET, "/api/v1/tasks/2"), hanging).subscribe();
+        assertEquals(1.0, overloadDetector.pressure());
+
+        MockServerWebExchange shed = send(HttpMethod.GET, "/api/v1/tasks");
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("2", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        // Обычные и критичные запросы еще проходят
+        assertEquals(HttpStatus.OK, send(HttpMethod.GET, "/api/v1/tasks/3").getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, send(HttpMethod.PATCH, "/api/v1/tasks/executors/1/status")
+                .getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("gateway.overload.shed").tag("priority", "low").counter().count());
+
+        first.dispose();
+        second.dispose();
+        assertEquals(HttpStatus.OK, send(HttpMethod.GET, "/api/v1/tasks").getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testEventLoopLagShedsNormalButNotCritical() {
+        overloadDetector.recordEventLoopLag(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, send(HttpMethod.GET, "/api/v1/tasks/3").getResponse().getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, send(HttpMethod.GET, "/api/v1/tasks").getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, send(HttpMethod.PATCH, "/api/v1/tasks/executors/1/status")
+                .getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testSustainedLatencyPressure() {
+        // Больше 10% ответов медленнее порога - перцентиль 0.9 выше порога
+        for (int i = 0; i < 20; i++) {
+            overloadDetector.recordUpstreamLatency(Duration.ofMillis(i < 17 ? 50 : 1200).toNanos());
+        }
+
+        assertTrue(overloadDetector.pressure() > 1.0);
+        assertTrue(overloadDetector.shouldShed(OverloadProperties.Priority.LOW));
+        assertFalse(overloadDetector.shouldShed(OverloadProperties.Priority.NORMAL));
+    }
+
+    @Test
+    public void testSingleOutlierDoesNotShed() {
+        // Один таймаут сервиса среди быстрых ответов
+        overloadDetector.recordUpstreamLatency(Duration.ofSeconds(30).toNanos());
+        for (int i = 0; i < 30; i++) {
+            overloadDetector.recordUpstreamLatency(Duration.ofMillis(50).toNanos());
+        }
+
+        assertTrue(overloadDetector.pressure() < 0.1);
+        assertEquals(HttpStatus.OK, send(HttpMethod.GET, "/api/v1/tasks").getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testFewSamplesAreIgnored() {
+        // Единственный за окно запрос упал по таймауту
+        overloadDetector.recordUpstreamLatency(Duration.ofSeconds(30).toNanos());
+
+        assertEquals(0.0, overloadDetector.pressure());
+        assertEquals(HttpStatus.OK, send(HttpMethod.GET, "/api/v1/tasks").getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testOnlyUpstreamTimeIsRecorded() {
+        GatewayFilterChain slowClient = exchange -> {
+            exchange.getAttributes().put(UpstreamTimingFilter.UPSTREAM_TIME_ATTR, Duration.ofMillis(1).toNanos());
+            // Медленная отдача тела клиенту после ответа сервиса
+            return Mono.delay(Duration.ofMillis(30)).then();
+        };
+        for (int i = 0; i < 20; i++) {
+            filter.filter(exchange(HttpMethod.GET, "/api/v1/tasks/1"), slowClient).block();
+            // Запрос без обращения к сервису не дает замера
+            send(HttpMethod.GET, "/api/v1/tasks/1");
+        }
+        // Перцентиль пересчитывается не чаще раза в 100 мс
+        sleep(150);
+
+        assertEquals(Duration.ofMillis(1).toNanos(), overloadDetector.latencyNanos());
+        assertEquals(0, overloadDetector.inFlight());
+    }
+
+    @Test
+    public void testProbeDetectsBlockedEventLoop() throws Exception {
+        DefaultEventLoopGroup group = new DefaultEventLoopGroup(1);
+        try {
+            EventLoopLagProbe probe = new EventLoopLagProbe(() -> group, overloadDetector);
+            group.next().execute(() -> sleep(300));
+
+            probe.sample();
+            Thread.sleep(150);
+            // Задача замера еще в очереди, ее возраст уже считается задержкой
+            probe.sample();
+
+            assertTrue(overloadDetector.eventLoopLagNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    @Test
+    public void testOnlyEventStreamRouteBypassesShedding() {
+        GatewayFilterChain hanging = exchange -> Mono.never();
+        Disposable first = filter.filter(exchange(HttpMethod.GET, "/api/v1/tasks/1"), hanging).subscribe();
+        Disposable second = filter.filter(exchange(HttpMethod.GET, "/api/v1/tasks/2"), hanging).subscribe();
+
+        // Заголовок Accept задает клиент: с ним массовое чтение все равно отклоняется
+        MockServerWebExchange list = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/tasks")
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+        filter.filter(list, passing).block();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, list.getResponse().getStatusCode());
+
+        // Подписка на поток событий не отклоняется и не считается запросом в работе
+        MockServerWebExchange events = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/tasks/events")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+        filter.filter(events, passing).block();
+        assertEquals(HttpStatus.OK, events.getResponse().getStatusCode());
+        assertEquals(1.0, overloadDetector.pressure());
+
+        first.dispose();
+        second.dispose();
+    }
+
+    private MockServerWebExchange send(HttpMethod method, String path) {
+        MockServerWebExchange exchange = exchange(method, path);
+        filter.filter(exchange, passing).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method, String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, path));
+    }
+
+    private static OverloadProperties.Rule rule(String path, List<String> methods, OverloadProperties.Priority priority) {
+        OverloadProperties.Rule rule = new OverloadProperties.Rule();
+        rule.setPath(path);
+        rule.setMethods(methods);
+        rule.setPriority(priority);
+        return rule;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
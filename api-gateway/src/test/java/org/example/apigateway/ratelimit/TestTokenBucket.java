@@ -0,0 +1,67 @@
+package org.example.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTokenBucket {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstThenRefill() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < 5; i++) {
+            RateLimitResult result = bucket.tryConsume(0, 5, 10);
+            assertTrue(result.allowed());
+            assertEquals(4 - i, result.remaining());
+        }
+
+        RateLimitResult rejected = bucket.tryConsume(0, 5, 10);
+        assertFalse(rejected.allowed());
+        // Токен пополняется за 100 мс
+        assertEquals(SECOND / 10, rejected.retryAfterNanos());
+
+        assertTrue(bucket.tryConsume(SECOND / 10, 5, 10).allowed());
+        assertFalse(bucket.tryConsume(SECOND / 10, 5, 10).allowed());
+    }
+
+    @Test
+    public void testIdleBucketIsFull() {
+        TokenBucket bucket = new TokenBucket(0);
+        bucket.tryConsume(0, 5, 10);
+
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(SECOND / 10));
+
+        // Простой не копит токены сверх размера корзины
+        RateLimitResult result = bucket.tryConsume(10 * SECOND, 5, 10);
+        assertEquals(4, result.remaining());
+    }
+
+    @Test
+    public void testConcurrentConsumers() throws Exception {
+        TokenBucket bucket = new TokenBucket(0);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Время не идет, поэтому из 8000 попыток проходит ровно размер корзины
+        for (int i = 0; i < 8000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryConsume(0, 100, 1).allowed()) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+}
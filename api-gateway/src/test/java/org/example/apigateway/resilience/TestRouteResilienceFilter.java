@@ -0,0 +1,190 @@
+package org.example.apigateway.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apigateway.filter.RouteResilienceFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRouteResilienceFilter {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private RouteResilienceProperties.Policy policy;
+    private SimpleMeterRegistry meterRegistry;
+    private RouteResilienceFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        policy = new RouteResilienceProperties.Policy();
+        policy.setSlidingWindowSize(4);
+        policy.setMinimumNumberOfCalls(4);
+        policy.setOpenDuration(Duration.ofMinutes(1));
+        policy.setMaxConcurrentCalls(1);
+        policy.getRetry().setMinRetriesPerSecond(0);
+        policy.getRetry().setBudgetRatio(0.5);
+
+        RouteResilienceProperties properties = new RouteResilienceProperties();
+        properties.setDefaultPolicy(null);
+        properties.getRoutes().put("task-service", policy);
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RouteResilienceFilter(new RouteResilience(properties), meterRegistry);
+    }
+
+    @Test
+    public void testCircuitOpensAfterServerErrors() {
+        GatewayFilterChain failing = status(HttpStatus.INTERNAL_SERVER_ERROR);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, send(HttpMethod.POST, failing).getResponse().getStatusCode());
+        }
+
+        MockServerWebExchange rejected = send(HttpMethod.POST, failing);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals(4, calls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.resilience.rejected")
+                .tag("route", "task-service").tag("outcome", "circuit_open").counter().count());
+    }
+
+    @Test
+    public void testClientErrorsKeepCircuitClosed() {
+        for (int i = 0; i < 10; i++) {
+            send(HttpMethod.GET, status(HttpStatus.NOT_FOUND));
+        }
+        assertEquals(10, calls.get());
+    }
+
+    @Test
+    public void testBulkheadRejectsConcurrentRequests() {
+        GatewayFilterChain hanging = exchange -> {
+            calls.incrementAndGet();
+            return Mono.never();
+        };
+        Disposable first = filter.filter(exchange(HttpMethod.GET), hanging).subscribe();
+
+        MockServerWebExchange rejected = send(HttpMethod.GET, hanging);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals(1, calls.get());
+
+        // Отмена запроса освобождает место
+        first.dispose();
+        assertEquals(HttpStatus.OK, send(HttpMethod.GET, status(HttpStatus.OK)).getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testEventStreamNotLimited() {
+        GatewayFilterChain hanging = exchange -> {
+            calls.incrementAndGet();
+            return Mono.never();
+        };
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/tasks/events")
+                    .accept(MediaType.TEXT_EVENT_STREAM));
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, exchange(HttpMethod.GET)
+                    .getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR));
+            filter.filter(exchange, hanging).subscribe();
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testAcceptHeaderDoesNotBypassBulkhead() {
+        GatewayFilterChain hanging = exchange -> {
+            calls.incrementAndGet();
+            return Mono.never();
+        };
+        Disposable first = filter.filter(exchange(HttpMethod.GET), hanging).subscribe();
+
+        // Обычный запрос с Accept: text/event-stream ограничивается как любой другой
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/tasks/1")
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, exchange(HttpMethod.GET)
+                .getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR));
+        filter.filter(exchange, hanging).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals(1, calls.get());
+        first.dispose();
+    }
+
+    @Test
+    public void testGetRetriedAfterConnectionError() {
+        // Запас повторов для маршрута с малым трафиком
+        policy.getRetry().setMinRetriesPerSecond(1);
+        GatewayFilterChain flaky = exchange -> calls.incrementAndGet() == 1
+                ? Mono.error(new ConnectException("Connection refused"))
+                : Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(HttpStatus.OK));
+
+        MockServerWebExchange exchange = send(HttpMethod.GET, flaky);
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(2, calls.get());
+        assertFalse(ServerWebExchangeUtils.isAlreadyRouted(exchange));
+    }
+
+    @Test
+    public void testPostNotRetried() {
+        GatewayFilterChain failing = exchange -> {
+            calls.incrementAndGet();
+            return Mono.error(new ConnectException("Connection refused"));
+        };
+
+        assertThrows(Exception.class, () -> filter.filter(exchange(HttpMethod.POST), failing).block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testRetryBudgetLimitsRetries() {
+        GatewayFilterChain failing = exchange -> {
+            calls.incrementAndGet();
+            return Mono.error(new ConnectException("Connection refused"));
+        };
+
+        // Бюджет 50%: на 2 запроса - 1 повтор
+        for (int i = 0; i < 2; i++) {
+            assertThrows(Exception.class, () -> filter.filter(exchange(HttpMethod.GET), failing).block());
+        }
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.resilience.retries")
+                .tag("outcome", "budget_exhausted").counter().count());
+    }
+
+    private GatewayFilterChain status(HttpStatus status) {
+        return exchange -> {
+            calls.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+
+    private MockServerWebExchange send(HttpMethod method, GatewayFilterChain chain) {
+        MockServerWebExchange exchange = exchange(method);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(method, "/api/v1/tasks/1"));
+        Route route = Route.async().id("task-service").uri("lb://TASK-SERVICE").predicate(e -> true).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.apigateway.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIdentityHeaders {
+
+    private static final String SECRET = "aW50ZXJuYWwtaWRlbnRpdHkta2V5LTAxMjM0NTY3ODlhYg==";
+
+    @Test
+    public void testSignedHeaders() {
+        Claims claims = Jwts.claims()
+                .subject("test@example.com")
+                .add("name", "Иван")
+                .add("roles", List.of("ROLE_USER", "ROLE_ADMIN"))
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+
+        new IdentityHeaders(SECRET).write(headers, claims, 1767225600L);
+
+        assertEquals("test@example.com", headers.getFirst(IdentityHeaders.SUBJECT));
+        assertEquals("%D0%98%D0%B2%D0%B0%D0%BD", headers.getFirst(IdentityHeaders.NAME));
+        assertEquals("ROLE_USER,ROLE_ADMIN", headers.getFirst(IdentityHeaders.ROLES));
+        assertEquals("1767225600", headers.getFirst(IdentityHeaders.TIMESTAMP));
+        // Эталонная подпись: сервисы проверяют ее тем же алгоритмом
+        assertEquals("vrzD36q9wtoQ6U8tqdlyy-hyo1LAzvIu_XCTnrU-90o", headers.getFirst(IdentityHeaders.SIGNATURE));
+    }
+
+    @Test
+    public void testSecretRequired() {
+        assertThrows(IllegalStateException.class, () -> new IdentityHeaders(""));
+    }
+}
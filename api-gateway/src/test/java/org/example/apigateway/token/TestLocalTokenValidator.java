@@ -0,0 +1,88 @@
+package org.example.apigateway.token;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLocalTokenValidator {
+
+    private static final String SECRET = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+    private static final String OTHER_SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private RevocationSet revocationSet;
+    private LocalTokenValidator validator;
+
+    @BeforeEach
+    public void setUp() {
+        revocationSet = new RevocationSet();
+        revocationSet.markSynced();
+        validator = new LocalTokenValidator(SECRET, revocationSet);
+    }
+
+    @Test
+    public void testValidAccessToken() {
+        assertEquals(LocalTokenValidator.Result.VALID, validator.validate(token(SECRET, "access", "jti-1", 60).compact()));
+    }
+
+    @Test
+    public void testRejectedWithoutAuthService() {
+        // Истекший, подписанный чужим ключом, refresh и поврежденный токены
+        assertEquals(LocalTokenValidator.Result.INVALID, validator.validate(token(SECRET, "access", "jti-1", -60).compact()));
+        assertEquals(LocalTokenValidator.Result.INVALID,
+                validator.validate(token(OTHER_SECRET, "access", "jti-1", 60).compact()));
+        assertEquals(LocalTokenValidator.Result.INVALID, validator.validate(token(SECRET, "refresh", "jti-1", 60).compact()));
+        assertEquals(LocalTokenValidator.Result.INVALID, validator.validate("not-a-token"));
+    }
+
+    @Test
+    public void testRevokedToken() {
+        long now = Instant.now().getEpochSecond();
+        revocationSet.revoke("jti-1", now + 60, now);
+
+        assertEquals(LocalTokenValidator.Result.INVALID, validator.validate(token(SECRET, "access", "jti-1", 60).compact()));
+        assertEquals(LocalTokenValidator.Result.VALID, validator.validate(token(SECRET, "access", "jti-2", 60).compact()));
+    }
+
+    @Test
+    public void testUnverifiedWhenRevocationUnknown() {
+        // Токен без jti нельзя найти в списке отозванных
+        assertEquals(LocalTokenValidator.Result.UNVERIFIED, validator.validate(token(SECRET, "access", null, 60).compact()));
+
+        // Без связи с потоком отозванных токенов список может быть неполным
+        revocationSet.markStale();
+        assertEquals(LocalTokenValidator.Result.UNVERIFIED,
+                validator.validate(token(SECRET, "access", "jti-1", 60).compact()));
+    }
+
+    @Test
+    public void testPurgeExpiredRevocations() {
+        revocationSet.revoke("expired", 100, 50);
+        revocationSet.revoke("active", 300, 50);
+        // Уже истекший токен не добавляется
+        revocationSet.revoke("already-expired", 40, 50);
+        assertEquals(2, revocationSet.size());
+
+        assertEquals(1, revocationSet.purgeExpired(200));
+        assertFalse(revocationSet.isRevoked("expired"));
+        assertTrue(revocationSet.isRevoked("active"));
+    }
+
+    private JwtBuilder token(String secret, String tokenType, String jti, long expiresInSeconds) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .id(jti)
+                .subject("user@example.com")
+                .claim("token_type", tokenType)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiresInSeconds * 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.apigateway.token;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRevocationStreamClient {
+
+    private final Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+    private final RevocationSet revocationSet = new RevocationSet();
+    private RevocationStreamClient client;
+
+    @AfterEach
+    public void tearDown() {
+        client.stop();
+    }
+
+    @Test
+    public void testSnapshotAndRevocations() {
+        TokenValidationProperties properties = new TokenValidationProperties();
+        // Без переподключений во время теста
+        properties.setReconnectMinBackoff(Duration.ofMinutes(1));
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                        .body(body.asFlux())
+                        .build()))
+                .build();
+        client = new RevocationStreamClient(webClient, revocationSet, properties);
+        client.start();
+
+        long exp = Instant.now().getEpochSecond() + 60;
+        // Отзыв может прийти раньше snapshot
+        send("event:revoked\ndata:[{\"jti\":\"jti-1\",\"exp\":" + exp + "}]\n\n");
+        assertTrue(revocationSet.isRevoked("jti-1"));
+        assertFalse(revocationSet.isSynced());
+
+        send("event:snapshot\ndata:[{\"jti\":\"jti-2\",\"exp\":" + exp + "}]\n\n");
+        assertTrue(revocationSet.isSynced());
+        assertTrue(revocationSet.isRevoked("jti-1"));
+        assertTrue(revocationSet.isRevoked("jti-2"));
+
+        send(":heartbeat\n\n");
+        send("event:revoked\ndata:[{\"jti\":\"jti-3\",\"exp\":" + exp + "}]\n\n");
+        assertTrue(revocationSet.isRevoked("jti-3"));
+
+        // После обрыва потока список неполон до следующего snapshot
+        body.tryEmitComplete();
+        assertFalse(revocationSet.isSynced());
+        assertEquals(3, revocationSet.size());
+    }
+
+    @Test
+    public void testSendsSubscriberSecret() {
+        TokenValidationProperties properties = new TokenValidationProperties();
+        properties.setReconnectMinBackoff(Duration.ofMinutes(1));
+        properties.setRevocationsSecret("gateway-secret");
+        AtomicReference<String> secret = new AtomicReference<>();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    secret.set(request.headers().getFirst(RevocationStreamClient.SECRET_HEADER));
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                            .body(body.asFlux())
+                            .build());
+                })
+                .build();
+        client = new RevocationStreamClient(webClient, revocationSet, properties);
+
+        client.start();
+
+        assertEquals("gateway-secret", secret.get());
+    }
+
+    private void send(String event) {
+        body.tryEmitNext(DefaultDataBufferFactory.sharedInstance.wrap(event.getBytes(StandardCharsets.UTF_8)));
+    }
+}
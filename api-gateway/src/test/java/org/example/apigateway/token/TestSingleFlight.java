@@ -0,0 +1,62 @@
+package org.example.apigateway.token;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSingleFlight {
+
+    private final SingleFlight<String, Boolean> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void testConcurrentCallsShareResult() {
+        Sinks.One<Boolean> response = Sinks.one();
+        Mono<Boolean> first = singleFlight.execute("token", key -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+        Mono<Boolean> second = singleFlight.execute("token", key -> {
+            calls.incrementAndGet();
+            return Mono.just(false);
+        });
+
+        // Второй запрос приходит во время вызова первого
+        AtomicReference<Boolean> firstResult = new AtomicReference<>();
+        AtomicReference<Boolean> secondResult = new AtomicReference<>();
+        first.subscribe(firstResult::set);
+        second.subscribe(secondResult::set);
+        assertEquals(1, singleFlight.size());
+
+        response.tryEmitValue(true);
+        assertTrue(firstResult.get());
+        assertTrue(secondResult.get());
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void testResultNotRemembered() {
+        assertTrue(singleFlight.execute("token", key -> Mono.just(true)).block());
+        assertFalse(singleFlight.execute("token", key -> Mono.just(false)).block());
+    }
+
+    @Test
+    public void testErrorSharedAndReleased() {
+        Sinks.One<Boolean> response = Sinks.one();
+        Mono<Boolean> first = singleFlight.execute("token", key -> response.asMono());
+        Mono<Boolean> second = singleFlight.execute("token", key -> Mono.just(true));
+        AtomicReference<Throwable> secondError = new AtomicReference<>();
+        first.subscribe(value -> { }, error -> { });
+        second.subscribe(value -> { }, secondError::set);
+
+        response.tryEmitError(new IllegalStateException("auth unavailable"));
+        assertInstanceOf(IllegalStateException.class, secondError.get());
+        assertEquals(0, singleFlight.size());
+    }
+}
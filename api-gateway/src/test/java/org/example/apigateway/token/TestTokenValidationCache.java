@@ -0,0 +1,89 @@
+package org.example.apigateway.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTokenValidationCache {
+
+    private final TokenValidationCache cache = new TokenValidationCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void testPositiveAndNegativeResultsCached() {
+        assertTrue(cache.get("valid", claims("a@example.com", 60), token -> load(true)).block());
+        assertTrue(cache.get("valid", claims("a@example.com", 60), token -> load(true)).block());
+        assertFalse(cache.get("invalid", null, token -> load(false)).block());
+        assertFalse(cache.get("invalid", null, token -> load(false)).block());
+
+        assertEquals(2, calls.get());
+        assertEquals(0.5, cache.getCache().synchronous().stats().hitRate());
+    }
+
+    @Test
+    public void testConcurrentValidationsShareOneCall() {
+        Sinks.One<Boolean> response = Sinks.one();
+        Mono<Boolean> first = cache.get("token", claims("a@example.com", 60), token -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+        Mono<Boolean> second = cache.get("token", claims("a@example.com", 60), token -> load(false));
+
+        response.tryEmitValue(true);
+        assertTrue(first.block());
+        assertTrue(second.block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testErrorsNotCached() {
+        Mono<Boolean> failing = cache.get("token", claims("a@example.com", 60),
+                token -> Mono.error(WebClientResponseException.create(503, "Unavailable", null, null, null)));
+        assertThrows(WebClientResponseException.class, failing::block);
+
+        assertTrue(cache.get("token", claims("a@example.com", 60), token -> load(true)).block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testEntryLivesNoLongerThanToken() {
+        // Токен уже истек: запись сразу устаревает
+        assertTrue(cache.get("token", claims("a@example.com", -1), token -> load(true)).block());
+        assertTrue(cache.get("token", claims("a@example.com", -1), token -> load(true)).block());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testInvalidateSubject() {
+        cache.get("token-a1", claims("a@example.com", 60), token -> load(true)).block();
+        cache.get("token-a2", claims("a@example.com", 60), token -> load(true)).block();
+        cache.get("token-b", claims("b@example.com", 60), token -> load(true)).block();
+
+        assertEquals(2, cache.invalidateSubject("a@example.com"));
+
+        cache.get("token-a1", claims("a@example.com", 60), token -> load(false)).block();
+        cache.get("token-b", claims("b@example.com", 60), token -> load(false)).block();
+        assertEquals(4, calls.get());
+    }
+
+    private Mono<Boolean> load(boolean valid) {
+        calls.incrementAndGet();
+        return Mono.just(valid);
+    }
+
+    private Claims claims(String subject, long expiresInSeconds) {
+        return Jwts.claims()
+                .subject(subject)
+                .expiration(new Date(System.currentTimeMillis() + expiresInSeconds * 1000))
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.apigateway.tracing;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.example.apigateway.token.RevocationSet;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка передачи контекста трассировки (W3C traceparent) из шлюза в сервис.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.import=",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "security.jwt.secret_key=" + TestTracePropagation.SECRET,
+        "rate-limit.enabled=false",
+        "token-validation.reconnect-min-backoff=1h",
+        "token-validation.reconnect-max-backoff=1h",
+        "management.tracing.sampling.probability=1.0",
+        "management.otlp.tracing.export.enabled=false"
+})
+@AutoConfigureObservability
+@DirtiesContext
+public class TestTracePropagation {
+
+    static final String SECRET = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    // Заголовки traceparent запросов, дошедших до сервиса
+    private static final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private static final HttpServer upstream = startUpstream();
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private RevocationSet revocationSet;
+
+    @DynamicPropertySource
+    static void upstreamRoute(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "task-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/api/v1/tasks/**");
+        registry.add("spring.cloud.gateway.routes[0].uri",
+                () -> "http://localhost:" + upstream.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        // Поток отзывов в тесте не подключается, токены проверяются локально
+        revocationSet.markSynced();
+        received.clear();
+    }
+
+    @Test
+    public void testContinuesIncomingTrace() throws Exception {
+        client.get().uri("/api/v1/tasks/1")
+                .header("Authorization", "Bearer " + token())
+                .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01")
+                .exchange()
+                .expectStatus().isOk();
+
+        String[] traceparent = received.poll(5, TimeUnit.SECONDS).split("-");
+
+        // Та же трасса, родитель - span шлюза, а не span клиента
+        assertEquals(TRACE_ID, traceparent[1]);
+        assertNotEquals(PARENT_SPAN_ID, traceparent[2]);
+        assertEquals("01", traceparent[3]);
+    }
+
+    @Test
+    public void testStartsTraceWithoutIncomingHeader() throws Exception {
+        client.get().uri("/api/v1/tasks/1")
+                .header("Authorization", "Bearer " + token())
+                .exchange()
+                .expectStatus().isOk();
+
+        String traceparent = received.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(traceparent);
+        assertTrue(traceparent.matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01"), traceparent);
+    }
+
+    private static String token() {
+        return Jwts.builder()
+                .id("trace-jti")
+                .subject("trace@example.com")
+                .claim("token_type", "access")
+                .claim("name", "trace")
+                .claim("roles", List.of("ROLE_USER"))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+                received.add(traceparent != null ? traceparent : "");
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.authenticationservice.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.example.authenticationservice.logging.LogSamplingProperties;
+import org.example.authenticationservice.logging.LogSamplingTurboFilter;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LogSamplingProperties.class)
+public class LoggingConfig {
+
+    /**
+     * Регистрация фильтра выборочного логирования в контексте Logback
+     *
+     * @param properties - начальные правила выборки
+     * @return LogSamplingTurboFilter
+     */
+    @Bean(destroyMethod = "stop")
+    public LogSamplingTurboFilter logSamplingTurboFilter(LogSamplingProperties properties) {
+        LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+        properties.getRules().forEach((logger, rule) ->
+                filter.setRule(logger, rule.getSampleRate(), rule.getMaxPerSecond()));
+
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        filter.setName("log-sampling");
+        filter.setContext(loggerContext);
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+        return filter;
+    }
+}
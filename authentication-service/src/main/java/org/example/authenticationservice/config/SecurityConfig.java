@@ -7,6 +7,7 @@ import org.example.authenticationservice.handler.CustomLogoutHandler;
 import org.example.authenticationservice.service.UserService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -55,7 +56,10 @@ public class SecurityConfig {
         // Настраиваем авторизацию запросов
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> {
-                    auth.requestMatchers(
+                    // Изменение настроек через actuator доступно только администратору
+                    auth.requestMatchers(HttpMethod.POST, "/actuator/**").hasAuthority("ADMIN")
+                            .requestMatchers(HttpMethod.DELETE, "/actuator/**").hasAuthority("ADMIN")
+                            .requestMatchers(
                             "/auth/**",
                             "/v3/api-docs",
                             "/v3/api-docs/**",
@@ -6,13 +6,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.authenticationservice.dto.*;
 import org.example.authenticationservice.service.AuthenticationService;
 import org.example.authenticationservice.service.JwtService;
+import org.example.authenticationservice.service.TokenRevocationService;
 import org.example.authenticationservice.service.UserService;
 import org.example.authenticationservice.service.UserServiceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/auth")
@@ -23,14 +26,17 @@ public class AuthController {
     private final UserService userService;
     private final JwtService jwtService;
     private final UserServiceImpl userServiceImpl;
+    private final TokenRevocationService tokenRevocationService;
 
     public AuthController(AuthenticationService authenticationService,
                           UserService userService,
-                          JwtService jwtService, UserServiceImpl userServiceImpl) {
+                          JwtService jwtService, UserServiceImpl userServiceImpl,
+                          TokenRevocationService tokenRevocationService) {
         this.authenticationService = authenticationService;
         this.userService = userService;
         this.jwtService = jwtService;
         this.userServiceImpl = userServiceImpl;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -41,7 +47,7 @@ public class AuthController {
      */
     @PostMapping("/registration")
     public ResponseEntity<?> register(@RequestBody RegistrationRequestDto registrationDto) {
-        log.info("Registration request: {}", registrationDto);
+        log.info("Registration request: {}", registrationDto.getEmail());
         try {
             authenticationService.register(registrationDto);
             return ResponseEntity.accepted().build(); // Возвращаем статус 202 Accepted
@@ -99,7 +105,7 @@ public class AuthController {
      */
     @PostMapping("/validate-token")
     public ResponseEntity<Boolean> validateToken(@RequestBody TokenRequest tokenRequest) {
-        log.info("Validate token request");
+        log.debug("Validate token request");
         try {
             String username = jwtService.extractUsername(tokenRequest.getToken());
 
@@ -110,7 +116,7 @@ public class AuthController {
 
             UserDetails userDetails = userService.loadUserByUsername(username);
             boolean isValid = jwtService.isAccessValid(tokenRequest.getToken(), userDetails);
-            log.info("Token is valid: {}", isValid);
+            log.debug("Token is valid: {}", isValid);
             return ResponseEntity.ok(isValid);
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage(), e);
@@ -118,6 +124,30 @@ public class AuthController {
         }
     }
 
+    /**
+     * Поток отозванных access токенов для шлюза.
+     * Сначала приходят все отозванные и еще не истекшие токены, затем новые отзывы.
+     * Содержит только ID и срок действия токенов, сами токены не раскрываются.
+     * Доступен только с общим со шлюзом ключом в заголовке X-Revocations-Secret.
+     *
+     * @param secret ключ подписчика
+     * @return поток событий; 401 без верного ключа, 503, если подписчиков слишком много
+     */
+    @GetMapping(value = "/revocations", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRevocations(
+            @RequestHeader(value = TokenRevocationService.SECRET_HEADER, required = false) String secret) {
+        log.debug("Token revocations subscription request");
+        if (!tokenRevocationService.isTrustedSubscriber(secret)) {
+            log.warn("Token revocations subscription without valid secret");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter = tokenRevocationService.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Выдача роли исполнителю.
      *
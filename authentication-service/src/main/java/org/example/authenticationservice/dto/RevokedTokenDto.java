@@ -0,0 +1,27 @@
+package org.example.authenticationservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "RevokedTokenDto", description = "Отозванный access токен")
+public class RevokedTokenDto {
+
+    @Schema(description = "ID токена (jti)", example = "3f2b6c1e-8a4d-4c6f-9b1a-2d5e7f9a0c11")
+    private String jti;
+
+    @Schema(description = "Срок действия токена, секунды с начала эпохи", example = "1767225600")
+    private long exp;
+
+    public RevokedTokenDto(String jti, Instant expiresAt) {
+        this(jti, expiresAt.getEpochSecond());
+    }
+}
@@ -6,7 +6,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
+// Каждый экземпляр раз в секунду читает новые отзывы (revoked_at > :since), индекс избавляет от полного чтения таблицы
+@Table(indexes = @Index(name = "idx_token_revoked_at", columnList = "revoked_at, logged_out"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -20,8 +24,17 @@ public class Token {
 
     private String refreshToken;
 
+    // ID (jti) access токена: по нему шлюз узнает об отзыве токена
+    private String accessTokenId;
+
+    // Срок действия access токена, после него отзыв можно забыть
+    private Instant accessTokenExpiresAt;
+
     private boolean loggedOut;
 
+    // Время отзыва: по нему каждый экземпляр Auth Service находит отзывы, сделанные другими экземплярами
+    private Instant revokedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
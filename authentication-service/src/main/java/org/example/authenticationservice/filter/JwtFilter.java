@@ -53,8 +53,8 @@ public class JwtFilter extends OncePerRequestFilter {
 
         // Если заголовок не содержит JWT-токена, пропускаем фильтр
         if(authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.info("Request received: {}", request.getRequestURI());
-            log.info("Security context: {}", SecurityContextHolder.getContext().getAuthentication());
+            log.debug("Request received: {}", request.getRequestURI());
+            log.debug("Security context: {}", SecurityContextHolder.getContext().getAuthentication());
             filterChain.doFilter(request, response);
             return;
         }
@@ -63,11 +63,11 @@ public class JwtFilter extends OncePerRequestFilter {
         // Извлекаем JWT-токен из заголовка
         String token = authHeader.substring(7);
 
-        log.info("Extracted token: {}", token);
+        log.debug("Extracted token");
 
         if (jwtService.extractClaim(token, claims -> "refresh".equals(claims.get("token_type", String.class)))) {
-            log.info("Request received: {}", request.getRequestURI());
-            log.info("Security context: {}", SecurityContextHolder.getContext().getAuthentication());
+            log.debug("Request received: {}", request.getRequestURI());
+            log.debug("Security context: {}", SecurityContextHolder.getContext().getAuthentication());
             filterChain.doFilter(request, response);
             return;
         }
@@ -78,7 +78,7 @@ public class JwtFilter extends OncePerRequestFilter {
         // проверяем валидность токена и устанавливаем аутентификацию пользователя
         if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            log.info("Extracted username: {}", username);
+            log.debug("Extracted username: {}", username);
             // Загружаем детали пользователя
             UserDetails userDetails = userService.loadUserByUsername(username);
 
@@ -96,14 +96,14 @@ public class JwtFilter extends OncePerRequestFilter {
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
 
-                log.info("Setting authentication: {}", authToken);
+                log.debug("Setting authentication: {}", authToken);
 
                 // Устанавливаем аутентификацию
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
-        log.info("Request received: {}", request.getRequestURI());
-        log.info("Security context: {}", SecurityContextHolder.getContext().getAuthentication());
+        log.debug("Request received: {}", request.getRequestURI());
+        log.debug("Security context: {}", SecurityContextHolder.getContext().getAuthentication());
         // Пропускаем фильтр
         filterChain.doFilter(request, response);
 
@@ -5,18 +5,24 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.example.authenticationservice.entity.Token;
 import org.example.authenticationservice.repository.TokenRepository;
+import org.example.authenticationservice.service.TokenRevocationService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.List;
+
 @Component
 @Slf4j
 public class CustomLogoutHandler implements LogoutHandler {
 
     private final TokenRepository tokenRepository;
+    private final TokenRevocationService tokenRevocationService;
 
-    public CustomLogoutHandler(TokenRepository tokenRepository) {
+    public CustomLogoutHandler(TokenRepository tokenRepository, TokenRevocationService tokenRevocationService) {
         this.tokenRepository = tokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
 
@@ -51,7 +57,10 @@ public class CustomLogoutHandler implements LogoutHandler {
         // Если токен найден, устанавливаем флаг "loggedOut" в true
         if (tokenEntity != null) {
             tokenEntity.setLoggedOut(true);
+            tokenEntity.setRevokedAt(Instant.now());
             tokenRepository.save(tokenEntity);
+            // Сообщаем шлюзу, что токен больше не действует
+            tokenRevocationService.publish(List.of(tokenEntity));
         }
     }
 }
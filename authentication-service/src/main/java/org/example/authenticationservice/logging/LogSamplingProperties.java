@@ -0,0 +1,31 @@
+package org.example.authenticationservice.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Начальные правила выборочного логирования по логгерам.
+ * Во время работы правила меняются через actuator-эндпоинт logsampling.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "log-sampling")
+public class LogSamplingProperties {
+
+    private Map<String, Rule> rules = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        // Доля сохраняемых сообщений INFO/DEBUG/TRACE
+        private double sampleRate = 1.0;
+
+        // Максимум сообщений в секунду (0 - без ограничения)
+        private int maxPerSecond = 0;
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.authenticationservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Фильтр Logback для выборочного логирования и ограничения частоты сообщений по логгерам.
+ * Правило логгера применяется ко всем его потомкам (выбирается правило с самым длинным префиксом).
+ * Сообщения уровня WARN и выше пропускаются всегда.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
+
+    // Кэш соответствия имени логгера правилу, чтобы не искать префикс на каждом сообщении
+    private final Map<String, Optional<Rule>> resolved = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Проверки isXxxEnabled() приходят без format и не должны расходовать лимит
+        if (format == null || level == null || rules.isEmpty() || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        // Сообщения, отключенные уровнем логгера, все равно будут отброшены
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Optional<Rule> rule = resolved.computeIfAbsent(logger.getName(), this::findRule);
+        if (rule.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        return rule.get().tryAcquire() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void stop() {
+        // Отключаем фильтр от контекста, иначе Logback продолжит его вызывать
+        if (getContext() instanceof LoggerContext loggerContext) {
+            loggerContext.getTurboFilterList().remove(this);
+        }
+        super.stop();
+    }
+
+    /**
+     * Метод для установки правила логгера.
+     *
+     * @param loggerName - имя логгера (или пакета)
+     * @param sampleRate - доля сохраняемых сообщений от 0 до 1
+     * @param maxPerSecond - максимальное количество сообщений в секунду (0 - без ограничения)
+     */
+    public void setRule(String loggerName, double sampleRate, int maxPerSecond) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        if (maxPerSecond < 0) {
+            throw new IllegalArgumentException("Max per second cannot be negative");
+        }
+        rules.put(loggerName, new Rule(sampleRate, maxPerSecond));
+        resolved.clear();
+    }
+
+    /**
+     * Метод для удаления правила логгера.
+     *
+     * @param loggerName - имя логгера (или пакета)
+     */
+    public void removeRule(String loggerName) {
+        rules.remove(loggerName);
+        resolved.clear();
+    }
+
+    public Map<String, Rule> getRules() {
+        return Map.copyOf(rules);
+    }
+
+    private Optional<Rule> findRule(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Rule rule = rules.get(name);
+            if (rule != null) {
+                return Optional.of(rule);
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return Optional.ofNullable(rules.get(Logger.ROOT_LOGGER_NAME));
+            }
+            name = name.substring(0, dot);
+        }
+    }
+
+    /**
+     * Правило выборки и ограничения частоты для логгера.
+     */
+    public static class Rule {
+
+        private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+        private final double sampleRate;
+        private final int maxPerSecond;
+        private final LongSupplier clock;
+
+        // Окно и счетчик в одном значении (секунда в старших 32 битах, счетчик в младших),
+        // чтобы сброс счетчика в новой секунде и учет сообщения были одной атомарной операцией
+        private final AtomicLong window = new AtomicLong();
+        private final LongAdder sampledOut = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+
+        Rule(double sampleRate, int maxPerSecond) {
+            this(sampleRate, maxPerSecond, System::currentTimeMillis);
+        }
+
+        Rule(double sampleRate, int maxPerSecond, LongSupplier clock) {
+            this.sampleRate = sampleRate;
+            this.maxPerSecond = maxPerSecond;
+            this.clock = clock;
+        }
+
+        boolean tryAcquire() {
+            if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                sampledOut.increment();
+                return false;
+            }
+            if (maxPerSecond == 0) {
+                return true;
+            }
+
+            // Окно в одну секунду: в новой секунде счетчик начинается с нуля
+            long second = (clock.getAsLong() / 1000) & COUNT_MASK;
+            while (true) {
+                long state = window.get();
+                long count = (state >>> 32) == second ? state & COUNT_MASK : 0;
+                if (count >= maxPerSecond) {
+                    rateLimited.increment();
+                    return false;
+                }
+                if (window.compareAndSet(state, (second << 32) | (count + 1))) {
+                    return true;
+                }
+            }
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public int getMaxPerSecond() {
+            return maxPerSecond;
+        }
+
+        public long getSampledOut() {
+            return sampledOut.sum();
+        }
+
+        public long getRateLimited() {
+            return rateLimited.sum();
+        }
+    }
+}
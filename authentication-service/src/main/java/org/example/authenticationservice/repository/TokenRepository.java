@@ -1,10 +1,12 @@
 package org.example.authenticationservice.repository;
 
+import org.example.authenticationservice.dto.RevokedTokenDto;
 import org.example.authenticationservice.entity.Token;
 import org.example.authenticationservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +21,23 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
 
     Optional<Token> findByAccessToken(String token);
     Optional<Token> findByRefreshToken(String token);
+
+    // Отозванные access токены, срок действия которых еще не истек
+    @Query("""
+            SELECT new org.example.authenticationservice.dto.RevokedTokenDto(
+                t.accessTokenId, t.accessTokenExpiresAt)
+            FROM Token t
+            where t.loggedOut = true and t.accessTokenId is not null and t.accessTokenExpiresAt > :now
+            """)
+    List<RevokedTokenDto> findRevokedAccessTokens(Instant now);
+
+    // Access токены, отозванные после указанного времени любым экземпляром Auth Service
+    @Query("""
+            SELECT new org.example.authenticationservice.dto.RevokedTokenDto(
+                t.accessTokenId, t.accessTokenExpiresAt)
+            FROM Token t
+            where t.loggedOut = true and t.revokedAt > :since
+                and t.accessTokenId is not null and t.accessTokenExpiresAt > :now
+            """)
+    List<RevokedTokenDto> findRevokedAccessTokensSince(Instant since, Instant now);
 }
@@ -24,6 +24,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -38,19 +39,22 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final TokenRepository tokenRepository;
+    private final TokenRevocationService tokenRevocationService;
 
     public AuthenticationService(UserRepository userRepository,
                                  RoleRepository roleRepository,
                                  JwtService jwtService,
                                  PasswordEncoder passwordEncoder,
                                  AuthenticationManager authenticationManager,
-                                 TokenRepository tokenRepository) {
+                                 TokenRepository tokenRepository,
+                                 TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.tokenRepository = tokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -138,6 +142,9 @@ public class AuthenticationService {
         Token token = new Token();
         token.setAccessToken(accessToken);
         token.setRefreshToken(refreshToken);
+        // ID и срок действия access токена нужны для рассылки отзыва шлюзу
+        token.setAccessTokenId(jwtService.extractTokenId(accessToken));
+        token.setAccessTokenExpiresAt(jwtService.extractExpiresAt(accessToken));
         token.setUser(user);
         token.setLoggedOut(false);
 
@@ -162,13 +169,17 @@ public class AuthenticationService {
 
         // Если список не пустой, то отменяем все токены
         if(!validTokens.isEmpty()){
+            Instant revokedAt = Instant.now();
             validTokens.forEach(t ->{
                 // Устанавливаем признак "отменен" для каждого токена
                 t.setLoggedOut(true);
+                t.setRevokedAt(revokedAt);
             });
         }
         // Сохраняем измененные токены в базе данных
         tokenRepository.saveAll(validTokens);
+        // Сообщаем шлюзу об отозванных токенах
+        tokenRevocationService.publish(validTokens);
     }
 
     /**
@@ -190,10 +201,10 @@ public class AuthenticationService {
 
         // Извлекаем токен из заголовка
         String token = authorizationHeader.substring(7);
-        log.info("Received refresh token: {}", token);
 
         // Извлекаем email пользователя из токена
         String email = jwtService.extractUsername(token);
+        log.info("Received refresh token of {}", email);
 
         // Находим пользователя по email
         User user = userRepository.findByEmail(email)
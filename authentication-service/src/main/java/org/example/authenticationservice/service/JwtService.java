@@ -14,8 +14,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -120,6 +122,26 @@ public class JwtService {
         }
     }
 
+    /**
+     * Извлекает ID токена (jti).
+     *
+     * @param token Токен, из которого извлекается ID.
+     * @return ID токена или null, если токен выпущен без ID.
+     */
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
+    /**
+     * Извлекает момент истечения срока действия токена.
+     *
+     * @param token Токен, из которого извлекается срок действия.
+     * @return Момент истечения срока действия.
+     */
+    public Instant extractExpiresAt(String token) {
+        return extractExpiration(token).toInstant();
+    }
+
     /**
      * Извлекает данные из токена (claims).
      *
@@ -223,6 +245,7 @@ public class JwtService {
      */
     private String generateToken(User user, long expiryTime, String tokenType) {
         JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())  // ID токена для отзыва
                 .subject(user.getUsername())  // Установка email пользователя
                 .claim("token_type", tokenType)  // Установка типа токена
                 .claim("name", user.getName())  // Установка имени пользователя
@@ -0,0 +1,184 @@
+package org.example.authenticationservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authenticationservice.dto.RevokedTokenDto;
+import org.example.authenticationservice.entity.Token;
+import org.example.authenticationservice.repository.TokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис потока отозванных access токенов (Server-Sent Events).
+ * Шлюз проверяет подпись и срок действия токена сам, а об отзыве (выход, обновление токенов,
+ * смена ролей) узнает из этого потока. Новый подписчик сначала получает все отозванные
+ * и еще не истекшие токены (snapshot), затем каждое новое отзывание (revoked).
+ * Отзывы этого экземпляра рассылаются сразу, отзывы других экземпляров - после чтения из общей
+ * таблицы токенов (poll-interval), поэтому шлюз может быть подписан на любой экземпляр.
+ * Поток доступен только по общему со шлюзом ключу, число подписчиков ограничено.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String REVOKED_EVENT = "revoked";
+    public static final String SECRET_HEADER = "X-Revocations-Secret";
+
+    private final TokenRepository tokenRepository;
+
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${token-revocation.timeout:0}")
+    private long timeout;
+
+    // Ключ, который шлюз передает в заголовке SECRET_HEADER (пустой - поток недоступен)
+    @Value("${token-revocation.subscriber-secret:}")
+    private String subscriberSecret;
+
+    @Value("${token-revocation.max-subscribers:32}")
+    private int maxSubscribers;
+
+    // Запас на транзакции отзыва, которые зафиксировались позже чтения таблицы, и расхождение часов экземпляров
+    @Value("${token-revocation.poll-overlap:PT5S}")
+    private Duration pollOverlap;
+
+    // Время предыдущего чтения отзывов из таблицы
+    private volatile Instant lastPolledAt = Instant.now();
+
+    public TokenRevocationService(TokenRepository tokenRepository) {
+        this.tokenRepository = tokenRepository;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    /**
+     * Метод для проверки ключа подписчика.
+     *
+     * @param secret - ключ из заголовка запроса
+     * @return - true, если ключ настроен и совпадает
+     */
+    public boolean isTrustedSubscriber(String secret) {
+        if (subscriberSecret == null || subscriberSecret.isBlank() || secret == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(subscriberSecret.getBytes(StandardCharsets.UTF_8),
+                secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Метод для подписки на отзыв токенов.
+     * Подписчик регистрируется до чтения snapshot, поэтому отзыв, случившийся во время чтения,
+     * не теряется (может прийти раньше snapshot, подписчик объединяет оба события).
+     *
+     * @return - поток событий или null, если подписчиков уже max-subscribers
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout);
+
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                log.warn("Token revocation subscription rejected, {} subscribers", subscribers.size());
+                return null;
+            }
+            subscribers.add(emitter);
+        }
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        send(emitter, SNAPSHOT_EVENT, tokenRepository.findRevokedAccessTokens(Instant.now()));
+        log.info("New token revocation subscriber, {} subscribers", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Метод для рассылки отозванных токенов подписчикам.
+     * Токены без ID (выпущенные до появления jti) и уже истекшие не рассылаются.
+     *
+     * @param tokens - отозванные токены
+     */
+    public void publish(Collection<Token> tokens) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        publishRevoked(tokens.stream()
+                .filter(token -> token.getAccessTokenId() != null && token.getAccessTokenExpiresAt() != null)
+                .filter(token -> token.getAccessTokenExpiresAt().isAfter(now))
+                .map(token -> new RevokedTokenDto(token.getAccessTokenId(), token.getAccessTokenExpiresAt()))
+                .toList());
+    }
+
+    /**
+     * Метод для рассылки отзывов, сделанных другими экземплярами Auth Service.
+     * Таблица читается с запасом poll-overlap, поэтому часть отзывов приходит повторно:
+     * шлюз применяет их идемпотентно.
+     */
+    @Scheduled(fixedDelayString = "${token-revocation.poll-interval:1000}")
+    public void pollRevocations() {
+        Instant now = Instant.now();
+        Instant since = lastPolledAt.minus(pollOverlap);
+        lastPolledAt = now;
+        // Новый подписчик получит все отзывы в snapshot
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        publishRevoked(tokenRepository.findRevokedAccessTokensSince(since, now));
+    }
+
+    private void publishRevoked(List<RevokedTokenDto> revoked) {
+        if (revoked.isEmpty()) {
+            return;
+        }
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, REVOKED_EVENT, revoked);
+        }
+        log.debug("Published {} revoked tokens to {} subscribers", revoked.size(), subscribers.size());
+    }
+
+    /**
+     * Метод для отправки heartbeat, чтобы прокси не закрывали неактивные соединения.
+     */
+    @Scheduled(fixedDelayString = "${token-revocation.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                drop(emitter, e);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, String name, List<RevokedTokenDto> revoked) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(revoked));
+        } catch (IOException | IllegalStateException e) {
+            drop(emitter, e);
+        }
+    }
+
+    private void drop(SseEmitter emitter, Exception e) {
+        log.debug("Token revocation subscriber dropped: {}", e.getMessage());
+        subscribers.remove(emitter);
+        emitter.completeWithError(e);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.authenticationservice.statistics;
+
+/**
+ * Счетчики SQL-запросов, выполненных в рамках одного HTTP-запроса.
+ * Экземпляр привязывается к потоку обработки запроса фильтром SqlStatisticsFilter
+ * и заполняется прокси источника данных SqlStatisticsDataSource.
+ */
+public class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+    private long nanos;
+
+    /**
+     * Метод для начала сбора статистики в текущем потоке.
+     *
+     * @return - статистика текущего запроса
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Метод для получения статистики текущего потока.
+     *
+     * @return - статистика или null, если сбор не запущен
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Метод для завершения сбора статистики в текущем потоке.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void recordRows(long count) {
+        if (count > 0) {
+            rows += count;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+}
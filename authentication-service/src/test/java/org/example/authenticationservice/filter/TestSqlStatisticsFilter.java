@@ -0,0 +1,88 @@
+package org.example.authenticationservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.authenticationservice.statistics.SqlStatistics;
+import org.example.authenticationservice.statistics.SqlStatisticsDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSqlStatisticsFilter {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatisticsFilter filter;
+    private SqlStatisticsDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:auth_sql_statistics_filter;DB_CLOSE_DELAY=-1");
+        dataSource = new SqlStatisticsDataSource(h2);
+        try (Connection connection = h2.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS token (id BIGINT PRIMARY KEY, jti VARCHAR(255))");
+            statement.execute("DELETE FROM token");
+        }
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlStatisticsFilter(meterRegistry);
+        ReflectionTestUtils.setField(filter, "statementThreshold", 20L);
+    }
+
+    @Test
+    public void testRecordsStatementsPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            // Два запроса к БД во время обработки
+            execute("INSERT INTO token (id, jti) VALUES (1, 'jti-1')");
+            execute("INSERT INTO token (id, jti) VALUES (2, 'jti-2')");
+        });
+
+        assertEquals(2, meterRegistry.get("http.server.requests.sql.statements")
+                .tag("uri", "/api/v1/auth/login").tag("method", "POST").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("http.server.requests.sql.rows")
+                .tag("uri", "/api/v1/auth/login").summary().totalAmount());
+        // Без dev-режима статистика в заголовки не попадает, после запроса учет выключен
+        assertNull(response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertNull(SqlStatistics.current());
+    }
+
+    @Test
+    public void testResponseHeaders() throws Exception {
+        ReflectionTestUtils.setField(filter, "responseHeaders", true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/validate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            execute("INSERT INTO token (id, jti) VALUES (3, 'jti-3')");
+            res.getWriter().write("ok");
+        });
+
+        assertEquals("1", response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals("1", response.getHeader(SqlStatisticsFilter.ROWS_HEADER));
+        assertEquals("ok", response.getContentAsString());
+        assertNotNull(meterRegistry.find("http.server.requests.sql.statements").tag("uri", "UNKNOWN").summary());
+    }
+
+    private void execute(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
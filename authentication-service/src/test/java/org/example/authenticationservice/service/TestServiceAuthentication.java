@@ -10,6 +10,7 @@ import org.example.authenticationservice.dto.AuthenticationResponseDto;
 import org.example.authenticationservice.dto.LoginRequestDto;
 import org.example.authenticationservice.dto.RegistrationRequestDto;
 import org.example.authenticationservice.entity.Role;
+import org.example.authenticationservice.entity.Token;
 import org.example.authenticationservice.entity.User;
 import org.example.authenticationservice.exception.UserNotFoundException;
 import org.example.authenticationservice.repository.RoleRepository;
@@ -46,6 +47,8 @@ public class TestServiceAuthentication {
     private AuthenticationManager authenticationManager;
     @Mock
     private TokenRepository tokenRepository;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
 
     @InjectMocks
     private AuthenticationService authenticationService;
@@ -152,6 +155,26 @@ public class TestServiceAuthentication {
         assertEquals("newRefreshToken", result.getBody().getRefreshToken());
     }
 
+    @Test
+    public void testRefreshTokenRevokesAndPublishesOldTokens() {
+        user.setId(1L);
+        Token oldToken = new Token();
+        oldToken.setAccessTokenId("old-jti");
+
+        when(jwtService.extractUsername("refreshToken")).thenReturn("test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(jwtService.isValidRefresh("refreshToken", user)).thenReturn(true);
+        when(tokenRepository.findAllAccessTokenByUser(1L)).thenReturn(List.of(oldToken));
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer refreshToken");
+
+        authenticationService.refreshToken(request, mock(HttpServletResponse.class));
+
+        assertTrue(oldToken.isLoggedOut());
+        verify(tokenRevocationService).publish(List.of(oldToken));
+    }
+
     @Test
     public void testAssignRoleToUserSuccessfully() {
         Long userId = 1L;
@@ -0,0 +1,77 @@
+package org.example.authenticationservice.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import org.example.authenticationservice.dto.RevokedTokenDto;
+import org.example.authenticationservice.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTokenRevocationService {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    public void setUp() {
+        tokenRevocationService = new TokenRevocationService(tokenRepository);
+        ReflectionTestUtils.setField(tokenRevocationService, "subscriberSecret", "gateway-secret");
+        ReflectionTestUtils.setField(tokenRevocationService, "maxSubscribers", 2);
+        ReflectionTestUtils.setField(tokenRevocationService, "pollOverlap", Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testSubscriberSecret() {
+        assertTrue(tokenRevocationService.isTrustedSubscriber("gateway-secret"));
+        assertFalse(tokenRevocationService.isTrustedSubscriber("wrong"));
+        assertFalse(tokenRevocationService.isTrustedSubscriber(null));
+
+        // Без настроенного ключа поток недоступен никому
+        ReflectionTestUtils.setField(tokenRevocationService, "subscriberSecret", "");
+        assertFalse(tokenRevocationService.isTrustedSubscriber(""));
+    }
+
+    @Test
+    public void testSubscribersLimit() {
+        when(tokenRepository.findRevokedAccessTokens(any(Instant.class))).thenReturn(List.of());
+
+        assertNotNull(tokenRevocationService.subscribe());
+        assertNotNull(tokenRevocationService.subscribe());
+
+        assertNull(tokenRevocationService.subscribe());
+    }
+
+    @Test
+    public void testPollReadsRevocationsOfOtherInstances() {
+        when(tokenRepository.findRevokedAccessTokens(any(Instant.class))).thenReturn(List.of());
+        when(tokenRepository.findRevokedAccessTokensSince(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(new RevokedTokenDto("jti-1", Instant.now().plusSeconds(60))));
+        Instant lastPolledAt = (Instant) ReflectionTestUtils.getField(tokenRevocationService, "lastPolledAt");
+        tokenRevocationService.subscribe();
+
+        tokenRevocationService.pollRevocations();
+
+        // Таблица читается с запасом на поздно зафиксированные отзывы
+        verify(tokenRepository).findRevokedAccessTokensSince(eq(lastPolledAt.minusSeconds(5)), any(Instant.class));
+    }
+
+    @Test
+    public void testPollWithoutSubscribers() {
+        tokenRevocationService.pollRevocations();
+
+        verify(tokenRepository, never()).findRevokedAccessTokensSince(any(Instant.class), any(Instant.class));
+    }
+}
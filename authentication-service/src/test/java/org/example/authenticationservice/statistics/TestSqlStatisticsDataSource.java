@@ -0,0 +1,72 @@
+package org.example.authenticationservice.statistics;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestSqlStatisticsDataSource {
+
+    private SqlStatisticsDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:auth_sql_statistics;DB_CLOSE_DELAY=-1");
+        dataSource = new SqlStatisticsDataSource(h2);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS token (id BIGINT PRIMARY KEY, jti VARCHAR(255))");
+            statement.execute("DELETE FROM token");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SqlStatistics.stop();
+    }
+
+    @Test
+    public void testCountsStatementsAndRows() throws Exception {
+        SqlStatistics statistics = SqlStatistics.start();
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO token (id, jti) VALUES (?, ?)")) {
+                for (long id = 1; id <= 3; id++) {
+                    insert.setLong(1, id);
+                    insert.setString(2, "jti-" + id);
+                    insert.executeUpdate();
+                }
+            }
+
+            try (PreparedStatement select = connection.prepareStatement("SELECT id FROM token");
+                 ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    // читаем все строки
+                }
+            }
+        }
+
+        assertEquals(4, statistics.getStatements()); // 3 вставки и 1 выборка
+        assertEquals(6, statistics.getRows()); // 3 вставленные и 3 прочитанные строки
+    }
+
+    @Test
+    public void testSkipsAccountingOutsideOfRequest() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO token (id, jti) VALUES (10, 'jti-10')");
+        }
+
+        assertNull(SqlStatistics.current());
+    }
+}
@@ -1,5 +1,9 @@
 package org.example.taskservice.config;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.taskservice.filter.IdentityHeaders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,6 +12,8 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class BeansConfig {
 
@@ -25,6 +31,20 @@ public class BeansConfig {
         };
     }
 
+    // Доступ к полям DTO через сгенерированные лямбды вместо рефлексии (подключается в ObjectMapper автоматически)
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Пользователь из подписанных шлюзом заголовков вместо повторного разбора JWT
+    @Bean
+    public IdentityHeaders identityHeaders(@Value("${security.identity-headers.enabled:false}") boolean enabled,
+                                           @Value("${security.identity-headers.secret_key:}") String secretKey,
+                                           @Value("${security.identity-headers.max-age:30s}") Duration maxAge) {
+        return enabled ? IdentityHeaders.enabled(secretKey, maxAge) : IdentityHeaders.disabled();
+    }
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.build();
@@ -0,0 +1,37 @@
+package org.example.taskservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Бинарный формат ответов CBOR (application/cbor) для внутренних сервисов.
+ * Выбирается заголовком Accept, по умолчанию остается JSON.
+ */
+@Configuration
+public class CborConfig implements WebMvcConfigurer {
+
+    // Билдер в Spring Boot создается на каждую точку внедрения, поэтому его можно перенастраивать
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public CborConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    /**
+     * Конвертер добавляется последним: при Accept с любым типом или без заголовка первым подходит JSON.
+     * ObjectMapper собирается тем же билдером, что и для JSON (модули, формат времени, сериализаторы DTO).
+     *
+     * @param converters - конвертеры сообщений
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+    }
+}
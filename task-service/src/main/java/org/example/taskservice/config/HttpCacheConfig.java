@@ -0,0 +1,25 @@
+package org.example.taskservice.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class HttpCacheConfig {
+
+    /**
+     * ETag ответов задач по хэшу тела и ответ 304 на If-None-Match.
+     * Шлюз проверяет устаревшие ответы своего кэша условным запросом и не получает тело повторно.
+     * Потоковые ответы (SSE) фильтр не буферизует.
+     *
+     * @return FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/tasks/*");
+        return registration;
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.taskservice.config;
 
+import jakarta.servlet.DispatcherType;
 import org.example.taskservice.filter.JwtFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -27,13 +29,18 @@ public class SecurityConfig {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests((requests) ->
-                    requests.requestMatchers(
+                    // Асинхронная отправка SSE уже прошла авторизацию в исходном запросе
+                    requests.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                            .requestMatchers(
                                     "/tasks/v3/api-docs",
                                     "/tasks/v3/api-docs/**",
                                     "/tasks/swagger-ui/**",
                                     "/tasks/swagger-resources/**",
                                     "/tasks/actuator/**",
                                     "/tasks/swagger-ui.html").permitAll()
+                            // Изменение настроек через actuator доступно только администратору
+                            .requestMatchers(HttpMethod.POST, "/actuator/**").hasRole("ADMIN")
+                            .requestMatchers(HttpMethod.DELETE, "/actuator/**").hasRole("ADMIN")
                             .requestMatchers("/tasks/admin/**").hasRole("ADMIN")
                             .requestMatchers("/tasks/executors/**").hasAnyRole("ADMIN", "EXECUTOR")
                             .requestMatchers("/tasks/**").authenticated()
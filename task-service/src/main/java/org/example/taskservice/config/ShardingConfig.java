@@ -0,0 +1,157 @@
+package org.example.taskservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.example.taskservice.service.UserService;
+import org.example.taskservice.sharding.ShardRoute;
+import org.example.taskservice.sharding.ShardRouteInterceptor;
+import org.example.taskservice.sharding.ShardRouter;
+import org.example.taskservice.sharding.ShardRoutingDataSource;
+import org.example.taskservice.sharding.ShardSchemaInitializer;
+import org.example.taskservice.sharding.ShardingProperties;
+import org.example.taskservice.sharding.TaskRowMerger;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    // Пулы шардов не являются бинами и закрываются вместе с конфигурацией
+    private final List<HikariDataSource> shardPools = new ArrayList<>();
+
+    /**
+     * Маршрутизатор шардов (без шардирования - одна база)
+     *
+     * @param properties - настройки шардирования
+     * @return ShardRouter
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        if (!properties.isEnabled()) {
+            return ShardRouter.disabled();
+        }
+        return ShardRouter.sharded(properties.getShards().size(), properties.getScatterThreads());
+    }
+
+    /**
+     * Слияние страниц задач с разных шардов
+     *
+     * @param properties - настройки шардирования
+     * @return TaskRowMerger
+     */
+    @Bean
+    public TaskRowMerger taskRowMerger(ShardingProperties properties) {
+        return new TaskRowMerger(properties.getNameCollation());
+    }
+
+    /**
+     * Источник данных, направляющий соединения в пул текущего шарда.
+     * Физическое соединение берется при первом запросе, когда шард уже выбран.
+     *
+     * @param properties - настройки шардирования
+     * @param openInView - держит ли запрос одно соединение от начала до конца
+     * @return DataSource
+     */
+    @Bean
+    @ConditionalOnProperty("task-sharding.enabled")
+    public DataSource dataSource(ShardingProperties properties,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        // С open-in-view запрос получает соединение до выбора шарда и читает все с основного
+        if (openInView) {
+            throw new IllegalStateException("task-sharding requires spring.jpa.open-in-view=false");
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < properties.getShards().size(); shard++) {
+            ShardingProperties.Shard config = properties.getShards().get(shard);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(config.getUrl())
+                    .username(config.getUsername())
+                    .password(config.getPassword())
+                    .build();
+            pool.setPoolName("task-shard-" + shard);
+            shardPools.add(pool);
+            targets.put(shard, pool);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(0));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Создание схемы и настройка счетчиков ID на шардах
+     *
+     * @param shardRouter - маршрутизатор шардов
+     * @param dataSource - источник данных шардов
+     * @param ddlAuto - режим создания схемы Hibernate
+     * @return ShardSchemaInitializer
+     */
+    @Bean
+    @ConditionalOnProperty("task-sharding.enabled")
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRouter shardRouter, DataSource dataSource,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(shardRouter, dataSource, ddlAuto);
+    }
+
+    /**
+     * Передача модели сущностей Hibernate для создания схемы на остальных шардах
+     *
+     * @param shardSchemaInitializer - подготовка схемы шардов
+     * @return HibernatePropertiesCustomizer
+     */
+    @Bean
+    @ConditionalOnProperty("task-sharding.enabled")
+    public HibernatePropertiesCustomizer shardMetadataCustomizer(ShardSchemaInitializer shardSchemaInitializer) {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(shardSchemaInitializer));
+    }
+
+    /**
+     * Выбор шарда для методов с @ShardRoute до открытия транзакции
+     *
+     * @param shardRouter - маршрутизатор шардов
+     * @param userService - сервис пользователей
+     * @return Advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty("task-sharding.enabled")
+    public static Advisor shardRouteAdvisor(ObjectProvider<ShardRouter> shardRouter,
+                                            ObjectProvider<UserService> userService) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ShardRoute.class),
+                new ShardRouteInterceptor(shardRouter, userService));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @PreDestroy
+    public void closeShardPools() {
+        shardPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.taskservice.config;
+
+import org.example.taskservice.statistics.SqlStatisticsDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(value = "sql-statistics.enabled", matchIfMissing = true)
+public class SqlStatisticsConfig {
+
+    /**
+     * Оборачивание источников данных в прокси для учета SQL-запросов
+     *
+     * @return BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource)) {
+                    return new SqlStatisticsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -4,17 +4,32 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.example.taskservice.dto.CommentRequestDto;
 import org.example.taskservice.dto.CommentResponseDto;
+import org.example.taskservice.dto.PageDto;
+import org.example.taskservice.dto.PageView;
+import org.example.taskservice.dto.TaskChangeDto;
+import org.example.taskservice.dto.TaskDeletionResultDto;
 import org.example.taskservice.dto.TaskRequestDto;
 import org.example.taskservice.dto.TaskResponseDto;
+import org.example.taskservice.dto.TaskSyncDto;
 import org.example.taskservice.entity.TaskPriority;
 import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.service.TaskEventStreamService;
+import org.example.taskservice.service.TaskOutboxService;
 import org.example.taskservice.service.TaskService;
-import org.springframework.data.domain.Page;
+import org.example.taskservice.service.TaskSyncService;
+import org.example.taskservice.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
 @RestController
 @RequestMapping("/tasks")
@@ -22,9 +37,25 @@ import java.io.IOException;
 public class TaskController {
 
     private final TaskService taskService;
-
-    public TaskController(TaskService taskService) {
+    private final TaskEventStreamService taskEventStreamService;
+    private final TaskOutboxService taskOutboxService;
+    private final TaskSyncService taskSyncService;
+    private final ShardRouter shardRouter;
+
+    // Сколько шлюз и клиенты могут использовать ответ на чтение задач без повторного запроса
+    @Value("${task-cache.max-age:5s}")
+    private Duration cacheMaxAge;
+
+    public TaskController(TaskService taskService,
+                          TaskEventStreamService taskEventStreamService,
+                          TaskOutboxService taskOutboxService,
+                          TaskSyncService taskSyncService,
+                          ShardRouter shardRouter) {
         this.taskService = taskService;
+        this.taskEventStreamService = taskEventStreamService;
+        this.taskOutboxService = taskOutboxService;
+        this.taskSyncService = taskSyncService;
+        this.shardRouter = shardRouter;
     }
 
     /**
@@ -42,7 +73,7 @@ public class TaskController {
             @RequestBody TaskRequestDto taskRequestDto,
             HttpServletRequest request
     ) throws IOException {
-        log.info("Received request to create task: {}", taskRequestDto);
+        log.debug("Received request to create task: {}", taskRequestDto);
 
         Long taskId = taskService.createTask(taskRequestDto, request);
 
@@ -66,7 +97,7 @@ public class TaskController {
             @PathVariable Long taskId,
             @RequestBody TaskRequestDto taskRequestDto) {
 
-        log.info("Updating task {}: {}", taskId, taskRequestDto);
+        log.debug("Updating task {}: {}", taskId, taskRequestDto);
         Long updatedTaskId = taskService.updateTask(taskId, taskRequestDto);
         log.info("Task updated successfully with ID: {}", updatedTaskId);
 
@@ -89,7 +120,7 @@ public class TaskController {
             @RequestParam TaskStatus status,
             HttpServletRequest request) throws IOException {
 
-        log.info("Updating status: {} for task: {}", status, taskId);
+        log.debug("Updating status: {} for task: {}", status, taskId);
         Long updatedTaskId = taskService.updateTaskStatus(taskId, status, request);
         log.info("Task status updated successfully with ID: {}", updatedTaskId);
 
@@ -111,7 +142,7 @@ public class TaskController {
             @PathVariable Long taskId,
             @RequestParam TaskPriority priority) {
 
-        log.info("Updating priority: {} for task: {}", priority, taskId);
+        log.debug("Updating priority: {} for task: {}", priority, taskId);
         Long updatedTaskId = taskService.updateTaskPriority(taskId, priority);
         log.info("Task priority updated successfully with ID: {}", updatedTaskId);
 
@@ -132,17 +163,39 @@ public class TaskController {
 
 
     /**
-     * Метод для удаления задачи.
+     * Метод для удаления задачи вместе с комментариями и исполнителями.
      * Доступно только администратору
      *
      * @param taskId - идентификатор задачи
-     * @return - сообщение об успешном удалении
+     * @return - количество удаленных задач, комментариев и связей с исполнителями
      */
     @DeleteMapping("/admin/{taskId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> deleteTask(@PathVariable Long taskId) {
-        taskService.deleteTask(taskId);
-        return ResponseEntity.ok("Task deleted successfully");
+    public ResponseEntity<TaskDeletionResultDto> deleteTask(@PathVariable Long taskId) {
+        TaskDeletionResultDto result = taskService.deleteTask(taskId);
+        log.info("Task {} deleted", taskId);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Метод для удаления задач по фильтру (нужен хотя бы один фильтр).
+     * Доступно только администратору
+     *
+     * @param authorId - идентификатор автора
+     * @param executorId - идентификатор исполнителя
+     * @param status - статус задачи
+     * @param priority - приоритет задачи
+     * @return - количество удаленных задач, комментариев и связей с исполнителями
+     */
+    @DeleteMapping("/admin")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TaskDeletionResultDto> deleteTasks(
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority) {
+
+        return ResponseEntity.ok(taskService.deleteTasksByFilter(authorId, executorId, status, priority));
     }
 
     /**
@@ -177,19 +230,23 @@ public class TaskController {
      * @param size - размер страницы
      * @param status - статус задачи
      * @param priority - приоритет задачи
+     * @param sort - сортировка: priority, status, id, updatedAt или name, через запятую asc/desc
+     * @param includeArchived - добавить архивные задачи
      * @return - задачи по автору
      */
     @GetMapping("/author/{userId}")
-    public ResponseEntity<Page<TaskResponseDto>> getTasksByAuthor(
+    public ResponseEntity<PageView> getTasksByAuthor(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) TaskStatus status,
-            @RequestParam(required = false) TaskPriority priority) {
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
 
-        log.info("Fetching tasks for author {}", userId);
+        log.debug("Fetching tasks for author {}", userId);
         // Поиск задач по идентификатору пользователя
-        Page<TaskResponseDto> tasks = taskService.getTasksByAuthor(userId, page, size, status, priority);
+        PageView tasks = taskService.getTasksByAuthor(userId, page, size, status, priority, sort, includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
@@ -200,15 +257,16 @@ public class TaskController {
      * @param taskId - идентификатор задачи
      * @return - задача
      */
-    @GetMapping("/{taskId}")
+    // Только числовой ID, чтобы путь /tasks/graphql не перехватывался этим методом
+    @GetMapping("/{taskId:\\d+}")
     public ResponseEntity<TaskResponseDto> findTaskById(@PathVariable Long taskId) {
 
-        log.info("Fetching task with ID: {}", taskId);
+        log.debug("Fetching task with ID: {}", taskId);
         // Поиск задачи по идентификатору
         TaskResponseDto task = taskService.getTaskById(taskId);
 
-        log.info("Task found: {} with ID: {}", task.getName(), taskId);
-        return ResponseEntity.ok(task);
+        log.debug("Task found: {} with ID: {}", task.getName(), taskId);
+        return ResponseEntity.ok().cacheControl(cacheControl()).body(task);
     }
 
 
@@ -220,19 +278,45 @@ public class TaskController {
      * @param size - размер страницы
      * @param status - статус задачи
      * @param priority - приоритет задачи
+     * @param sort - сортировка: priority, status, id, updatedAt или name, через запятую asc/desc
+     * @param includeArchived - добавить архивные задачи
      * @return - все задачи
      */
     @GetMapping
-    public ResponseEntity<Page<TaskResponseDto>> findAllTasks(
+    public ResponseEntity<PageView> findAllTasks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) TaskStatus status,
-            @RequestParam(required = false) TaskPriority priority
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean includeArchived
     ) {
 
-        log.info("Fetching all tasks");
-        Page<TaskResponseDto> tasks = taskService.getAllTasks(status, priority, page, size);
-        return ResponseEntity.ok(tasks);
+        log.debug("Fetching all tasks");
+        PageView tasks = taskService.getAllTasks(status, priority, page, size, sort, includeArchived);
+        return ResponseEntity.ok().cacheControl(cacheControl()).body(tasks);
+    }
+
+
+    /**
+     * Инкрементальная синхронизация: задачи, измененные после курсора, и удаленные задачи.
+     * Первый запрос - с временем последней полной загрузки, следующие - с курсором из ответа.
+     *
+     * @param updatedSince - время из курсора (ISO-8601)
+     * @param afterId - идентификатор задачи из курсора
+     * @param limit - максимальное количество задач (не больше 1000)
+     * @return - изменения и следующий курсор
+     */
+    @GetMapping(params = "updatedSince")
+    public ResponseEntity<TaskSyncDto> syncTasks(
+            @RequestParam Instant updatedSince,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        log.debug("Syncing tasks updated since {} after {}", updatedSince, afterId);
+        // Курсор (updatedSince, afterId) и отметки об удалении ведутся в каждой базе отдельно
+        shardRouter.requireSingleShard("Delta sync");
+        return ResponseEntity.ok(taskSyncService.getChanges(updatedSince, afterId, limit));
     }
 
 
@@ -244,19 +328,23 @@ public class TaskController {
      * @param size - размер страницы
      * @param status - статус задачи
      * @param priority - приоритет задачи
+     * @param sort - сортировка: priority, status, id, updatedAt или name, через запятую asc/desc
+     * @param includeArchived - добавить архивные задачи
      * @return - задачи по исполнителю
      */
     @GetMapping("/executor/{userId}")
-    public ResponseEntity<Page<TaskResponseDto>> findTasksByExecutorId(
+    public ResponseEntity<PageView> findTasksByExecutorId(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) TaskStatus status,
-            @RequestParam(required = false) TaskPriority priority
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean includeArchived
     ) {
 
-        log.info("Fetching tasks for executor {}", userId);
-        Page<TaskResponseDto> tasks = taskService.getTasksByExecutorId(userId, page, size, status, priority);
+        log.debug("Fetching tasks for executor {}", userId);
+        PageView tasks = taskService.getTasksByExecutorId(userId, page, size, status, priority, sort, includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
@@ -268,14 +356,65 @@ public class TaskController {
      * @return - список комментариев
      */
     @GetMapping("/comment/{taskId}")
-    public ResponseEntity<Page<CommentResponseDto>> findCommentsByTaskId(
+    public ResponseEntity<PageDto<CommentResponseDto>> findCommentsByTaskId(
             @PathVariable Long taskId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        log.info("Fetching comments for task {}", taskId);
-        Page<CommentResponseDto> comments = taskService.getCommentsByTaskId(taskId, page, size);
+        log.debug("Fetching comments for task {}", taskId);
+        PageDto<CommentResponseDto> comments = taskService.getCommentsByTaskId(taskId, page, size);
         return ResponseEntity.ok(comments);
     }
-}
 
+
+    /**
+     * Подписка на события изменения задач (Server-Sent Events) вместо периодического опроса списков.
+     * Фильтры необязательны.
+     *
+     * @param authorId - идентификатор автора задачи
+     * @param executorId - идентификатор исполнителя задачи
+     * @param status - статус задачи
+     * @return - поток событий
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(required = false) TaskStatus status) {
+
+        log.debug("Subscribing to task events: author {}, executor {}, status {}", authorId, executorId, status);
+        return taskEventStreamService.subscribe(authorId, executorId, status);
+    }
+
+
+    /**
+     * Получение ленты изменений задач после указанного номера.
+     * Клиент сохраняет seq последнего изменения и передает его в следующем запросе.
+     * Изменение появляется в ленте после публикации ретранслятором (task-outbox.relay-interval).
+     *
+     * @param since - номер последнего полученного изменения
+     * @param limit - максимальное количество изменений (не больше 1000)
+     * @return - изменения в порядке номеров
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<List<TaskChangeDto>> findChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        log.debug("Fetching task changes since {}", since);
+        // Номера изменений выдаются каждой базой отдельно и не упорядочены между шардами
+        shardRouter.requireSingleShard("Task changes feed");
+        return ResponseEntity.ok(taskOutboxService.getChanges(since, limit));
+    }
+
+
+    /**
+     * Метод для заголовка Cache-Control ответов на чтение задач.
+     * Без него Spring Security запрещает кэширование (no-store).
+     *
+     * @return - Cache-Control с max-age или no-cache, если max-age равен нулю
+     */
+    private CacheControl cacheControl() {
+        return cacheMaxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(cacheMaxAge);
+    }
+}
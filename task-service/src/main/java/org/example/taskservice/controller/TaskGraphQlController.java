@@ -0,0 +1,138 @@
+package org.example.taskservice.controller;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.exeception.InvalidTaskDataException;
+import org.example.taskservice.exeception.ShardingUnsupportedException;
+import org.example.taskservice.graphql.CommentNode;
+import org.example.taskservice.graphql.TaskNode;
+import org.example.taskservice.graphql.TaskNodePage;
+import org.example.taskservice.graphql.UserNode;
+import org.example.taskservice.service.TaskGraphQlService;
+import org.example.taskservice.sharding.ShardRouter;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL API задач (/tasks/graphql).
+ * Клиент запрашивает только нужные поля; автор, исполнители и комментарии
+ * загружаются батчами - одним запросом на все задачи страницы.
+ */
+@Controller
+@Slf4j
+public class TaskGraphQlController {
+
+    private final TaskGraphQlService taskGraphQlService;
+    private final ShardRouter shardRouter;
+
+    public TaskGraphQlController(TaskGraphQlService taskGraphQlService, ShardRouter shardRouter) {
+        this.taskGraphQlService = taskGraphQlService;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Получение задач с фильтрацией, сортировкой и пагинацией.
+     * Общее количество считается, только если запрошено поле totalElements.
+     */
+    @QueryMapping
+    public TaskNodePage tasks(
+            @Argument Long authorId,
+            @Argument Long executorId,
+            @Argument TaskStatus status,
+            @Argument TaskPriority priority,
+            @Argument int page,
+            @Argument int size,
+            @Argument String sort,
+            DataFetchingFieldSelectionSet selection) {
+
+        log.debug("GraphQL tasks query: author {}, executor {}, status {}, priority {}", authorId, executorId, status, priority);
+        shardRouter.requireSingleShard("GraphQL API");
+        return taskGraphQlService.findTasks(authorId, executorId, status, priority, page, size, sort,
+                fieldNames(selection.getFields("content/*")), selection.contains("totalElements"));
+    }
+
+    /**
+     * Получение задачи по идентификатору.
+     */
+    @QueryMapping
+    public TaskNode task(@Argument Long id, DataFetchingFieldSelectionSet selection) {
+        shardRouter.requireSingleShard("GraphQL API");
+        return taskGraphQlService.findTask(id, fieldNames(selection.getImmediateFields()));
+    }
+
+    @BatchMapping(typeName = "Task")
+    public Map<TaskNode, UserNode> author(List<TaskNode> tasks) {
+        Map<Long, UserNode> users = taskGraphQlService.findUsers(
+                tasks.stream().map(TaskNode::getAuthorId).filter(Objects::nonNull).collect(Collectors.toSet()));
+        return byKey(tasks, task -> users.get(task.getAuthorId()));
+    }
+
+    @BatchMapping(typeName = "Task")
+    public Map<TaskNode, List<UserNode>> executors(List<TaskNode> tasks) {
+        Map<Long, List<UserNode>> executors = taskGraphQlService.findExecutors(ids(tasks));
+        return byKey(tasks, task -> executors.getOrDefault(task.getId(), List.of()));
+    }
+
+    @BatchMapping(typeName = "Task")
+    public Map<TaskNode, List<CommentNode>> comments(List<TaskNode> tasks) {
+        Map<Long, List<CommentNode>> comments = taskGraphQlService.findComments(ids(tasks));
+        return byKey(tasks, task -> comments.getOrDefault(task.getId(), List.of()));
+    }
+
+    @BatchMapping(typeName = "Comment", field = "author")
+    public Map<CommentNode, UserNode> commentAuthor(List<CommentNode> comments) {
+        Map<Long, UserNode> users = taskGraphQlService.findUsers(
+                comments.stream().map(CommentNode::getAuthorId).filter(Objects::nonNull).collect(Collectors.toSet()));
+        return byKey(comments, comment -> users.get(comment.getAuthorId()));
+    }
+
+    @GraphQlExceptionHandler
+    public GraphQLError handleInvalidTaskData(InvalidTaskDataException ex) {
+        log.warn("Invalid GraphQL request: {}", ex.getMessage());
+        return GraphqlErrorBuilder.newError()
+                .errorType(ErrorType.BAD_REQUEST)
+                .message(ex.getMessage())
+                .build();
+    }
+
+    @GraphQlExceptionHandler
+    public GraphQLError handleShardingUnsupported(ShardingUnsupportedException ex) {
+        log.warn("Unsupported GraphQL request with sharding: {}", ex.getMessage());
+        return GraphqlErrorBuilder.newError()
+                .errorType(ErrorType.BAD_REQUEST)
+                .message(ex.getMessage())
+                .build();
+    }
+
+    private Set<String> fieldNames(List<SelectedField> fields) {
+        return fields.stream().map(SelectedField::getName).collect(Collectors.toSet());
+    }
+
+    private Set<Long> ids(List<TaskNode> tasks) {
+        return tasks.stream().map(TaskNode::getId).collect(Collectors.toSet());
+    }
+
+    // Значение для каждого ключа, в том числе null, чтобы порядок и состав совпадали с батчем
+    private <K, V> Map<K, V> byKey(List<K> keys, Function<K, V> value) {
+        Map<K, V> result = new LinkedHashMap<>();
+        keys.forEach(key -> result.put(key, value.apply(key)));
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.taskservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Страница результатов.
+ * Стабильный формат ответа вместо сериализации PageImpl, у которого JSON зависит от версии Spring Data.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница результатов")
+public class PageDto<T> implements PageView {
+
+    @Schema(description = "Элементы страницы")
+    private List<T> content; // Элементы страницы
+
+    @Schema(description = "Номер страницы (с 0)")
+    private int page; // Номер страницы
+
+    @Schema(description = "Размер страницы")
+    private int size; // Размер страницы
+
+    @Schema(description = "Общее количество элементов")
+    private long totalElements; // Общее количество элементов
+
+    @Schema(description = "Количество страниц")
+    private int totalPages; // Количество страниц
+
+    /**
+     * Метод для создания страницы из Page Spring Data.
+     *
+     * @param page - страница
+     * @return - страница в стабильном формате
+     */
+    public static <T> PageDto<T> of(Page<T> page) {
+        return new PageDto<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+
+    /**
+     * Метод для расчета количества страниц.
+     *
+     * @param totalElements - общее количество элементов
+     * @param size - размер страницы
+     * @return - количество страниц
+     */
+    public static int totalPages(long totalElements, int size) {
+        return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+}
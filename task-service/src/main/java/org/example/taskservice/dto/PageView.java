@@ -0,0 +1,24 @@
+package org.example.taskservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Страница результатов в ответе API.
+ * Реализуется PageDto (элементы страницы - объекты) и TaskRowPageDto (задачи пишутся сериализатором
+ * из строк проекции); в JSON у обеих страниц поля content, page, size, totalElements и totalPages.
+ */
+@Schema(description = "Страница результатов (content - элементы страницы)")
+public interface PageView {
+
+    @Schema(description = "Номер страницы (с 0)")
+    int getPage();
+
+    @Schema(description = "Размер страницы")
+    int getSize();
+
+    @Schema(description = "Общее количество элементов")
+    long getTotalElements();
+
+    @Schema(description = "Количество страниц")
+    int getTotalPages();
+}
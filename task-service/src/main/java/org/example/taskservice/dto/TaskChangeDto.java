@@ -0,0 +1,31 @@
+package org.example.taskservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+import org.example.taskservice.event.TaskChangeType;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@Schema(description = "DTO изменения задачи из ленты изменений")
+public class TaskChangeDto {
+
+    @Schema(description = "Номер изменения")
+    private Long seq; // Номер изменения
+
+    @Schema(description = "Тип изменения")
+    private TaskChangeType type; // Тип изменения
+
+    @Schema(description = "ID задачи")
+    private Long taskId; // ID задачи
+
+    @Schema(description = "Событие изменения")
+    @JsonRawValue
+    private String payload; // Событие изменения (JSON)
+
+    @Schema(description = "Время изменения")
+    private Instant createdAt; // Время изменения
+}
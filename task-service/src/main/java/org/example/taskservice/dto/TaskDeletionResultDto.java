@@ -0,0 +1,33 @@
+package org.example.taskservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO результата удаления задач")
+public class TaskDeletionResultDto {
+
+    @Schema(description = "Количество удаленных задач")
+    private long tasks; // Удаленные задачи
+
+    @Schema(description = "Количество удаленных комментариев")
+    private long comments; // Удаленные комментарии
+
+    @Schema(description = "Количество удаленных связей с исполнителями")
+    private long executorLinks; // Удаленные связи с исполнителями
+
+    /**
+     * Метод для суммирования результатов по частям удаления.
+     *
+     * @param other - результат удаления части задач
+     */
+    public void add(TaskDeletionResultDto other) {
+        tasks += other.tasks;
+        comments += other.comments;
+        executorLinks += other.executorLinks;
+    }
+}
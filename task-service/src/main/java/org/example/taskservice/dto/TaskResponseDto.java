@@ -6,6 +6,7 @@ import lombok.Data;
 import org.example.taskservice.entity.TaskPriority;
 import org.example.taskservice.entity.TaskStatus;
 
+import java.time.Instant;
 import java.util.Set;
 
 @Data
@@ -42,4 +43,16 @@ public class TaskResponseDto {
 
     @Schema(description = "Комментарии задачи")
     private Set<CommentResponseDto> comments; // Комментарии задачи
+
+    @Schema(description = "Время завершения задачи")
+    private Instant completedAt; // Время завершения задачи
+
+    @Schema(description = "Время создания задачи")
+    private Instant createdAt; // Время создания задачи
+
+    @Schema(description = "Время последнего изменения задачи")
+    private Instant updatedAt; // Время последнего изменения задачи
+
+    @Schema(description = "Задача находится в архиве")
+    private boolean archived; // Задача находится в архиве
 }
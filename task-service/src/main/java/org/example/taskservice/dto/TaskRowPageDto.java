@@ -0,0 +1,47 @@
+package org.example.taskservice.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страница задач в виде строк проекции.
+ * В JSON совпадает с PageDto&lt;TaskResponseDto&gt;, но задачи пишутся сериализатором
+ * прямо из строк запроса, без TaskResponseDto, множеств исполнителей и CommentResponseDto.
+ */
+@Getter
+@JsonSerialize(using = TaskRowPageSerializer.class)
+public class TaskRowPageDto implements PageView {
+
+    // Строки задач в порядке страницы: [id, name, description, status, priority, authorId, authorName,
+    // completedAt, createdAt, updatedAt]
+    private final List<Object[]> rows;
+
+    // Исполнители по ID задачи: [taskId, userId, userName]
+    private final Map<Long, List<Object[]>> executors;
+
+    // Комментарии по ID задачи: [taskId, id, content, authorId, authorName]
+    private final Map<Long, List<Object[]>> comments;
+
+    private final int page;
+    private final int size;
+    private final long totalElements;
+    private final int totalPages;
+
+    public TaskRowPageDto(List<Object[]> rows,
+                          Map<Long, List<Object[]>> executors,
+                          Map<Long, List<Object[]>> comments,
+                          int page,
+                          int size,
+                          long totalElements) {
+        this.rows = rows;
+        this.executors = executors;
+        this.comments = comments;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = PageDto.totalPages(totalElements, size);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.taskservice.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Сериализатор страницы задач из строк проекции.
+ * Поля пишутся в JsonGenerator по мере обхода строк, формат совпадает с TaskResponseDto.
+ */
+public class TaskRowPageSerializer extends StdSerializer<TaskRowPageDto> {
+
+    public TaskRowPageSerializer() {
+        super(TaskRowPageDto.class);
+    }
+
+    @Override
+    public void serialize(TaskRowPageDto page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeArrayFieldStart("content");
+        for (Object[] row : page.getRows()) {
+            writeTask(row, page, gen, provider);
+        }
+        gen.writeEndArray();
+
+        gen.writeNumberField("page", page.getPage());
+        gen.writeNumberField("size", page.getSize());
+        gen.writeNumberField("totalElements", page.getTotalElements());
+        gen.writeNumberField("totalPages", page.getTotalPages());
+        gen.writeEndObject();
+    }
+
+    private void writeTask(Object[] row, TaskRowPageDto page, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        Long taskId = (Long) row[0];
+
+        gen.writeStartObject();
+        writeLong(gen, "id", taskId);
+        gen.writeStringField("name", (String) row[1]);
+        gen.writeStringField("description", (String) row[2]);
+        writeEnum(gen, "status", (Enum<?>) row[3]);
+        writeEnum(gen, "priority", (Enum<?>) row[4]);
+        writeLong(gen, "authorId", (Long) row[5]);
+        gen.writeStringField("authorName", (String) row[6]);
+
+        // Исполнители: два массива, как executorId и executorName в TaskResponseDto
+        List<Object[]> executors = page.getExecutors().getOrDefault(taskId, List.of());
+        gen.writeArrayFieldStart("executorId");
+        for (Object[] executor : executors) {
+            gen.writeNumber((Long) executor[1]);
+        }
+        gen.writeEndArray();
+        // executorName в TaskResponseDto - множество: одинаковые имена разных исполнителей пишутся один раз
+        gen.writeArrayFieldStart("executorName");
+        if (executors.size() == 1) {
+            gen.writeString((String) executors.get(0)[2]);
+        } else if (!executors.isEmpty()) {
+            Set<String> names = new LinkedHashSet<>();
+            for (Object[] executor : executors) {
+                if (names.add((String) executor[2])) {
+                    gen.writeString((String) executor[2]);
+                }
+            }
+        }
+        gen.writeEndArray();
+
+        gen.writeArrayFieldStart("comments");
+        for (Object[] comment : page.getComments().getOrDefault(taskId, List.of())) {
+            gen.writeStartObject();
+            writeLong(gen, "id", (Long) comment[1]);
+            gen.writeStringField("content", (String) comment[2]);
+            writeLong(gen, "authorId", (Long) comment[3]);
+            gen.writeStringField("authorName", (String) comment[4]);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+
+        // Время через сериализатор ObjectMapper, чтобы формат совпадал с остальными ответами
+        writeInstant(gen, provider, "completedAt", (Instant) row[7]);
+        writeInstant(gen, provider, "createdAt", (Instant) row[8]);
+        writeInstant(gen, provider, "updatedAt", (Instant) row[9]);
+        gen.writeBooleanField("archived", false);
+        gen.writeEndObject();
+    }
+
+    private void writeLong(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+
+    private void writeEnum(JsonGenerator gen, String name, Enum<?> value) throws IOException {
+        gen.writeStringField(name, value != null ? value.name() : null);
+    }
+
+    private void writeInstant(JsonGenerator gen, SerializerProvider provider, String name, Instant value)
+            throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            provider.defaultSerializeField(name, value, gen);
+        }
+    }
+}
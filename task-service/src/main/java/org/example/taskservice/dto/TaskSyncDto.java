@@ -0,0 +1,32 @@
+package org.example.taskservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "DTO инкрементальной синхронизации задач")
+public class TaskSyncDto {
+
+    @Schema(description = "Задачи, созданные или измененные после курсора")
+    private List<TaskResponseDto> tasks; // Измененные задачи
+
+    @Schema(description = "ID задач, удаленных после курсора")
+    private List<Long> deletedTaskIds; // Удаленные задачи
+
+    @Schema(description = "Есть ли еще изменения (запросить следующую порцию сразу)")
+    private boolean hasMore; // Есть ли еще изменения
+
+    @Schema(description = "Значение updatedSince для следующего запроса")
+    private Instant nextUpdatedSince; // Курсор: время
+
+    @Schema(description = "Значение afterId для следующего запроса")
+    private Long nextAfterId; // Курсор: ID задачи
+
+    @Schema(description = "Курсор старше срока хранения удалений, нужна полная загрузка")
+    private boolean fullResyncRequired; // Нужна полная синхронизация
+}
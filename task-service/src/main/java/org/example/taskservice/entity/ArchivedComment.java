@@ -0,0 +1,32 @@
+package org.example.taskservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Комментарий архивной задачи.
+ */
+@Entity
+@Immutable
+@Table(name = "comment_archive",
+        indexes = @Index(name = "idx_comment_archive_task_id", columnList = "task_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchivedComment {
+
+    // Идентификатор сохраняется из таблицы comment
+    @Id
+    private Long id;
+
+    private String content;
+
+    @ManyToOne
+    private User author;
+
+    @ManyToOne
+    private ArchivedTask task;
+}
@@ -0,0 +1,72 @@
+package org.example.taskservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Архивная (холодная) задача.
+ * Строки переносятся из таблицы task архиватором и дальше не изменяются.
+ */
+@Entity
+@Immutable
+@Table(name = "task_archive",
+        indexes = @Index(name = "idx_task_archive_author_id", columnList = "author_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchivedTask {
+
+    // Идентификатор сохраняется из таблицы task
+    @Id
+    private Long id;
+
+    private String name;
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private TaskPriority priority;
+
+    @Column(name = "priority_rank")
+    private Integer priorityRank;
+
+    @Column(name = "status_rank")
+    private Integer statusRank;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false)
+    private User author;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @ManyToMany
+    @JoinTable(
+        name = "task_executors_archive",
+        joinColumns = @JoinColumn(name = "task_id"),
+        inverseJoinColumns = @JoinColumn(name = "user_id")
+    )
+    @Builder.Default
+    private Set<User> executors = new HashSet<>();
+
+    @OneToMany(mappedBy = "task")
+    private Set<ArchivedComment> comments;
+}
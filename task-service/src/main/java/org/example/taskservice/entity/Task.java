@@ -3,10 +3,23 @@ package org.example.taskservice.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_status_completed_at", columnList = "status, completed_at"),
+        @Index(name = "idx_task_updated_at", columnList = "updated_at, id"),
+        // Индексы под сортировки списков (TaskSort): поле фильтра, поле сортировки, id
+        @Index(name = "idx_task_priority_rank", columnList = "priority_rank, id"),
+        @Index(name = "idx_task_status_rank", columnList = "status_rank, id"),
+        @Index(name = "idx_task_status_priority_rank", columnList = "status, priority_rank, id"),
+        @Index(name = "idx_task_status_updated_at", columnList = "status, updated_at, id"),
+        @Index(name = "idx_task_name", columnList = "name, id"),
+        @Index(name = "idx_task_author_priority_rank", columnList = "author_id, priority_rank, id"),
+        @Index(name = "idx_task_author_status_rank", columnList = "author_id, status_rank, id")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -26,6 +39,25 @@ public class Task {
     @Enumerated(EnumType.STRING)
     private TaskPriority priority;
 
+    // Порядковый номер приоритета (LOW < MEDIUM < HIGH): строковое значение сортируется по алфавиту
+    @Column(name = "priority_rank")
+    private Integer priorityRank;
+
+    // Порядковый номер статуса (IN_WAITING < IN_PROGRESS < DONE): сортировка по статусу идет по ходу работы, а не по алфавиту
+    @Column(name = "status_rank")
+    private Integer statusRank;
+
+    // Время перевода в статус DONE, по нему задачи отбираются для архивации
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    // Обновляется при каждом изменении задачи, ее исполнителей и комментариев (для синхронизации клиентов)
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
@@ -34,11 +66,19 @@ public class Task {
     @JoinTable(
         name = "task_executors",
         joinColumns = @JoinColumn(name = "task_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = @Index(name = "idx_task_executors_user_id", columnList = "user_id, task_id")
     )
     private Set<User> executors = new HashSet<>();
 
     @OneToMany(mappedBy = "task")
     private Set<Comment> comments;
 
+    @PrePersist
+    @PreUpdate
+    private void updateRanks() {
+        priorityRank = priority != null ? priority.ordinal() : null;
+        statusRank = status != null ? status.ordinal() : null;
+    }
+
 }
@@ -0,0 +1,53 @@
+package org.example.taskservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.taskservice.event.TaskChangeType;
+
+import java.time.Instant;
+
+/**
+ * Запись outbox об изменении задачи.
+ * Сохраняется в одной транзакции с изменением и затем публикуется ретранслятором,
+ * который выдает изменению номер в ленте.
+ */
+@Entity
+@Table(name = "task_change",
+        indexes = {
+                @Index(name = "idx_task_change_published", columnList = "published, seq"),
+                @Index(name = "idx_task_change_feed_seq", columnList = "feed_seq", unique = true)
+        })
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskChange {
+
+    // Номер вставки: транзакции фиксируются в любом порядке, поэтому в ленте он не используется
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskChangeType type;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    // Событие изменения в формате JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private boolean published;
+
+    // Номер в ленте, выдается ретранслятором уже зафиксированным изменениям подряд, без пропусков.
+    // По нему клиенты запрашивают ленту
+    @Column(name = "feed_seq")
+    private Long feedSeq;
+}
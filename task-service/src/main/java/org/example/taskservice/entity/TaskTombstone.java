@@ -0,0 +1,27 @@
+package org.example.taskservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Отметка об удаленной задаче для инкрементальной синхронизации клиентов.
+ */
+@Entity
+@Table(name = "task_tombstone",
+        indexes = @Index(name = "idx_task_tombstone_deleted_at", columnList = "deleted_at"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,11 @@
+package org.example.taskservice.event;
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    PRIORITY_CHANGED,
+    EXECUTOR_ASSIGNED,
+    COMMENT_ADDED,
+    DELETED
+}
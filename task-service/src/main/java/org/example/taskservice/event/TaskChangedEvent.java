@@ -0,0 +1,65 @@
+package org.example.taskservice.event;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+import org.example.taskservice.entity.Task;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.entity.User;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Событие изменения задачи.
+ * Публикуется TaskService после записи и рассылается подписчикам потока событий.
+ */
+@Data
+@Builder
+@Schema(description = "Событие изменения задачи")
+public class TaskChangedEvent {
+
+    @Schema(description = "Тип изменения")
+    private TaskChangeType type; // Тип изменения
+
+    @Schema(description = "ID задачи")
+    private Long taskId; // ID задачи
+
+    @Schema(description = "ID автора задачи")
+    private Long authorId; // ID автора задачи
+
+    @Schema(description = "ID исполнителей задачи")
+    private Set<Long> executorIds; // ID исполнителей задачи
+
+    @Schema(description = "Статус задачи")
+    private TaskStatus status; // Статус задачи
+
+    @Schema(description = "Приоритет задачи")
+    private TaskPriority priority; // Приоритет задачи
+
+    @Schema(description = "Время изменения")
+    private Instant occurredAt; // Время изменения
+
+    /**
+     * Метод для создания события по состоянию задачи.
+     *
+     * @param type - тип изменения
+     * @param task - задача
+     * @return - событие
+     */
+    public static TaskChangedEvent of(TaskChangeType type, Task task) {
+        return TaskChangedEvent.builder()
+                .type(type)
+                .taskId(task.getId())
+                .authorId(task.getAuthor() != null ? task.getAuthor().getId() : null)
+                .executorIds(task.getExecutors() != null
+                        ? task.getExecutors().stream().map(User::getId).collect(Collectors.toSet())
+                        : Set.of())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.taskservice.exeception;
+
+public class ShardingUnsupportedException extends RuntimeException {
+
+    public ShardingUnsupportedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.taskservice.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.entity.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Проверка заголовков пользователя, подписанных шлюзом.
+ * Шлюз уже проверил токен и передает subject, имя и роли с подписью HMAC-SHA256 внутренним ключом,
+ * поэтому сервис не разбирает JWT повторно. Заголовки без подписи, с неверной подписью
+ * или старше max-age не принимаются, и пользователь берется из токена.
+ */
+@Slf4j
+public class IdentityHeaders {
+
+    public static final String SUBJECT = "X-Auth-Subject";
+    public static final String NAME = "X-Auth-Name";
+    public static final String ROLES = "X-Auth-Roles";
+    public static final String TIMESTAMP = "X-Auth-Timestamp";
+    public static final String SIGNATURE = "X-Auth-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final long maxAgeSeconds;
+
+    private IdentityHeaders(SecretKeySpec key, long maxAgeSeconds) {
+        this.key = key;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * Заголовки шлюза не принимаются, пользователь всегда берется из токена.
+     */
+    public static IdentityHeaders disabled() {
+        return new IdentityHeaders(null, 0);
+    }
+
+    /**
+     * Заголовки шлюза принимаются, если подпись верна и они не старше maxAge.
+     *
+     * @param secretKey - общий со шлюзом ключ подписи (base64)
+     * @param maxAge - допустимый возраст заголовков
+     */
+    public static IdentityHeaders enabled(String secretKey, Duration maxAge) {
+        if (secretKey == null || secretKey.isBlank()) {
+            throw new IllegalStateException("security.identity-headers.secret_key is required when identity headers are enabled");
+        }
+        return new IdentityHeaders(new SecretKeySpec(Base64.getDecoder().decode(secretKey), ALGORITHM),
+                maxAge.toSeconds());
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    /**
+     * Метод для получения пользователя из заголовков шлюза.
+     *
+     * @param request - HTTP-запрос
+     * @param now - текущее время, секунды с начала эпохи
+     * @return - пользователь или null, если заголовков нет или им нельзя доверять
+     */
+    public User verify(HttpServletRequest request, long now) {
+        if (key == null) {
+            return null;
+        }
+        String signature = request.getHeader(SIGNATURE);
+        if (signature == null) {
+            return null;
+        }
+
+        String subject = request.getHeader(SUBJECT);
+        String name = request.getHeader(NAME);
+        String roles = request.getHeader(ROLES);
+        String timestamp = request.getHeader(TIMESTAMP);
+        if (subject == null || roles == null || timestamp == null) {
+            log.warn("Incomplete identity headers, falling back to token");
+            return null;
+        }
+
+        long issuedAt;
+        try {
+            issuedAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid identity headers timestamp, falling back to token");
+            return null;
+        }
+        // Защита от повторного использования перехваченных заголовков (с запасом на расхождение часов)
+        if (Math.abs(now - issuedAt) > maxAgeSeconds) {
+            log.warn("Expired identity headers, falling back to token");
+            return null;
+        }
+
+        byte[] expected = sign(key, subject, name, roles, timestamp).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+            log.warn("Invalid identity headers signature, falling back to token");
+            return null;
+        }
+
+        User user = new User();
+        user.setEmail(subject);
+        user.setName(name != null ? URLDecoder.decode(name, StandardCharsets.UTF_8) : null);
+        // Тот же формат, что и у ролей из токена
+        user.setRole(String.join(", ", roles.split(",")));
+        return user;
+    }
+
+    /**
+     * Метод для вычисления подписи заголовков (тот же алгоритм, что и на шлюзе).
+     *
+     * @param key - ключ подписи
+     * @param subject - subject токена
+     * @param name - имя пользователя в URL-кодировке
+     * @param roles - роли через запятую
+     * @param timestamp - время подписи, секунды с начала эпохи
+     * @return - подпись в base64url
+     */
+    public static String sign(SecretKeySpec key, String subject, String name, String roles, String timestamp) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            String payload = subject + "\n" + (name != null ? name : "") + "\n" + roles + "\n" + timestamp;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign identity headers", e);
+        }
+    }
+}
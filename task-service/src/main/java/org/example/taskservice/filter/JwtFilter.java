@@ -34,7 +34,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         Authentication authentication = getAuthenticationFromToken(request);
 
-        log.info("Setting authentication: {}", authentication);
+        log.debug("Setting authentication: {}", authentication);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         filterChain.doFilter(request, response);
     }
@@ -52,7 +52,7 @@ public class JwtFilter extends OncePerRequestFilter {
         List<SimpleGrantedAuthority> authorities =  role.stream()
                 .map(SimpleGrantedAuthority::new)
                 .toList();
-        log.info("authorities: {}", authorities);
+        log.debug("authorities: {}", authorities);
         return new UsernamePasswordAuthenticationToken(username, null, authorities);
     }
 }
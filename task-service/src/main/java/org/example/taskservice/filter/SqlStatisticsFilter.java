@@ -0,0 +1,143 @@
+package org.example.taskservice.filter;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.statistics.SqlStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр для учета SQL-запросов, выполненных при обработке HTTP-запроса.
+ * Публикует гистограммы количества запросов по эндпоинтам, пишет предупреждение
+ * при превышении порога (признак N+1) и, в dev-окружении, добавляет статистику в заголовки ответа.
+ * Выполняется внутри ServerHttpObservationFilter, чтобы статистика попала в атрибуты span запроса.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(value = "sql-statistics.enabled", matchIfMissing = true)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sql-statistics.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Value("${sql-statistics.statement-threshold:20}")
+    private long statementThreshold;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        // Заголовки можно добавить только до отправки тела, поэтому в dev-режиме буферизуем ответ.
+        // Потоковые ответы (SSE) не буферизуем.
+        ContentCachingResponseWrapper cachingResponse = responseHeaders && !isEventStream(request)
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            filterChain.doFilter(request, cachingResponse != null ? cachingResponse : response);
+        } finally {
+            SqlStatistics.stop();
+            record(request, statistics);
+
+            if (cachingResponse != null) {
+                cachingResponse.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+                cachingResponse.setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+                cachingResponse.setHeader(TIME_HEADER, String.valueOf(statistics.getMillis()));
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * Метод для публикации метрик и проверки порога количества запросов.
+     *
+     * @param request - HTTP-запрос
+     * @param statistics - статистика запроса
+     */
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        String endpoint = resolveEndpoint(request);
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("uri", endpoint)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .description("Rows read or modified per HTTP request")
+                .tag("uri", endpoint)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+
+        Timer.builder("http.server.requests.sql.time")
+                .description("Database time per HTTP request")
+                .tag("uri", endpoint)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+
+        // Атрибуты фазы работы с БД в span HTTP-запроса
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context
+                .addHighCardinalityKeyValue(KeyValue.of("db.statements", String.valueOf(statistics.getStatements())))
+                .addHighCardinalityKeyValue(KeyValue.of("db.rows", String.valueOf(statistics.getRows())))
+                .addHighCardinalityKeyValue(KeyValue.of("db.time.ms", String.valueOf(statistics.getMillis()))));
+
+        if (statistics.getStatements() > statementThreshold) {
+            log.warn("Possible N+1 on {} {}: {} SQL statements, {} rows, {} ms (threshold {})",
+                    method, endpoint, statistics.getStatements(), statistics.getRows(),
+                    statistics.getMillis(), statementThreshold);
+        }
+    }
+
+    /**
+     * Метод для получения шаблона эндпоинта (без идентификаторов, чтобы не раздувать метрики).
+     *
+     * @param request - HTTP-запрос
+     * @return - шаблон пути или UNKNOWN
+     */
+    private String resolveEndpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.taskservice.graphql;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Комментарий к задаче в GraphQL API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentNode {
+
+    private Long id; // ID комментария
+    private String content; // Текст комментария
+    private Long authorId; // ID автора комментария
+}
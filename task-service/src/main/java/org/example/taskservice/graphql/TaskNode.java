@@ -0,0 +1,32 @@
+package org.example.taskservice.graphql;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+
+import java.time.Instant;
+
+/**
+ * Задача в GraphQL API.
+ * Заполняются только запрошенные клиентом поля, остальные не читаются из базы.
+ * Исполнители, комментарии и автор подгружаются пачками отдельно.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskNode {
+
+    private Long id; // ID задачи
+    private String name; // Название задачи
+    private String description; // Описание задачи
+    private TaskStatus status; // Статус задачи
+    private TaskPriority priority; // Приоритет задачи
+    private Instant completedAt; // Время завершения
+    private Instant createdAt; // Время создания
+    private Instant updatedAt; // Время изменения
+    private Long authorId; // ID автора, читается только если запрошен автор
+}
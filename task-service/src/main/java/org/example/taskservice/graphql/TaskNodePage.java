@@ -0,0 +1,21 @@
+package org.example.taskservice.graphql;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница задач в GraphQL API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskNodePage {
+
+    private List<TaskNode> content; // Задачи страницы
+    private Long totalElements; // Общее количество, null если не запрошено
+    private int page; // Номер страницы
+    private int size; // Размер страницы
+}
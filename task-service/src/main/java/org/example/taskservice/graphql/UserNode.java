@@ -0,0 +1,17 @@
+package org.example.taskservice.graphql;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Пользователь (автор или исполнитель) в GraphQL API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserNode {
+
+    private Long id; // ID пользователя
+    private String name; // Имя пользователя
+}
@@ -121,6 +121,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Обработка исключения ShardingUnsupportedException
+     * @param ex исключение
+     * @return 501 Not Implemented, если операция недоступна при шардировании задач.
+     */
+    @ExceptionHandler(ShardingUnsupportedException.class)
+    public ResponseEntity<String> handleShardingUnsupported(ShardingUnsupportedException ex) {
+        log.warn("Unsupported with sharding: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(ex.getMessage());
+    }
+
     /**
      * Обработка всех остальных исключений
      * @param ex исключение
@@ -0,0 +1,60 @@
+package org.example.taskservice.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator-эндпоинт для управления выборочным логированием во время работы сервиса.
+ * Уровни логгеров по-прежнему меняются через стандартный эндпоинт loggers.
+ */
+@Component
+@Endpoint(id = "logsampling")
+public class LogSamplingEndpoint {
+
+    private final LogSamplingTurboFilter filter;
+
+    public LogSamplingEndpoint(LogSamplingTurboFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Метод для получения текущих правил и счетчиков отброшенных сообщений.
+     *
+     * @return - правила по логгерам
+     */
+    @ReadOperation
+    public Map<String, LogSamplingTurboFilter.Rule> rules() {
+        return filter.getRules();
+    }
+
+    /**
+     * Метод для установки правила логгера.
+     *
+     * @param logger - имя логгера (или пакета)
+     * @param sampleRate - доля сохраняемых сообщений от 0 до 1
+     * @param maxPerSecond - максимальное количество сообщений в секунду
+     */
+    @WriteOperation
+    public void configure(@Selector String logger, @Nullable Double sampleRate, @Nullable Integer maxPerSecond) {
+        filter.setRule(logger,
+                sampleRate != null ? sampleRate : 1.0,
+                maxPerSecond != null ? maxPerSecond : 0);
+    }
+
+    /**
+     * Метод для удаления правила логгера.
+     *
+     * @param logger - имя логгера (или пакета)
+     */
+    @DeleteOperation
+    public void remove(@Selector String logger) {
+        filter.removeRule(logger);
+    }
+}
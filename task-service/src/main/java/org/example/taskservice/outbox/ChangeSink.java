@@ -0,0 +1,21 @@
+package org.example.taskservice.outbox;
+
+import org.example.taskservice.dto.TaskChangeDto;
+
+import java.util.List;
+
+/**
+ * Получатель изменений задач, в который ретранслятор публикует записи outbox.
+ * Пачка считается опубликованной, только если метод завершился без исключения,
+ * поэтому реализация должна выдерживать повторную доставку (at-least-once).
+ */
+public interface ChangeSink {
+
+    /**
+     * Метод для публикации пачки изменений в порядке номеров.
+     *
+     * @param changes - изменения
+     * @throws Exception - ошибка публикации, пачка будет отправлена повторно
+     */
+    void publish(List<TaskChangeDto> changes) throws Exception;
+}
@@ -0,0 +1,48 @@
+package org.example.taskservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskservice.dto.TaskChangeDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Получатель изменений, который дописывает их в локальный файл (одна строка JSON на изменение).
+ */
+@Component
+@ConditionalOnProperty(value = "task-outbox.sink", havingValue = "file")
+public class FileChangeSink implements ChangeSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileChangeSink(ObjectMapper objectMapper,
+                          @Value("${task-outbox.file.path:logs/task-changes.jsonl}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public synchronized void publish(List<TaskChangeDto> changes) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        // Пачка записывается одним открытием файла
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (TaskChangeDto change : changes) {
+                writer.write(objectMapper.writeValueAsString(change));
+                writer.newLine();
+            }
+        }
+    }
+}
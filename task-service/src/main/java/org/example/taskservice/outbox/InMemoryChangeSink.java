@@ -0,0 +1,51 @@
+package org.example.taskservice.outbox;
+
+import org.example.taskservice.dto.TaskChangeDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Получатель изменений в памяти: хранит последние опубликованные изменения.
+ * Используется по умолчанию и в тестах.
+ */
+@Component
+@ConditionalOnProperty(value = "task-outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryChangeSink implements ChangeSink {
+
+    private final Deque<TaskChangeDto> changes = new ArrayDeque<>();
+
+    // Номера сохраненных изменений: изменения фиксируются и публикуются не по порядку номеров,
+    // поэтому повтор определяется по множеству, а не по последнему номеру
+    private final Set<Long> seqs = new HashSet<>();
+
+    private final int capacity;
+
+    public InMemoryChangeSink(@Value("${task-outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<TaskChangeDto> batch) {
+        for (TaskChangeDto change : batch) {
+            // Повторная доставка уже сохраненного изменения игнорируется
+            if (!seqs.add(change.getSeq())) {
+                continue;
+            }
+            if (changes.size() == capacity) {
+                seqs.remove(changes.pollFirst().getSeq());
+            }
+            changes.addLast(change);
+        }
+    }
+
+    public synchronized List<TaskChangeDto> getChanges() {
+        return List.copyOf(changes);
+    }
+}
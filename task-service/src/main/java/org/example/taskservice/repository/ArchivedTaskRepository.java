@@ -0,0 +1,91 @@
+package org.example.taskservice.repository;
+
+import org.example.taskservice.entity.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Репозиторий архивных задач.
+ * Перенос выполняется set-based запросами (INSERT ... SELECT и DELETE по пачке идентификаторов),
+ * без загрузки сущностей в память.
+ */
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long>, JpaSpecificationExecutor<ArchivedTask> {
+
+    /**
+     * Метод для выбора пачки завершенных задач для архивации.
+     * Строки, заблокированные другой репликой архиватора, пропускаются.
+     *
+     * @param cutoff - задачи, завершенные раньше этого времени
+     * @param limit - размер пачки
+     * @return - идентификаторы задач
+     */
+    @Query(value = "SELECT id FROM task WHERE status = 'DONE' AND completed_at < :cutoff "
+            + "ORDER BY completed_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> findArchivableTaskIds(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_archive (id, name, description, status, priority, priority_rank, status_rank, "
+            + "author_id, completed_at, created_at, updated_at, archived_at) "
+            + "SELECT id, name, description, status, priority, priority_rank, status_rank, author_id, completed_at, "
+            + "created_at, updated_at, :archivedAt "
+            + "FROM task WHERE id IN (:ids)", nativeQuery = true)
+    int copyTasks(@Param("ids") List<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_executors_archive (task_id, user_id) "
+            + "SELECT task_id, user_id FROM task_executors WHERE task_id IN (:ids)", nativeQuery = true)
+    int copyExecutors(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO comment_archive (id, content, author_id, task_id) "
+            + "SELECT id, content, author_id, task_id FROM comment WHERE task_id IN (:ids)", nativeQuery = true)
+    int copyComments(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteHotComments(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_executors WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteHotExecutors(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task WHERE id IN (:ids)", nativeQuery = true)
+    int deleteHotTasks(@Param("ids") List<Long> ids);
+
+    /**
+     * Метод для получения данных удаляемых архивных задач для событий удаления.
+     *
+     * @param ids - идентификаторы задач
+     * @return - строки [id, authorId, status, priority]
+     */
+    @Query("select t.id, t.author.id, t.status, t.priority from ArchivedTask t where t.id in :ids")
+    List<Object[]> findDeletionInfo(@Param("ids") List<Long> ids);
+
+    /**
+     * Метод для получения исполнителей удаляемых архивных задач.
+     *
+     * @param ids - идентификаторы задач
+     * @return - строки [taskId, userId]
+     */
+    @Query("select t.id, e.id from ArchivedTask t join t.executors e where t.id in :ids")
+    List<Object[]> findExecutorLinks(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_archive WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteArchivedComments(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_executors_archive WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteArchivedExecutors(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_archive WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchivedTasks(@Param("ids") List<Long> ids);
+}
@@ -3,7 +3,35 @@ package org.example.taskservice.repository;
 import org.example.taskservice.entity.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long>, JpaSpecificationExecutor<Comment> {
 
+    /**
+     * Метод для получения комментариев пачки задач одним запросом (для GraphQL).
+     *
+     * @param taskIds - идентификаторы задач
+     * @return - строки [taskId, id, content, authorId]
+     */
+    @Query("select c.task.id, c.id, c.content, c.author.id from Comment c where c.task.id in :taskIds order by c.id")
+    List<Object[]> findByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Метод для получения комментариев пачки задач с именами авторов (для страницы задач).
+     *
+     * @param taskIds - идентификаторы задач
+     * @return - строки [taskId, id, content, authorId, authorName]
+     */
+    @Query("select c.task.id, c.id, c.content, a.id, a.name from Comment c left join c.author a "
+            + "where c.task.id in :taskIds order by c.id")
+    List<Object[]> findRowsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("delete from Comment c where c.task.id in :taskIds")
+    int deleteByTaskIds(@Param("taskIds") List<Long> taskIds);
 }
@@ -0,0 +1,54 @@
+package org.example.taskservice.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.taskservice.entity.TaskChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TaskChangeRepository extends JpaRepository<TaskChange, Long> {
+
+    /**
+     * Метод для получения изменений ленты после указанного номера.
+     *
+     * @param feedSeq - номер последнего полученного изменения
+     * @param pageable - ограничение количества
+     * @return - изменения в порядке номеров ленты
+     */
+    List<TaskChange> findByFeedSeqGreaterThanOrderByFeedSeqAsc(Long feedSeq, Pageable pageable);
+
+    /**
+     * Метод для получения последнего выданного номера ленты.
+     *
+     * @return - номер или null, если лента пуста
+     */
+    @Query("select max(c.feedSeq) from TaskChange c")
+    Long findMaxFeedSeq();
+
+    /**
+     * Метод для получения пачки неопубликованных изменений.
+     * Строки блокируются, а уже заблокированные пропускаются (SKIP LOCKED),
+     * поэтому несколько реплик ретранслятора не публикуют одно изменение одновременно.
+     *
+     * @param pageable - размер пачки
+     * @return - неопубликованные изменения в порядке номеров
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select c from TaskChange c where c.published = false order by c.seq")
+    List<TaskChange> findUnpublished(Pageable pageable);
+
+    /**
+     * Метод для удаления опубликованных изменений старше указанного времени.
+     *
+     * @param before - граница хранения
+     * @return - количество удаленных строк
+     */
+    @Modifying
+    @Query("delete from TaskChange c where c.published = true and c.createdAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
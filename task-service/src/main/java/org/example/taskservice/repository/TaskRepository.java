@@ -1,9 +1,66 @@
 package org.example.taskservice.repository;
 
 import org.example.taskservice.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
 
+    /**
+     * Метод для получения задач, измененных после позиции курсора (updatedAt, id).
+     * Использует индекс idx_task_updated_at.
+     *
+     * @param since - время изменения последней полученной задачи
+     * @param afterId - идентификатор последней полученной задачи с тем же временем
+     * @param pageable - ограничение количества
+     * @return - задачи в порядке изменения
+     */
+    @EntityGraph(attributePaths = "author")
+    @Query("select t from Task t where t.updatedAt > :since or (t.updatedAt = :since and t.id > :afterId) "
+            + "order by t.updatedAt, t.id")
+    List<Task> findUpdatedSince(@Param("since") Instant since, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Метод для получения данных удаляемых задач (ID, автор, статус, приоритет) без загрузки сущностей.
+     *
+     * @param ids - идентификаторы задач
+     * @return - строки [id, authorId, status, priority]
+     */
+    @Query("select t.id, t.author.id, t.status, t.priority from Task t where t.id in :ids")
+    List<Object[]> findDeletionInfo(@Param("ids") List<Long> ids);
+
+    /**
+     * Метод для получения исполнителей удаляемых задач.
+     *
+     * @param ids - идентификаторы задач
+     * @return - строки [taskId, userId]
+     */
+    @Query("select t.id, e.id from Task t join t.executors e where t.id in :ids")
+    List<Object[]> findExecutorLinks(@Param("ids") List<Long> ids);
+
+    /**
+     * Метод для получения исполнителей пачки задач одним запросом (для GraphQL).
+     *
+     * @param ids - идентификаторы задач
+     * @return - строки [taskId, userId, userName]
+     */
+    @Query("select t.id, e.id, e.name from Task t join t.executors e where t.id in :ids order by e.id")
+    List<Object[]> findExecutorsByTaskIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_executors WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteExecutorLinks(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteAllByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,34 @@
+package org.example.taskservice.repository;
+
+import org.example.taskservice.entity.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Метод для получения идентификаторов задач, удаленных после указанного времени.
+     *
+     * @param since - время последней синхронизации
+     * @return - идентификаторы удаленных задач
+     */
+    @Query("select t.taskId from TaskTombstone t where t.deletedAt > :since order by t.deletedAt")
+    List<Long> findDeletedTaskIds(@Param("since") Instant since);
+
+    /**
+     * Метод для удаления отметок старше срока хранения.
+     *
+     * @param before - граница хранения
+     * @return - количество удаленных строк
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from TaskTombstone t where t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -2,10 +2,38 @@ package org.example.taskservice.repository;
 
 import org.example.taskservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    /**
+     * Метод для получения имен пользователей без загрузки сущностей (для GraphQL).
+     *
+     * @param ids - идентификаторы пользователей
+     * @return - строки [id, name]
+     */
+    @Query("select u.id, u.name from User u where u.id in :ids")
+    List<Object[]> findNamesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Метод для записи копии пользователя с уже выданным ID (на остальных шардах).
+     *
+     * @param id - идентификатор пользователя
+     * @param email - email
+     * @param name - имя
+     * @param role - роль
+     */
+    @Modifying
+    @Query(value = "insert into users (id, email, name, role) values (:id, :email, :name, :role) on conflict do nothing",
+            nativeQuery = true)
+    void insertReplica(@Param("id") Long id, @Param("email") String email,
+                       @Param("name") String name, @Param("role") String role);
 }
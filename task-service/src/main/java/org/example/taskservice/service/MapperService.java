@@ -3,6 +3,7 @@ package org.example.taskservice.service;
 import lombok.extern.slf4j.Slf4j;
 import org.example.taskservice.dto.CommentRequestDto;
 import org.example.taskservice.dto.CommentResponseDto;
+import org.example.taskservice.dto.TaskChangeDto;
 import org.example.taskservice.dto.TaskRequestDto;
 import org.example.taskservice.dto.TaskResponseDto;
 import org.example.taskservice.entity.*;
@@ -48,7 +49,7 @@ public class MapperService {
             throw new InvalidTaskDataException("Priority cannot be null");
         }
 
-        log.info("Task name: {}, description: {}, status: {}, priority: {}", name, description, status, priority);
+        log.debug("Task name: {}, description: {}, status: {}, priority: {}", name, description, status, priority);
         // Создаем и возвращаем обновленную задачу
         return Task.builder()
                 .id(oldTask.getId())
@@ -57,6 +58,11 @@ public class MapperService {
                 .status(status)
                 .priority(priority)
                 .author(oldTask.getAuthor())
+                .executors(oldTask.getExecutors())
+                .comments(oldTask.getComments())
+                .completedAt(oldTask.getCompletedAt())
+                .createdAt(oldTask.getCreatedAt())
+                .updatedAt(oldTask.getUpdatedAt())
                 .build();
     }
 
@@ -102,6 +108,35 @@ public class MapperService {
                         ? task.getExecutors().stream().map(User::getName).collect(Collectors.toSet())
                         : null) // Имя исполнителя
                 .comments(task.getComments().stream().map(this::convertToCommentResponseDto).collect(Collectors.toSet())) // Комментарии
+                .completedAt(task.getCompletedAt()) // Время завершения
+                .createdAt(task.getCreatedAt()) // Время создания
+                .updatedAt(task.getUpdatedAt()) // Время изменения
+                .build();
+    }
+
+
+    /**
+     * Преобразование архивной задачи ArchivedTask в DTO TaskResponseDto.
+     *
+     * @param task архивная задача
+     * @return TaskResponseDto с признаком archived
+     */
+    public TaskResponseDto convertToTaskResponseDto(ArchivedTask task) {
+        return TaskResponseDto.builder()
+                .id(task.getId()) // Идентификатор задачи
+                .name(task.getName()) // Название задачи
+                .description(task.getDescription()) // Описание задачи
+                .status(task.getStatus()) // Статус задачи
+                .priority(task.getPriority())  // Приоритет задачи
+                .authorId(task.getAuthor().getId()) // ID автора задачи
+                .authorName(task.getAuthor().getName()) // Имя автора задачи
+                .executorId(task.getExecutors().stream().map(User::getId).collect(Collectors.toSet())) // ID исполнителя
+                .executorName(task.getExecutors().stream().map(User::getName).collect(Collectors.toSet())) // Имя исполнителя
+                .comments(task.getComments().stream().map(this::convertToCommentResponseDto).collect(Collectors.toSet())) // Комментарии
+                .completedAt(task.getCompletedAt()) // Время завершения
+                .createdAt(task.getCreatedAt()) // Время создания
+                .updatedAt(task.getUpdatedAt()) // Время изменения
+                .archived(true)
                 .build();
     }
 
@@ -120,4 +155,37 @@ public class MapperService {
                 .authorName(comment.getAuthor().getName()) // Имя автора комментария
                 .build();
     }
+
+
+    /**
+     * Преобразование архивного комментария ArchivedComment в DTO CommentResponseDto.
+     *
+     * @param comment архивный комментарий
+     * @return CommentResponseDto
+     */
+    public CommentResponseDto convertToCommentResponseDto(ArchivedComment comment) {
+        return CommentResponseDto.builder()
+                .id(comment.getId()) // Идентификатор комментария
+                .content(comment.getContent()) // Текст комментария
+                .authorId(comment.getAuthor().getId()) // ID автора комментария
+                .authorName(comment.getAuthor().getName()) // Имя автора комментария
+                .build();
+    }
+
+
+    /**
+     * Преобразование записи outbox TaskChange в DTO TaskChangeDto.
+     *
+     * @param change изменение задачи
+     * @return TaskChangeDto
+     */
+    public TaskChangeDto convertToTaskChangeDto(TaskChange change) {
+        return TaskChangeDto.builder()
+                .seq(change.getFeedSeq()) // Номер изменения в ленте
+                .type(change.getType()) // Тип изменения
+                .taskId(change.getTaskId()) // ID задачи
+                .payload(change.getPayload()) // Событие изменения
+                .createdAt(change.getCreatedAt()) // Время изменения
+                .build();
+    }
 }
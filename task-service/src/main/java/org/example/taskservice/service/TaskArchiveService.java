@@ -0,0 +1,118 @@
+package org.example.taskservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.dto.TaskResponseDto;
+import org.example.taskservice.entity.ArchivedTask;
+import org.example.taskservice.repository.ArchivedTaskRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Сервис архива задач.
+ * Переносит завершенные задачи вместе с комментариями и исполнителями в архивные таблицы
+ * и дополняет выборки из рабочих таблиц архивными задачами.
+ */
+@Slf4j
+@Service
+public class TaskArchiveService {
+
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final MapperService mapperService;
+
+    public TaskArchiveService(ArchivedTaskRepository archivedTaskRepository, MapperService mapperService) {
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.mapperService = mapperService;
+    }
+
+    /**
+     * Метод для переноса пачки завершенных задач в архив.
+     * Копирование и удаление выполняются в одной транзакции.
+     *
+     * @param cutoff - архивируются задачи, завершенные раньше этого времени
+     * @param batchSize - размер пачки
+     * @return - количество перенесенных задач
+     */
+    @Transactional
+    public int archiveBatch(Instant cutoff, int batchSize) {
+        List<Long> ids = archivedTaskRepository.findArchivableTaskIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Сначала задачи: на них ссылаются архивные комментарии
+        archivedTaskRepository.copyTasks(ids, Instant.now());
+        archivedTaskRepository.copyExecutors(ids);
+        int comments = archivedTaskRepository.copyComments(ids);
+
+        archivedTaskRepository.deleteHotComments(ids);
+        archivedTaskRepository.deleteHotExecutors(ids);
+        archivedTaskRepository.deleteHotTasks(ids);
+
+        log.debug("Archived {} tasks with {} comments", ids.size(), comments);
+        return ids.size();
+    }
+
+    /**
+     * Метод для поиска архивной задачи по идентификатору.
+     *
+     * @param taskId - идентификатор задачи
+     * @return - задача, если она в архиве
+     */
+    public Optional<TaskResponseDto> findArchivedTask(Long taskId) {
+        return archivedTaskRepository.findById(taskId).map(mapperService::convertToTaskResponseDto);
+    }
+
+    /**
+     * Метод для дополнения страницы рабочих задач архивными.
+     * Порядок: сначала все рабочие задачи, затем архивные,
+     * поэтому архивные запрашиваются только для страниц за концом рабочих.
+     * Внутри архивной части используется та же сортировка, что и для рабочих задач.
+     *
+     * @param hot - страница рабочих задач
+     * @param specification - фильтры для архивных задач
+     * @param pageable - запрошенная страница
+     * @return - страница с общим количеством рабочих и архивных задач
+     */
+    public Page<TaskResponseDto> appendArchived(Page<TaskResponseDto> hot,
+                                                Specification<ArchivedTask> specification,
+                                                Pageable pageable) {
+        int pageSize = pageable.getPageSize();
+        List<TaskResponseDto> content = new ArrayList<>(hot.getContent());
+
+        // Страница заполнена рабочими задачами, архив нужен только для общего количества
+        if (content.size() == pageSize) {
+            return new PageImpl<>(content, pageable, hot.getTotalElements() + archivedTaskRepository.count(specification));
+        }
+
+        // Смещение внутри архива; страницы архива не совпадают со страницами общего списка
+        long archiveOffset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+        int firstPage = (int) (archiveOffset / pageSize);
+        int skip = (int) (archiveOffset % pageSize);
+
+        Page<ArchivedTask> archived = archivedTaskRepository.findAll(specification, PageRequest.of(firstPage, pageSize, pageable.getSort()));
+        archived.getContent().stream()
+                .skip(skip)
+                .limit(pageSize - content.size())
+                .map(mapperService::convertToTaskResponseDto)
+                .forEach(content::add);
+
+        if (content.size() < pageSize && skip > 0 && archived.hasNext()) {
+            archivedTaskRepository.findAll(specification, PageRequest.of(firstPage + 1, pageSize, pageable.getSort())).getContent().stream()
+                    .limit(pageSize - content.size())
+                    .map(mapperService::convertToTaskResponseDto)
+                    .forEach(content::add);
+        }
+
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archived.getTotalElements());
+    }
+}
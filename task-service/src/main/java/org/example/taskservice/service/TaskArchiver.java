@@ -0,0 +1,76 @@
+package org.example.taskservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Планировщик архивации: переносит завершенные задачи в архив пачками с паузами,
+ * чтобы не нагружать базу и не держать долгие блокировки.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "task-archive.enabled", matchIfMissing = true)
+public class TaskArchiver {
+
+    private final TaskArchiveService taskArchiveService;
+    private final ShardRouter shardRouter;
+
+    // Возраст завершенной задачи, после которого она переносится в архив
+    @Value("${task-archive.age:P30D}")
+    private Duration age;
+
+    @Value("${task-archive.batch-size:500}")
+    private int batchSize;
+
+    // Пауза между пачками
+    @Value("${task-archive.batch-pause:200}")
+    private long batchPause;
+
+    @Value("${task-archive.max-batches:200}")
+    private int maxBatches;
+
+    public TaskArchiver(TaskArchiveService taskArchiveService, ShardRouter shardRouter) {
+        this.taskArchiveService = taskArchiveService;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Метод для запуска архивации по расписанию.
+     */
+    @Scheduled(cron = "${task-archive.cron:0 0 3 * * *}")
+    public void archive() {
+        Instant cutoff = Instant.now().minus(age);
+        // Архив хранится рядом с задачами, при шардировании каждый шард архивируется отдельно
+        shardRouter.forEachShard(shard -> archiveShard(shard, cutoff));
+    }
+
+    private void archiveShard(int shard, Instant cutoff) {
+        int total = 0;
+
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                int archived = taskArchiveService.archiveBatch(cutoff, batchSize);
+                total += archived;
+                if (archived < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPause);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Task archival failed on shard {} after {} tasks: {}", shard, total, e.getMessage());
+        }
+
+        if (total > 0) {
+            log.info("Archived {} tasks completed before {} on shard {}", total, cutoff, shard);
+        }
+    }
+}
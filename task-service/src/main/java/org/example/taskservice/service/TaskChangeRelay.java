@@ -0,0 +1,73 @@
+package org.example.taskservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ретранслятор outbox: периодически публикует неопубликованные изменения задач
+ * и удаляет старые опубликованные записи.
+ */
+@Slf4j
+@Component
+public class TaskChangeRelay {
+
+    private final TaskOutboxService taskOutboxService;
+    private final ShardRouter shardRouter;
+
+    @Value("${task-outbox.batch-size:100}")
+    private int batchSize;
+
+    // Ограничение количества пачек за один запуск, чтобы не занимать планировщик надолго
+    @Value("${task-outbox.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${task-outbox.retention:P7D}")
+    private Duration retention;
+
+    public TaskChangeRelay(TaskOutboxService taskOutboxService, ShardRouter shardRouter) {
+        this.taskOutboxService = taskOutboxService;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Метод для публикации накопленных изменений пачками.
+     */
+    @Scheduled(fixedDelayString = "${task-outbox.relay-interval:1000}")
+    public void relay() {
+        // Outbox пишется в базу задачи, при шардировании очередь у каждого шарда своя
+        shardRouter.forEachShard(this::relayShard);
+    }
+
+    private void relayShard(int shard) {
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                // Неполная пачка означает, что очередь опустела
+                if (taskOutboxService.relayBatch(batchSize) < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Task change relay failed on shard {}, will retry: {}", shard, e.getMessage());
+        }
+    }
+
+    /**
+     * Метод для удаления опубликованных изменений старше срока хранения.
+     */
+    @Scheduled(fixedDelayString = "${task-outbox.purge-interval:3600000}")
+    public void purge() {
+        Instant before = Instant.now().minus(retention);
+        AtomicInteger deleted = new AtomicInteger();
+        shardRouter.forEachShard(shard -> deleted.addAndGet(taskOutboxService.purgePublished(before)));
+        if (deleted.get() > 0) {
+            log.info("Purged {} published task changes", deleted.get());
+        }
+    }
+}
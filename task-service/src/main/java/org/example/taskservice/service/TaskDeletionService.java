@@ -0,0 +1,175 @@
+package org.example.taskservice.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.dto.TaskDeletionResultDto;
+import org.example.taskservice.entity.ArchivedTask;
+import org.example.taskservice.entity.Task;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.event.TaskChangeType;
+import org.example.taskservice.event.TaskChangedEvent;
+import org.example.taskservice.repository.ArchivedTaskRepository;
+import org.example.taskservice.repository.CommentRepository;
+import org.example.taskservice.repository.TaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Сервис удаления задач set-based запросами.
+ * Комментарии, связи с исполнителями и задачи удаляются тремя DELETE на пачку идентификаторов,
+ * без загрузки сущностей. Рабочие и архивные задачи удаляются отдельными пачками.
+ */
+@Slf4j
+@Service
+public class TaskDeletionService {
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    public TaskDeletionService(TaskRepository taskRepository,
+                               CommentRepository commentRepository,
+                               ArchivedTaskRepository archivedTaskRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               EntityManager entityManager) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Метод для выбора идентификаторов задач по фильтру в порядке возрастания.
+     *
+     * @param specification - фильтр задач
+     * @param afterId - выбираются задачи с идентификатором больше этого
+     * @param limit - размер пачки
+     * @return - идентификаторы задач
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findTaskIds(Specification<Task> specification, long afterId, int limit) {
+        return findIds(Task.class, specification, afterId, limit);
+    }
+
+    /**
+     * Метод для выбора идентификаторов архивных задач по фильтру в порядке возрастания.
+     *
+     * @param specification - фильтр архивных задач
+     * @param afterId - выбираются задачи с идентификатором больше этого
+     * @param limit - размер пачки
+     * @return - идентификаторы задач
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findArchivedTaskIds(Specification<ArchivedTask> specification, long afterId, int limit) {
+        return findIds(ArchivedTask.class, specification, afterId, limit);
+    }
+
+    private <T> List<Long> findIds(Class<T> type, Specification<T> specification, long afterId, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(type);
+
+        Specification<T> afterIdSpecification = (r, q, cb) -> cb.greaterThan(r.get("id"), afterId);
+        query.select(root.get("id"))
+                .distinct(true)
+                .where(afterIdSpecification.and(specification).toPredicate(root, query, criteriaBuilder))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Метод для удаления пачки задач вместе с комментариями и связями с исполнителями.
+     * События удаления (outbox, отметки для синхронизации) записываются в той же транзакции.
+     *
+     * @param ids - идентификаторы задач
+     * @return - количество удаленных строк
+     */
+    @Transactional
+    public TaskDeletionResultDto deleteTasks(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new TaskDeletionResultDto();
+        }
+
+        List<TaskChangedEvent> events = buildDeletionEvents(
+                taskRepository.findDeletionInfo(ids), taskRepository.findExecutorLinks(ids));
+
+        int comments = commentRepository.deleteByTaskIds(ids);
+        int executorLinks = taskRepository.deleteExecutorLinks(ids);
+        int tasks = taskRepository.deleteAllByIds(ids);
+
+        events.forEach(eventPublisher::publishEvent);
+
+        log.debug("Deleted {} tasks, {} comments, {} executor links", tasks, comments, executorLinks);
+        return new TaskDeletionResultDto(tasks, comments, executorLinks);
+    }
+
+    /**
+     * Метод для удаления пачки архивных задач вместе с их комментариями и исполнителями.
+     * Подписчики и клиенты синхронизации получают такие же события удаления, как для рабочих задач.
+     *
+     * @param ids - идентификаторы архивных задач
+     * @return - количество удаленных строк
+     */
+    @Transactional
+    public TaskDeletionResultDto deleteArchivedTasks(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new TaskDeletionResultDto();
+        }
+
+        List<TaskChangedEvent> events = buildDeletionEvents(
+                archivedTaskRepository.findDeletionInfo(ids), archivedTaskRepository.findExecutorLinks(ids));
+
+        int comments = archivedTaskRepository.deleteArchivedComments(ids);
+        int executorLinks = archivedTaskRepository.deleteArchivedExecutors(ids);
+        int tasks = archivedTaskRepository.deleteArchivedTasks(ids);
+
+        events.forEach(eventPublisher::publishEvent);
+
+        log.debug("Deleted {} archived tasks, {} comments, {} executor links", tasks, comments, executorLinks);
+        return new TaskDeletionResultDto(tasks, comments, executorLinks);
+    }
+
+    /**
+     * Метод для подготовки событий удаления: подписчикам нужны автор, исполнители и статус задачи.
+     *
+     * @param deletionInfo - строки [id, authorId, status, priority] удаляемых задач
+     * @param executorLinks - строки [taskId, userId] исполнителей удаляемых задач
+     * @return - события удаления существующих задач
+     */
+    private List<TaskChangedEvent> buildDeletionEvents(List<Object[]> deletionInfo, List<Object[]> executorLinks) {
+        Map<Long, Set<Long>> executors = new HashMap<>();
+        for (Object[] link : executorLinks) {
+            executors.computeIfAbsent((Long) link[0], id -> new HashSet<>()).add((Long) link[1]);
+        }
+
+        Instant now = Instant.now();
+        return deletionInfo.stream()
+                .map(row -> TaskChangedEvent.builder()
+                        .type(TaskChangeType.DELETED)
+                        .taskId((Long) row[0])
+                        .authorId((Long) row[1])
+                        .status((TaskStatus) row[2])
+                        .priority((TaskPriority) row[3])
+                        .executorIds(executors.getOrDefault((Long) row[0], Set.of()))
+                        .occurredAt(now)
+                        .build())
+                .toList();
+    }
+}
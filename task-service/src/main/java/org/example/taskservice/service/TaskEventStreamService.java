@@ -0,0 +1,228 @@
+package org.example.taskservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.event.TaskChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис потока событий изменения задач (Server-Sent Events).
+ * У каждого подписчика свой ограниченный буфер: если клиент не успевает читать
+ * и буфер переполняется, подписка закрывается, чтобы медленный клиент не задерживал остальных.
+ */
+@Slf4j
+@Service
+public class TaskEventStreamService {
+
+    private final Executor executor;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Сквозной номер события (id в SSE)
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${task-events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${task-events.timeout:1800000}")
+    private long timeout;
+
+    // Собственный пул для отправки, чтобы не подменять applicationTaskExecutor приложения
+    @Autowired
+    public TaskEventStreamService(@Value("${task-events.send-threads:4}") int sendThreads) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(sendThreads);
+        pool.setMaxPoolSize(sendThreads);
+        pool.setThreadNamePrefix("task-events-");
+        pool.initialize();
+        this.executor = pool;
+    }
+
+    TaskEventStreamService(Executor executor) {
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Метод для подписки на события изменения задач.
+     * Фильтры необязательны, незаданный фильтр не ограничивает события.
+     *
+     * @param authorId - ID автора задачи
+     * @param executorId - ID исполнителя задачи
+     * @param status - статус задачи
+     * @return - поток событий
+     */
+    public SseEmitter subscribe(Long authorId, Long executorId, TaskStatus status) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, authorId, executorId, status, bufferSize);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        log.debug("New task events subscriber: author {}, executor {}, status {}", authorId, executorId, status);
+        return emitter;
+    }
+
+    /**
+     * Метод для рассылки события подписчикам.
+     * Вызывается после фиксации транзакции, чтобы клиенты не получили откатившееся изменение.
+     *
+     * @param event - событие изменения задачи
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Message message = new Message(sequence.incrementAndGet(), event);
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                enqueue(subscriber, message);
+            }
+        }
+    }
+
+    /**
+     * Метод для отправки heartbeat, чтобы прокси не закрывали неактивные соединения.
+     */
+    @Scheduled(fixedDelayString = "${task-events.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // Подписчик с непустым буфером и так получает данные
+            if (subscriber.queue.isEmpty()) {
+                enqueue(subscriber, Message.HEARTBEAT);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (!subscriber.queue.offer(message)) {
+            evict(subscriber, "buffer overflow");
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        // Отправкой для подписчика занимается не более одного потока
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            evict(subscriber, "executor rejected");
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            while ((message = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(message.toSseEvent());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            log.debug("Task events subscriber disconnected: {}", e.getMessage());
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // Событие могло прийти между последним poll и сбросом флага
+        if (!subscriber.queue.isEmpty() && subscribers.contains(subscriber)) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            log.warn("Task events subscriber evicted: {}", reason);
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * Подписчик потока событий с фильтрами и буфером неотправленных сообщений.
+     */
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long authorId;
+        private final Long executorId;
+        private final TaskStatus status;
+        private final Queue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long authorId, Long executorId, TaskStatus status, int bufferSize) {
+            this.emitter = emitter;
+            this.authorId = authorId;
+            this.executorId = executorId;
+            this.status = status;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean matches(TaskChangedEvent event) {
+            return (authorId == null || authorId.equals(event.getAuthorId()))
+                    && (executorId == null || (event.getExecutorIds() != null && event.getExecutorIds().contains(executorId)))
+                    && (status == null || status == event.getStatus());
+        }
+    }
+
+    /**
+     * Сообщение в буфере подписчика. Одно сообщение разделяется между подписчиками,
+     * а SseEventBuilder изменяемый, поэтому он создается при отправке.
+     */
+    private record Message(long id, TaskChangedEvent event) {
+
+        static final Message HEARTBEAT = new Message(0, null);
+
+        SseEmitter.SseEventBuilder toSseEvent() {
+            if (event == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name(event.getType().name())
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+    }
+}
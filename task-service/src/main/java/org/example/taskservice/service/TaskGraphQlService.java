@@ -0,0 +1,220 @@
+package org.example.taskservice.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.taskservice.entity.Task;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.exeception.InvalidTaskDataException;
+import org.example.taskservice.graphql.CommentNode;
+import org.example.taskservice.graphql.TaskNode;
+import org.example.taskservice.graphql.TaskNodePage;
+import org.example.taskservice.graphql.UserNode;
+import org.example.taskservice.repository.CommentRepository;
+import org.example.taskservice.repository.TaskRepository;
+import org.example.taskservice.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Сервис выборок для GraphQL API.
+ * Из таблицы task читаются только запрошенные колонки, а связанные данные
+ * (авторы, исполнители, комментарии) загружаются одним IN-запросом на страницу задач.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TaskGraphQlService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Поле GraphQL -> заполнение TaskNode; имя поля совпадает с атрибутом Task
+    private static final Map<String, BiConsumer<TaskNode, Object>> COLUMNS = Map.of(
+            "name", (node, value) -> node.setName((String) value),
+            "description", (node, value) -> node.setDescription((String) value),
+            "status", (node, value) -> node.setStatus((TaskStatus) value),
+            "priority", (node, value) -> node.setPriority((TaskPriority) value),
+            "completedAt", (node, value) -> node.setCompletedAt((Instant) value),
+            "createdAt", (node, value) -> node.setCreatedAt((Instant) value),
+            "updatedAt", (node, value) -> node.setUpdatedAt((Instant) value)
+    );
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    public TaskGraphQlService(TaskRepository taskRepository,
+                              CommentRepository commentRepository,
+                              UserRepository userRepository,
+                              EntityManager entityManager) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Метод для получения страницы задач с выбранными полями.
+     *
+     * @param authorId - ID автора (опционально)
+     * @param executorId - ID исполнителя (опционально)
+     * @param status - статус задачи (опционально)
+     * @param priority - приоритет задачи (опционально)
+     * @param page - номер страницы
+     * @param size - размер страницы (не больше 1000)
+     * @param sort - сортировка "поле[,asc|desc]"
+     * @param fields - запрошенные поля задачи
+     * @param withTotal - считать ли общее количество
+     * @return - страница задач
+     */
+    public TaskNodePage findTasks(Long authorId, Long executorId, TaskStatus status, TaskPriority priority,
+                                  int page, int size, String sort, Set<String> fields, boolean withTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidTaskDataException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Specification<Task> specification = Specification.where(null);
+        if (authorId != null) {
+            specification = specification.and(TaskSpecification.hasAuthorId(authorId));
+        }
+        if (executorId != null) {
+            specification = specification.and(TaskSpecification.hasExecutorId(executorId));
+        }
+        if (status != null) {
+            specification = specification.and(TaskSpecification.hasStatus(status));
+        }
+        if (priority != null) {
+            specification = specification.and(TaskSpecification.hasPriority(priority));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, TaskSort.parse(sort));
+        List<TaskNode> content = select(specification, fields, pageable);
+        Long total = withTotal ? taskRepository.count(specification) : null;
+        return new TaskNodePage(content, total, page, size);
+    }
+
+    /**
+     * Метод для получения задачи с выбранными полями.
+     *
+     * @param taskId - идентификатор задачи
+     * @param fields - запрошенные поля задачи
+     * @return - задача или null, если ее нет
+     */
+    public TaskNode findTask(Long taskId, Set<String> fields) {
+        Specification<Task> specification = (root, query, cb) -> cb.equal(root.get("id"), taskId);
+        List<TaskNode> tasks = select(specification, fields, PageRequest.of(0, 1));
+        return tasks.isEmpty() ? null : tasks.get(0);
+    }
+
+    private List<TaskNode> select(Specification<Task> specification, Set<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias("id"));
+        for (String field : fields) {
+            if (COLUMNS.containsKey(field)) {
+                selections.add(root.get(field).alias(field));
+            }
+        }
+        // Внешний ключ автора читается из task без соединения с users
+        if (fields.contains("author")) {
+            selections.add(root.get("author").get("id").alias("authorId"));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList()
+                .stream()
+                .map(this::toTaskNode)
+                .toList();
+    }
+
+    /**
+     * Метод для получения имен пользователей пачкой.
+     *
+     * @param ids - идентификаторы пользователей
+     * @return - пользователи по идентификатору
+     */
+    public Map<Long, UserNode> findUsers(Collection<Long> ids) {
+        Map<Long, UserNode> users = new HashMap<>();
+        for (Object[] row : userRepository.findNamesByIds(ids)) {
+            users.put((Long) row[0], new UserNode((Long) row[0], (String) row[1]));
+        }
+        return users;
+    }
+
+    /**
+     * Метод для получения исполнителей пачки задач.
+     *
+     * @param taskIds - идентификаторы задач
+     * @return - исполнители по идентификатору задачи
+     */
+    public Map<Long, List<UserNode>> findExecutors(Collection<Long> taskIds) {
+        Map<Long, List<UserNode>> executors = new HashMap<>();
+        for (Object[] row : taskRepository.findExecutorsByTaskIds(taskIds)) {
+            executors.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new UserNode((Long) row[1], (String) row[2]));
+        }
+        return executors;
+    }
+
+    /**
+     * Метод для получения комментариев пачки задач.
+     *
+     * @param taskIds - идентификаторы задач
+     * @return - комментарии по идентификатору задачи
+     */
+    public Map<Long, List<CommentNode>> findComments(Collection<Long> taskIds) {
+        Map<Long, List<CommentNode>> comments = new HashMap<>();
+        for (Object[] row : commentRepository.findByTaskIds(taskIds)) {
+            comments.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new CommentNode((Long) row[1], (String) row[2], (Long) row[3]));
+        }
+        return comments;
+    }
+
+    private TaskNode toTaskNode(Tuple tuple) {
+        TaskNode node = new TaskNode();
+        for (TupleElement<?> element : tuple.getElements()) {
+            String alias = element.getAlias();
+            Object value = tuple.get(element);
+            if ("id".equals(alias)) {
+                node.setId((Long) value);
+            } else if ("authorId".equals(alias)) {
+                node.setAuthorId((Long) value);
+            } else {
+                COLUMNS.get(alias).accept(node, value);
+            }
+        }
+        return node;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.taskservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.dto.TaskChangeDto;
+import org.example.taskservice.entity.TaskChange;
+import org.example.taskservice.event.TaskChangedEvent;
+import org.example.taskservice.outbox.ChangeSink;
+import org.example.taskservice.repository.TaskChangeRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Сервис outbox изменений задач.
+ * Записывает изменения в таблицу task_change в транзакции изменения задачи,
+ * публикует их пачками в ChangeSink и отдает ленту изменений клиентам.
+ * Номер в ленте выдает ретранслятор, который видит только зафиксированные изменения,
+ * поэтому лента упорядочена по фиксации, а не по вставке.
+ */
+@Slf4j
+@Service
+public class TaskOutboxService {
+
+    private static final int MAX_CHANGES_LIMIT = 1000;
+
+    private final TaskChangeRepository taskChangeRepository;
+    private final ChangeSink changeSink;
+    private final MapperService mapperService;
+    private final ObjectMapper objectMapper;
+
+    public TaskOutboxService(TaskChangeRepository taskChangeRepository,
+                             ChangeSink changeSink,
+                             MapperService mapperService,
+                             ObjectMapper objectMapper) {
+        this.taskChangeRepository = taskChangeRepository;
+        this.changeSink = changeSink;
+        this.mapperService = mapperService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Метод для записи изменения в outbox.
+     * Слушатель синхронный и выполняется в транзакции TaskService:
+     * если изменение задачи откатится, запись outbox откатится вместе с ним.
+     *
+     * @param event - событие изменения задачи
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) throws JsonProcessingException {
+        TaskChange change = TaskChange.builder()
+                .type(event.getType())
+                .taskId(event.getTaskId())
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(event.getOccurredAt())
+                .published(false)
+                .build();
+        taskChangeRepository.save(change);
+    }
+
+    /**
+     * Метод для публикации пачки неопубликованных изменений.
+     * Изменения получают номера ленты, следующие за последним выданным. Номера уникальны:
+     * реплика, выдавшая тот же номер параллельно, ждет фиксации первой и откатывается,
+     * поэтому номер N никогда не фиксируется раньше номера N - 1.
+     * Номера записываются до отправки, чтобы откатившаяся реплика не отправляла пачку.
+     * При ошибке получателя транзакция откатывается и пачка будет отправлена повторно.
+     *
+     * @param batchSize - размер пачки
+     * @return - количество опубликованных изменений
+     */
+    @Transactional
+    public int relayBatch(int batchSize) throws Exception {
+        List<TaskChange> batch = taskChangeRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Long maxFeedSeq = taskChangeRepository.findMaxFeedSeq();
+        long feedSeq = maxFeedSeq != null ? maxFeedSeq : 0;
+        for (TaskChange change : batch) {
+            change.setFeedSeq(++feedSeq);
+            change.setPublished(true);
+        }
+        taskChangeRepository.flush();
+
+        changeSink.publish(batch.stream().map(mapperService::convertToTaskChangeDto).toList());
+
+        log.debug("Relayed {} task changes up to feed seq {}", batch.size(), feedSeq);
+        return batch.size();
+    }
+
+    /**
+     * Метод для удаления опубликованных изменений старше указанного времени.
+     *
+     * @param before - граница хранения
+     * @return - количество удаленных изменений
+     */
+    @Transactional
+    public int purgePublished(Instant before) {
+        return taskChangeRepository.deletePublishedBefore(before);
+    }
+
+    /**
+     * Метод для получения ленты изменений после указанного номера.
+     * В ленте только изменения, которым ретранслятор уже выдал номер: номера выдаются подряд
+     * после фиксации, поэтому изменение не может появиться позади курсора клиента.
+     *
+     * @param since - номер последнего полученного изменения
+     * @param limit - максимальное количество изменений
+     * @return - изменения в порядке номеров ленты
+     */
+    @Transactional(readOnly = true)
+    public List<TaskChangeDto> getChanges(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES_LIMIT));
+        return taskChangeRepository.findByFeedSeqGreaterThanOrderByFeedSeqAsc(since, PageRequest.of(0, pageSize)).stream()
+                .map(mapperService::convertToTaskChangeDto)
+                .toList();
+    }
+}
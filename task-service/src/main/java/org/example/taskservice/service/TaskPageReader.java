@@ -0,0 +1,99 @@
+package org.example.taskservice.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.taskservice.dto.TaskRowPageDto;
+import org.example.taskservice.entity.Task;
+import org.example.taskservice.entity.User;
+import org.example.taskservice.repository.CommentRepository;
+import org.example.taskservice.repository.TaskRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Чтение страницы задач строками проекции, без загрузки сущностей и построения DTO.
+ * Задачи страницы читаются одним запросом, исполнители и комментарии - одним IN-запросом каждые.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TaskPageReader {
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final EntityManager entityManager;
+
+    public TaskPageReader(TaskRepository taskRepository,
+                          CommentRepository commentRepository,
+                          EntityManager entityManager) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Метод для чтения страницы задач.
+     *
+     * @param specification - фильтры
+     * @param pageable - страница и сортировка
+     * @return - страница задач для потоковой сериализации
+     */
+    public TaskRowPageDto readPage(Specification<Task> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Task> root = query.from(Task.class);
+        Join<Task, User> author = root.join("author");
+
+        // Порядок колонок описан в TaskRowPageDto
+        query.multiselect(root.get("id"), root.get("name"), root.get("description"),
+                root.get("status"), root.get("priority"), author.get("id"), author.get("name"),
+                root.get("completedAt"), root.get("createdAt"), root.get("updatedAt"));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Object[]> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // Запрос количества пропускается, если его можно вычислить по неполной странице
+        Page<Object[]> page = PageableExecutionUtils.getPage(rows, pageable, () -> taskRepository.count(specification));
+
+        if (rows.isEmpty()) {
+            return new TaskRowPageDto(rows, Map.of(), Map.of(),
+                    pageable.getPageNumber(), pageable.getPageSize(), page.getTotalElements());
+        }
+
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+        return new TaskRowPageDto(rows,
+                groupByTask(taskRepository.findExecutorsByTaskIds(ids)),
+                groupByTask(commentRepository.findRowsByTaskIds(ids)),
+                pageable.getPageNumber(), pageable.getPageSize(), page.getTotalElements());
+    }
+
+    // Первая колонка строки - ID задачи
+    private Map<Long, List<Object[]>> groupByTask(List<Object[]> rows) {
+        Map<Long, List<Object[]>> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+        return result;
+    }
+}
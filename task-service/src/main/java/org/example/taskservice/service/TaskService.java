@@ -4,15 +4,27 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.example.taskservice.dto.CommentRequestDto;
 import org.example.taskservice.dto.CommentResponseDto;
+import org.example.taskservice.dto.PageDto;
+import org.example.taskservice.dto.PageView;
+import org.example.taskservice.dto.TaskDeletionResultDto;
 import org.example.taskservice.dto.TaskRequestDto;
 import org.example.taskservice.dto.TaskResponseDto;
 import org.example.taskservice.entity.*;
+import org.example.taskservice.event.TaskChangeType;
+import org.example.taskservice.event.TaskChangedEvent;
 import org.example.taskservice.exeception.AccessDeniedException;
+import org.example.taskservice.exeception.InvalidTaskDataException;
 import org.example.taskservice.exeception.TaskNotFoundException;
 import org.example.taskservice.exeception.UserNotFoundException;
 import org.example.taskservice.repository.CommentRepository;
 import org.example.taskservice.repository.TaskRepository;
 import org.example.taskservice.repository.UserRepository;
+import org.example.taskservice.sharding.ShardKey;
+import org.example.taskservice.sharding.ShardRoute;
+import org.example.taskservice.sharding.ShardRouter;
+import org.example.taskservice.sharding.TaskRowMerger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -21,7 +33,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 
 @Service
 @Slf4j
@@ -32,16 +49,38 @@ public class TaskService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final MapperService mapperService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskArchiveService taskArchiveService;
+    private final TaskDeletionService taskDeletionService;
+    private final TaskPageReader taskPageReader;
+    private final ShardRouter shardRouter;
+    private final TaskRowMerger taskRowMerger;
+
+    // Размер пачки при удалении по фильтру: каждая пачка удаляется в отдельной короткой транзакции
+    @Value("${task-deletion.chunk-size:500}")
+    private int deletionChunkSize;
 
     public TaskService(TaskRepository taskRepository,
                        CommentRepository commentRepository,
                        UserRepository userRepository,
-                       UserService userService, MapperService mapperService) {
+                       UserService userService, MapperService mapperService,
+                       ApplicationEventPublisher eventPublisher,
+                       TaskArchiveService taskArchiveService,
+                       TaskDeletionService taskDeletionService,
+                       TaskPageReader taskPageReader,
+                       ShardRouter shardRouter,
+                       TaskRowMerger taskRowMerger) {
         this.taskRepository = taskRepository;
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.userService = userService;
         this.mapperService = mapperService;
+        this.eventPublisher = eventPublisher;
+        this.taskArchiveService = taskArchiveService;
+        this.taskDeletionService = taskDeletionService;
+        this.taskPageReader = taskPageReader;
+        this.shardRouter = shardRouter;
+        this.taskRowMerger = taskRowMerger;
     }
 
     /**
@@ -51,6 +90,8 @@ public class TaskService {
      * @param request - запрос
      * @throws IOException - исключение ввода-вывода
      */
+    @ShardRoute(key = ShardKey.CURRENT_USER)
+    @Transactional
     public Long createTask(TaskRequestDto taskRequestDto, HttpServletRequest request) throws IOException {
 
         // Получаем данные пользователя из токена
@@ -73,12 +114,16 @@ public class TaskService {
         task = mapperService.mapToTask(taskRequestDto, task);
 
         task.setAuthor(user);  // Автор задачи
+        updateCompletion(task);
+        touch(task);
 
         // Логирование информации о задаче
         log.info("Created task: {}, with author: {}", task.getName(), user.getEmail());
 
         // Сохраняем задачу в базе данных
-        return taskRepository.save(task).getId();
+        Task saved = taskRepository.save(task);
+        publish(TaskChangeType.CREATED, saved);
+        return saved.getId();
     }
 
     /**
@@ -88,15 +133,21 @@ public class TaskService {
      * @param taskRequestDto - новые данные задачи
      * @return - идентификатор обновленной задачи
      */
+    @ShardRoute(key = ShardKey.TASK_ID)
+    @Transactional
     public Long updateTask(Long taskId, TaskRequestDto taskRequestDto) {
         // Поиск задачи по идентификатору
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
-        log.info("Found task: {}", task.getName());
+        log.debug("Found task: {}", task.getName());
         // Обновление задачи
         task = mapperService.mapToTask(taskRequestDto, task);
+        updateCompletion(task);
+        touch(task);
         // Сохранение обновленной задачи
-        return taskRepository.save(task).getId();
+        Task saved = taskRepository.save(task);
+        publish(TaskChangeType.UPDATED, saved);
+        return saved.getId();
     }
 
     /**
@@ -106,6 +157,8 @@ public class TaskService {
      * @param status - новый статус
      * @return - идентификатор обновленной задачи
      */
+    @ShardRoute(key = ShardKey.TASK_ID)
+    @Transactional
     public Long updateTaskStatus(Long taskId, TaskStatus status, HttpServletRequest request) throws IOException {
         // Поиск задачи по идентификатору
         Task task = taskRepository.findById(taskId)
@@ -115,9 +168,13 @@ public class TaskService {
 
         // Обновление статуса задачи
         task.setStatus(status);
-        log.info("Updated task status: {}", task);
+        updateCompletion(task);
+        touch(task);
+        log.debug("Updated status of task {}: {}", task.getId(), status);
         // Сохранение обновленной задачи
-        return taskRepository.save(task).getId();
+        Task saved = taskRepository.save(task);
+        publish(TaskChangeType.STATUS_CHANGED, saved);
+        return saved.getId();
     }
 
     /**
@@ -127,15 +184,20 @@ public class TaskService {
      * @param priority - новый приоритет
      * @return - идентификатор обновленной задачи
      */
+    @ShardRoute(key = ShardKey.TASK_ID)
+    @Transactional
     public Long updateTaskPriority(Long taskId, TaskPriority priority) {
         // Поиск задачи по идентификатору
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
         // Обновление приоритета задачи
         task.setPriority(priority);
-        log.info("Updated task priority: {}", task);
+        touch(task);
+        log.debug("Updated priority of task {}: {}", task.getId(), priority);
         // Сохранение обновленной задачи
-        return taskRepository.save(task).getId();
+        Task saved = taskRepository.save(task);
+        publish(TaskChangeType.PRIORITY_CHANGED, saved);
+        return saved.getId();
     }
 
 
@@ -147,6 +209,8 @@ public class TaskService {
      * @param request - токен пользователя
      * @return - идентификатор обновленной задачи
      */
+    @ShardRoute(key = ShardKey.TASK_ID)
+    @Transactional
     public Long updateTaskExecutor(Long taskId, Long userId, HttpServletRequest request) {
 
         // Поиск задачи по идентификатору
@@ -160,20 +224,130 @@ public class TaskService {
         Set<User> executors = task.getExecutors();
         executors.add(user);
         task.setExecutors(executors);
+        touch(task);
 
         // Сохранение обновленной задачи
-        return taskRepository.save(task).getId();
+        Task saved = taskRepository.save(task);
+        publish(TaskChangeType.EXECUTOR_ASSIGNED, saved);
+        return saved.getId();
     }
 
 
     /**
-     * Метод для удаления задачи
+     * Метод для удаления задачи вместе с комментариями и связями с исполнителями
      *
      * @param taskId - идентификатор задачи
+     * @return - количество удаленных строк
      */
-    @Transactional
-    public void deleteTask(Long taskId) {
-        taskRepository.deleteById(taskId);
+    @ShardRoute(key = ShardKey.TASK_ID)
+    public TaskDeletionResultDto deleteTask(Long taskId) {
+        TaskDeletionResultDto result = taskDeletionService.deleteTasks(List.of(taskId));
+        // Задача, не найденная среди рабочих, может быть в архиве (как и при чтении)
+        if (result.getTasks() == 0) {
+            result = taskDeletionService.deleteArchivedTasks(List.of(taskId));
+        }
+        if (result.getTasks() == 0) {
+            throw new TaskNotFoundException("Task not found");
+        }
+        return result;
+    }
+
+    /**
+     * Метод для удаления задач по фильтру, включая архивные.
+     * Задачи удаляются пачками, каждая в своей транзакции, чтобы не держать долгие блокировки.
+     *
+     * @param authorId - идентификатор автора
+     * @param executorId - идентификатор исполнителя
+     * @param status - статус задачи
+     * @param priority - приоритет задачи
+     * @return - количество удаленных строк
+     */
+    public TaskDeletionResultDto deleteTasksByFilter(
+            Long authorId,
+            Long executorId,
+            TaskStatus status,
+            TaskPriority priority) {
+
+        // Удаление без фильтров удалило бы все задачи
+        if (authorId == null && executorId == null && status == null && priority == null) {
+            throw new InvalidTaskDataException("At least one filter is required for bulk deletion");
+        }
+
+        Specification<Task> specification = buildSpecification(authorId, executorId, status, priority);
+        Specification<ArchivedTask> archivedSpecification = buildSpecification(authorId, executorId, status, priority);
+        TaskDeletionResultDto total = new TaskDeletionResultDto();
+
+        // При шардировании задачи по фильтру могут быть на любом шарде, удаление идет по очереди
+        shardRouter.forEachShard(shard -> {
+            deleteInChunks(afterId -> taskDeletionService.findTaskIds(specification, afterId, deletionChunkSize),
+                    taskDeletionService::deleteTasks, total);
+            deleteInChunks(afterId -> taskDeletionService.findArchivedTaskIds(archivedSpecification, afterId, deletionChunkSize),
+                    taskDeletionService::deleteArchivedTasks, total);
+        });
+
+        log.info("Bulk deleted {} tasks, {} comments, {} executor links",
+                total.getTasks(), total.getComments(), total.getExecutorLinks());
+        return total;
+    }
+
+    /**
+     * Метод для удаления задач пачками по возрастанию идентификатора.
+     *
+     * @param findIds - выбор пачки идентификаторов после указанного
+     * @param delete - удаление пачки
+     * @param total - суммарный результат удаления
+     */
+    private void deleteInChunks(LongFunction<List<Long>> findIds,
+                                Function<List<Long>, TaskDeletionResultDto> delete,
+                                TaskDeletionResultDto total) {
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = findIds.apply(afterId);
+            if (!ids.isEmpty()) {
+                total.add(delete.apply(ids));
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == deletionChunkSize);
+    }
+
+    /**
+     * Метод для отметки времени завершения задачи.
+     * Время ставится при переходе в DONE и сбрасывается, если задачу вернули в работу.
+     *
+     * @param task - задача
+     */
+    private void updateCompletion(Task task) {
+        if (task.getStatus() != TaskStatus.DONE) {
+            task.setCompletedAt(null);
+        } else if (task.getCompletedAt() == null) {
+            task.setCompletedAt(Instant.now());
+        }
+    }
+
+    /**
+     * Метод для обновления времени изменения задачи (и времени создания для новой задачи).
+     *
+     * @param task - задача
+     */
+    private void touch(Task task) {
+        // Точность до микросекунд, как в PostgreSQL, чтобы курсор синхронизации совпадал с сохраненным значением
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (task.getCreatedAt() == null) {
+            task.setCreatedAt(now);
+        }
+        task.setUpdatedAt(now);
+    }
+
+    /**
+     * Метод для публикации события изменения задачи.
+     * Запись outbox сохраняется в текущей транзакции, подписчики SSE получают событие после ее фиксации.
+     *
+     * @param type - тип изменения
+     * @param task - задача
+     */
+    private void publish(TaskChangeType type, Task task) {
+        eventPublisher.publishEvent(TaskChangedEvent.of(type, task));
     }
 
     private User verificationOfAuthorship(Task task, HttpServletRequest request) throws IOException {
@@ -205,6 +379,8 @@ public class TaskService {
      * @param request - токен пользователя
      * @throws IOException - исключение
      */
+    @ShardRoute(key = ShardKey.TASK_ID)
+    @Transactional
     public void addComment(
             Long taskId,
             CommentRequestDto commentRequestDto,
@@ -222,8 +398,10 @@ public class TaskService {
         newComment.setTask(task); // Привязка комментария к задаче
         newComment.setAuthor(finalExecutor); // Привязка комментария к автору задачи
 
-        // Сохранение комментария
+        // Сохранение комментария, время изменения задачи обновится при фиксации транзакции
         commentRepository.save(newComment);
+        touch(task);
+        publish(TaskChangeType.COMMENT_ADDED, task);
     }
 
 
@@ -235,27 +413,30 @@ public class TaskService {
      * @param size размер страницы (для пагинации)
      * @param status статус задачи для фильтрации (опционально)
      * @param priority приоритет задачи для фильтрации (опционально)
+     * @param sort сортировка "поле[,asc|desc]" (опционально, по умолчанию id)
+     * @param includeArchived добавить архивные задачи после рабочих
      * @return задачи автора в виде страницы
      */
-    public Page<TaskResponseDto> getTasksByAuthor(
+    @ShardRoute(key = ShardKey.AUTHOR_ID)
+    @Transactional(readOnly = true)
+    public PageView getTasksByAuthor(
             Long authorId,
             int page,
             int size,
             TaskStatus status,
-            TaskPriority priority) {
+            TaskPriority priority,
+            String sort,
+            boolean includeArchived) {
 
-        log.info("Fetching tasks for author {} ", authorId);
+        log.debug("Fetching tasks for author {} ", authorId);
 
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, TaskSort.parse(sort));
 
         // Если фильтры не переданы, возвращаем все задачи автора
         Specification<Task> specification = buildSpecification(authorId, null, status, priority);
 
-        // Поиск задач
-        Page<Task> tasks = taskRepository.findAll(specification, pageable);
-
-        // Конвертируем задачи в DTO перед возвратом
-        return tasks.map(mapperService::convertToTaskResponseDto);
+        // Поиск задач (с архивом - через сущности и DTO)
+        return findPage(specification, authorId, null, status, priority, pageable, includeArchived);
     }
 
 
@@ -265,16 +446,17 @@ public class TaskService {
      * @param taskId - идентификатор задачи
      * @return - задачу по идентификатору
      */
+    @ShardRoute(key = ShardKey.TASK_ID)
+    @Transactional(readOnly = true)
     public TaskResponseDto getTaskById(Long taskId) {
 
-        log.info("Fetching task with ID: {}", taskId);
+        log.debug("Fetching task with ID: {}", taskId);
 
-        // Поиск задачи по идентификатору
-        Task task = taskRepository.findById(taskId)
+        // Поиск задачи по идентификатору, затем в архиве
+        return taskRepository.findById(taskId)
+                .map(mapperService::convertToTaskResponseDto)
+                .or(() -> taskArchiveService.findArchivedTask(taskId))
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
-
-        // Конвертируем задачи в DTO перед возвратом
-        return mapperService.convertToTaskResponseDto(task);
     }
 
 
@@ -285,26 +467,28 @@ public class TaskService {
      * @param priority - приоритет задачи
      * @param page - номер страницы
      * @param size - размер страницы
+     * @param sort - сортировка "поле[,asc|desc]" (по умолчанию id)
+     * @param includeArchived - добавить архивные задачи после рабочих
      * @return - все задачи с фильтрацией и пагинацией
      */
-    public Page<TaskResponseDto> getAllTasks(
+    @Transactional(readOnly = true)
+    public PageView getAllTasks(
             TaskStatus status,
             TaskPriority priority,
             int page,
-            int size) {
+            int size,
+            String sort,
+            boolean includeArchived) {
 
-        log.info("Fetching all tasks");
+        log.debug("Fetching all tasks");
 
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, TaskSort.parse(sort));
 
         //Добавляем фильтры
         Specification<Task> specification = buildSpecification(null, null, status, priority);
 
         //Получаем все задачи
-        Page<Task> tasks = taskRepository.findAll(specification, pageable);
-
-        // Добавляем фильтры и конвертируем задачи в DTO перед возвратом
-        return tasks.map(mapperService::convertToTaskResponseDto);
+        return findPage(specification, null, null, status, priority, pageable, includeArchived);
 
     }
 
@@ -315,12 +499,12 @@ public class TaskService {
      * @param priority - приоритет
      * @return - задачи с фильтром
      */
-    private Specification<Task> buildSpecification(
+    private <T> Specification<T> buildSpecification(
             Long authorId,
             Long executorId,
             TaskStatus status,
             TaskPriority priority) {
-        Specification<Task> specification = Specification.where(null);
+        Specification<T> specification = Specification.where(null);
 
         if (authorId != null) {
             specification = specification.and(TaskSpecification.hasAuthorId(authorId));
@@ -338,6 +522,57 @@ public class TaskService {
         return specification;
     }
 
+    /**
+     * Метод для получения страницы задач.
+     * Рабочие задачи читаются строками проекции и пишутся в JSON без промежуточных DTO;
+     * при добавлении архива страница собирается из DTO с теми же фильтрами для архивных задач
+     *
+     * @param specification - фильтры рабочих задач
+     * @param pageable - запрошенная страница
+     * @param includeArchived - добавлять ли архивные задачи
+     * @return - страница задач
+     */
+    private PageView findPage(
+            Specification<Task> specification,
+            Long authorId,
+            Long executorId,
+            TaskStatus status,
+            TaskPriority priority,
+            Pageable pageable,
+            boolean includeArchived) {
+        if (shardRouter.isEnabled() && !shardRouter.isRouted()) {
+            return findShardedPage(specification, pageable, includeArchived);
+        }
+        if (!includeArchived) {
+            return taskPageReader.readPage(specification, pageable);
+        }
+        Page<Task> tasks = taskRepository.findAll(specification, pageable);
+        return PageDto.of(taskArchiveService.appendArchived(tasks.map(mapperService::convertToTaskResponseDto),
+                this.<ArchivedTask>buildSpecification(authorId, executorId, status, priority), pageable));
+    }
+
+
+    /**
+     * Метод для получения страницы задач со всех шардов.
+     * Каждый шард параллельно отдает первые (page + 1) * size задач, страница собирается их слиянием,
+     * поэтому глубокие страницы обходятся дороже, чем без шардирования
+     *
+     * @param specification - фильтры рабочих задач
+     * @param pageable - запрошенная страница
+     * @param includeArchived - добавлять ли архивные задачи
+     * @return - страница задач
+     */
+    private PageView findShardedPage(
+            Specification<Task> specification,
+            Pageable pageable,
+            boolean includeArchived) {
+        if (includeArchived) {
+            shardRouter.requireSingleShard("includeArchived across authors");
+        }
+        Pageable head = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort());
+        return taskRowMerger.merge(shardRouter.scatter(shard -> taskPageReader.readPage(specification, head)),
+                pageable.getSort(), pageable.getPageNumber(), pageable.getPageSize());
+    }
 
     /**
      * Метод для получения задачи по идентификатору исполнителя
@@ -347,27 +582,29 @@ public class TaskService {
      * @param size - размер страницы
      * @param status - статус задачи
      * @param priority - приоритет задачи
+     * @param sort - сортировка "поле[,asc|desc]" (по умолчанию id)
+     * @param includeArchived - добавить архивные задачи после рабочих
      * @return - задачи по идентификатору исполнителя
      */
-    public Page<TaskResponseDto> getTasksByExecutorId(
+    @Transactional(readOnly = true)
+    public PageView getTasksByExecutorId(
             Long userId,
             int page,
             int size,
             TaskStatus status,
-            TaskPriority priority) {
+            TaskPriority priority,
+            String sort,
+            boolean includeArchived) {
 
-        log.info("Fetching tasks for executor {}", userId);
+        log.debug("Fetching tasks for executor {}", userId);
 
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, TaskSort.parse(sort));
 
         // Добавляем фильтры
         Specification<Task> specification = buildSpecification(null, userId, status, priority);
 
         // Поиск задач
-        Page<Task> tasks = taskRepository.findAll(specification, pageable);
-
-        // Добавляем фильтры и конвертируем задачи в DTO перед возвратом
-        return tasks.map(mapperService::convertToTaskResponseDto);
+        return findPage(specification, null, userId, status, priority, pageable, includeArchived);
     }
 
 
@@ -377,13 +614,15 @@ public class TaskService {
      * @param taskId - идентификатор задачи
      * @return - список комментариев
      */
-    public Page<CommentResponseDto> getCommentsByTaskId(Long taskId, int page, int size) {
+    @ShardRoute(key = ShardKey.TASK_ID)
+    @Transactional(readOnly = true)
+    public PageDto<CommentResponseDto> getCommentsByTaskId(Long taskId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
 
         Specification<Comment> specification = CommentSpecification.hasTaskId(taskId);
 
         Page<Comment> comments = commentRepository.findAll(specification, pageable);
 
-        return comments.map(mapperService::convertToCommentResponseDto);
+        return PageDto.of(comments.map(mapperService::convertToCommentResponseDto));
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package org.example.taskservice.service;
+
+import org.example.taskservice.exeception.InvalidTaskDataException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сортировка списков задач.
+ * Разрешены только поля, для которых есть составной индекс с id в конце (без фильтра, с фильтром по автору
+ * или статусу), поэтому база отдает страницу чтением индекса без отдельной сортировки.
+ * Приоритет и статус сортируются по порядковым номерам (priority_rank, status_rank), а не по имени.
+ */
+public class TaskSort {
+
+    // Параметр запроса -> атрибут сущности (общий для Task и ArchivedTask)
+    private static final Map<String, String> FIELDS = Map.of(
+            "priority", "priorityRank",
+            "status", "statusRank",
+            "id", "id",
+            "updatedAt", "updatedAt",
+            "name", "name"
+    );
+
+    private static final Sort DEFAULT = Sort.by(Sort.Direction.ASC, "id");
+
+    /**
+     * Метод для разбора параметра сортировки вида "поле" или "поле,asc|desc".
+     * Последним ключом всегда идет id в том же направлении: порядок страниц стабилен,
+     * а индекс (поле, id) читается целиком в одну сторону.
+     *
+     * @param sort - параметр сортировки (может быть пустым)
+     * @return - сортировка
+     */
+    public static Sort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT;
+        }
+
+        String[] parts = sort.split(",");
+        String property = FIELDS.get(parts[0].trim());
+        if (property == null || parts.length > 2) {
+            throw new InvalidTaskDataException("Unsupported sort: " + sort + ", allowed fields: " + FIELDS.keySet());
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim().toUpperCase(Locale.ROOT))
+                    .orElseThrow(() -> new InvalidTaskDataException("Unsupported sort direction: " + parts[1]));
+        }
+
+        if ("id".equals(property)) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, property, "id");
+    }
+}
@@ -1,10 +1,13 @@
 package org.example.taskservice.service;
 
-import org.example.taskservice.entity.Task;
 import org.example.taskservice.entity.TaskPriority;
 import org.example.taskservice.entity.TaskStatus;
 import org.springframework.data.jpa.domain.Specification;
 
+/**
+ * Фильтры задач. Общие для рабочих (Task) и архивных (ArchivedTask) задач,
+ * так как у них совпадают имена атрибутов.
+ */
 public class TaskSpecification {
 
     /**
@@ -13,7 +16,7 @@ public class TaskSpecification {
      * @param authorId - идентификатор автора
      * @return - спецификация
      */
-    public static Specification<Task> hasAuthorId(Long authorId) {
+    public static <T> Specification<T> hasAuthorId(Long authorId) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("author").get("id"), authorId);
     }
@@ -24,7 +27,7 @@ public class TaskSpecification {
      * @param status - статус
      * @return - спецификация
      */
-    public static Specification<Task> hasStatus(TaskStatus status) {
+    public static <T> Specification<T> hasStatus(TaskStatus status) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("status"), status);
     }
@@ -35,7 +38,7 @@ public class TaskSpecification {
      * @param priority - приоритет
      * @return - спецификация
      */
-    public static Specification<Task> hasPriority(TaskPriority priority) {
+    public static <T> Specification<T> hasPriority(TaskPriority priority) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("priority"), priority);
     }
@@ -46,7 +49,7 @@ public class TaskSpecification {
      * @param executorId - идентификатор исполнителя
      * @return - спецификация
      */
-    public static Specification<Task> hasExecutorId(Long executorId) {
+    public static <T> Specification<T> hasExecutorId(Long executorId) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("executors").get("id"), executorId);
     }
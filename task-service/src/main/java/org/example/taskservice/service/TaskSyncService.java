@@ -0,0 +1,145 @@
+package org.example.taskservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.dto.TaskResponseDto;
+import org.example.taskservice.dto.TaskSyncDto;
+import org.example.taskservice.entity.Task;
+import org.example.taskservice.entity.TaskTombstone;
+import org.example.taskservice.event.TaskChangedEvent;
+import org.example.taskservice.repository.TaskRepository;
+import org.example.taskservice.repository.TaskTombstoneRepository;
+import org.example.taskservice.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис инкрементальной синхронизации задач для клиентов.
+ * Клиент хранит курсор (updatedSince, afterId) и получает только задачи, измененные после него,
+ * и идентификаторы удаленных задач.
+ */
+@Slf4j
+@Service
+public class TaskSyncService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final MapperService mapperService;
+    private final ShardRouter shardRouter;
+
+    // Запас на транзакции, которые получили время изменения раньше, но зафиксировались позже запроса
+    @Value("${task-sync.commit-lag:PT5S}")
+    private Duration commitLag;
+
+    @Value("${task-sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    public TaskSyncService(TaskRepository taskRepository,
+                           TaskTombstoneRepository taskTombstoneRepository,
+                           MapperService mapperService,
+                           ShardRouter shardRouter) {
+        this.taskRepository = taskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.mapperService = mapperService;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Метод для записи отметки об удалении задачи в транзакции удаления.
+     *
+     * @param event - событие изменения задачи
+     */
+    @EventListener(condition = "#event.type == T(org.example.taskservice.event.TaskChangeType).DELETED")
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskDeleted(TaskChangedEvent event) {
+        taskTombstoneRepository.save(TaskTombstone.builder()
+                .taskId(event.getTaskId())
+                .deletedAt(event.getOccurredAt().truncatedTo(ChronoUnit.MICROS))
+                .build());
+    }
+
+    /**
+     * Метод для получения изменений задач после курсора.
+     *
+     * @param updatedSince - время из курсора
+     * @param afterId - идентификатор задачи из курсора
+     * @param limit - максимальное количество задач
+     * @return - измененные задачи, удаленные задачи и следующий курсор
+     */
+    @Transactional(readOnly = true)
+    public TaskSyncDto getChanges(Instant updatedSince, Long afterId, int limit) {
+        Instant now = Instant.now();
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        // Отметки об удалении старше срока хранения уже удалены
+        if (updatedSince.isBefore(now.minus(tombstoneRetention))) {
+            return TaskSyncDto.builder()
+                    .tasks(List.of())
+                    .deletedTaskIds(List.of())
+                    .fullResyncRequired(true)
+                    .build();
+        }
+
+        // Запрашиваем на одну задачу больше, чтобы узнать, есть ли следующая порция
+        List<Task> tasks = taskRepository.findUpdatedSince(updatedSince, afterId != null ? afterId : 0L,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = tasks.size() > pageSize;
+        if (hasMore) {
+            tasks = tasks.subList(0, pageSize);
+        }
+
+        List<TaskResponseDto> changed = tasks.stream().map(mapperService::convertToTaskResponseDto).toList();
+
+        // Удаления возвращаются на каждой порции: их мало, а клиент применяет их идемпотентно
+        List<Long> deleted = taskTombstoneRepository.findDeletedTaskIds(updatedSince);
+
+        TaskSyncDto.TaskSyncDtoBuilder result = TaskSyncDto.builder()
+                .tasks(changed)
+                .deletedTaskIds(deleted)
+                .hasMore(hasMore);
+
+        // Изменения новее горизонта еще могут дополниться поздно зафиксированными, курсор за него не заходит
+        Instant horizon = now.minus(commitLag).truncatedTo(ChronoUnit.MICROS);
+        if (horizon.isBefore(updatedSince)) {
+            horizon = updatedSince;
+        }
+
+        if (hasMore) {
+            Task last = tasks.get(tasks.size() - 1);
+            if (!last.getUpdatedAt().isAfter(horizon)) {
+                return result.nextUpdatedSince(last.getUpdatedAt()).nextAfterId(last.getId()).build();
+            }
+            // Дальше только свежие изменения: они придут следующей синхронизацией, а не повтором этой порции
+            result.hasMore(false);
+        }
+
+        // Последние секунды будут запрошены повторно, чтобы не пропустить поздно зафиксированные изменения
+        return result.nextUpdatedSince(horizon).nextAfterId(0L).build();
+    }
+
+    /**
+     * Метод для удаления отметок об удалении старше срока хранения.
+     */
+    @Scheduled(fixedDelayString = "${task-sync.purge-interval:3600000}")
+    public void purgeTombstones() {
+        Instant before = Instant.now().minus(tombstoneRetention);
+        AtomicInteger deleted = new AtomicInteger();
+        // Отметки пишутся в базу удаленной задачи, при шардировании чистится каждый шард
+        shardRouter.forEachShard(shard -> deleted.addAndGet(taskTombstoneRepository.deleteOlderThan(before)));
+        if (deleted.get() > 0) {
+            log.info("Purged {} task tombstones", deleted.get());
+        }
+    }
+}
@@ -5,33 +5,64 @@ import io.jsonwebtoken.JwtParserBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.example.taskservice.dto.UserRequestDto;
 import org.example.taskservice.entity.User;
 import org.example.taskservice.exeception.UserAlreadyExistsException;
+import org.example.taskservice.filter.IdentityHeaders;
 import org.example.taskservice.repository.UserRepository;
+import org.example.taskservice.sharding.ShardRouter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
 public class UserService {
+    // Пользователь текущего запроса: токен разбирается один раз, а не в каждом фильтре и сервисе
+    private static final String USER_ATTRIBUTE = UserService.class.getName() + ".user";
+
     private final UserRepository userRepository;
     @Value("${security.jwt.secret_key}")
     private String secretKey;
     private final RestTemplate restTemplate;
+    private final ObservationRegistry observationRegistry;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate replicaTransaction;
+    private final IdentityHeaders identityHeaders;
+    // Пользователи, копии которых уже записаны на все шарды этим экземпляром сервиса
+    private final Set<Long> replicated = ConcurrentHashMap.newKeySet();
 
-    public UserService(UserRepository userRepository, RestTemplate restTemplate) {
+    public UserService(UserRepository userRepository,
+                       RestTemplate restTemplate,
+                       ObservationRegistry observationRegistry,
+                       ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager,
+                       IdentityHeaders identityHeaders) {
         this.userRepository = userRepository;
         this.restTemplate = restTemplate;
+        this.observationRegistry = observationRegistry;
+        this.shardRouter = shardRouter;
+        this.identityHeaders = identityHeaders;
+        // Запись пользователя на шард идет в своей транзакции, не на шарде вызывающего метода
+        this.replicaTransaction = new TransactionTemplate(transactionManager);
+        this.replicaTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
@@ -41,20 +72,100 @@ public class UserService {
      */
     public void saveUser(User user) {
         // Проверка наличия пользователя в базе данных
-        if(userRepository.findByEmail(user.getEmail()).isPresent()) {
+        Optional<User> existing = userRepository.findByEmail(user.getEmail());
+        if(existing.isPresent()) {
+            replicate(existing.get());
             throw new UserAlreadyExistsException("User already exists");
         }
         log.info("Saving user: {}", user);
-        userRepository.save(user);
+        persist(user);
+    }
+
+    /**
+     * Метод для получения пользователя из токена с сохранением в базу при первом обращении.
+     *
+     * @param request HTTP-запрос
+     * @return Пользователь из базы данных или null без токена
+     */
+    public User findOrCreateUser(HttpServletRequest request) throws IOException {
+        User user = getClaimsFromToken(request);
+        if (user == null) {
+            return null;
+        }
+        return userRepository.findByEmail(user.getEmail()).map(this::replicate).orElseGet(() -> {
+            log.info("User not found in database, saving user: {}", user);
+            persist(user);
+            return user;
+        });
+    }
+
+    /**
+     * Метод для записи пользователя.
+     * При шардировании пользователь нужен на всех шардах (автор и исполнители задач):
+     * ID выдается основным шардом, на остальные записывается копия с тем же ID.
+     *
+     * @param user Пользователь для сохранения
+     */
+    private void persist(User user) {
+        if (!shardRouter.isEnabled()) {
+            userRepository.save(user);
+            return;
+        }
+        shardRouter.runOn(0, () -> replicaTransaction.executeWithoutResult(status -> userRepository.save(user)));
+        replicate(user);
+    }
+
+    /**
+     * Метод для записи копий пользователя основного шарда на остальные шарды.
+     * Запись копии идемпотентна, поэтому вызывается и для найденного пользователя: если копирование
+     * прервалось после записи на основной шард, недостающие копии досоздаются при следующем обращении.
+     * Пользователь, скопированный на все шарды, больше не проверяется.
+     *
+     * @param user Пользователь основного шарда (с ID)
+     * @return тот же пользователь
+     */
+    private User replicate(User user) {
+        if (!shardRouter.isEnabled() || replicated.contains(user.getId())) {
+            return user;
+        }
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.runOn(shard, () -> replicaTransaction.executeWithoutResult(status ->
+                    userRepository.insertReplica(user.getId(), user.getEmail(), user.getName(), user.getRole())));
+        }
+        replicated.add(user.getId());
+        return user;
     }
 
     /**
      * Метод для получения пользователя из токена.
+     * Для запроса через шлюз пользователь берется из подписанных шлюзом заголовков без разбора токена.
+     * Результат запоминается в атрибуте запроса.
      *
      * @param request HTTP-запрос
      * @return Пользователь
      */
     public User getClaimsFromToken(HttpServletRequest request) throws IOException {
+        if (request.getAttribute(USER_ATTRIBUTE) instanceof User cached) {
+            return copyOf(cached);
+        }
+
+        User user = identityHeaders.verify(request, Instant.now().getEpochSecond());
+        if (user == null) {
+            user = parseToken(request);
+        }
+        if (user != null) {
+            request.setAttribute(USER_ATTRIBUTE, copyOf(user));
+        }
+        return user;
+    }
+
+    /**
+     * Метод для получения пользователя из JWT токена запроса.
+     *
+     * @param request HTTP-запрос
+     * @return Пользователь или null без токена
+     */
+    private User parseToken(HttpServletRequest request) {
         // Извлекаем заголовок авторизации из запроса
         String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
 
@@ -72,19 +183,22 @@ public class UserService {
         // Проверка подписи токена
         parser.verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)));
 
-        log.info("Parsing token: {}", token);
+        log.debug("Parsing token");
 
-        // Парсинг токена
-        Claims claims = parser.build()
-                .parseSignedClaims(token)
-                .getPayload();
+        // Парсинг токена (отдельный span в трассировке запроса)
+        Claims claims = Observation.createNotStarted("jwt.parse", observationRegistry)
+                .contextualName("jwt parse")
+                .lowCardinalityKeyValue("jwt.source", "authorization-header")
+                .observe(() -> parser.build()
+                        .parseSignedClaims(token)
+                        .getPayload());
 
         // Получение данных из токена
         String email = claims.getSubject();
         String name = claims.get("name", String.class);
         List<String> role = claims.get("roles", List.class);
 
-        log.info("Found email: {}, name: {}, role: {}", email, name, role.toString());
+        log.debug("Found email: {}, name: {}, role: {}", email, name, role.toString());
 
         // Запись пользователя
         User user = new User();
@@ -95,6 +209,15 @@ public class UserService {
         return user;
     }
 
+    // Вызывающий код может сохранить пользователя (выдать ID), поэтому наружу отдается копия
+    private User copyOf(User user) {
+        User copy = new User();
+        copy.setEmail(user.getEmail());
+        copy.setName(user.getName());
+        copy.setRole(user.getRole());
+        return copy;
+    }
+
     /**
      *  Метод для обновления пользователя в базе данных.
      *  Присвоение executor роли
@@ -153,7 +276,7 @@ public class UserService {
         log.info("Saving user: with email: {}, name: {}, role: {}", user.getEmail(), user.getName(), user.getRole());
 
         //Сохранение пользователя
-        userRepository.save(user);
+        persist(user);
 
         return user;
     }
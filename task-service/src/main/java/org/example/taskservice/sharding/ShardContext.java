@@ -0,0 +1,25 @@
+package org.example.taskservice.sharding;
+
+/**
+ * Номер шарда текущего потока.
+ * Читается ShardRoutingDataSource при получении соединения.
+ */
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer get() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.taskservice.sharding;
+
+/**
+ * Источник номера шарда для метода с @ShardRoute.
+ */
+public enum ShardKey {
+
+    // Аргумент - ID задачи или комментария, шард закодирован в самом ID
+    TASK_ID,
+
+    // Аргумент - ID автора задач
+    AUTHOR_ID,
+
+    // Автор - пользователь из токена запроса (аргумент HttpServletRequest)
+    CURRENT_USER
+}
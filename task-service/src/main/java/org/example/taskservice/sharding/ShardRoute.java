@@ -0,0 +1,21 @@
+package org.example.taskservice.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Выполнение метода на шарде, вычисленном по аргументу.
+ * Шард выбирается до открытия транзакции, поэтому вся транзакция метода идет в один шард.
+ * Без включенного шардирования аннотация ни на что не влияет.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardRoute {
+
+    ShardKey key();
+
+    // Номер аргумента с ключом (для CURRENT_USER не используется)
+    int arg() default 0;
+}
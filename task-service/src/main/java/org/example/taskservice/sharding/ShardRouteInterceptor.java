@@ -0,0 +1,66 @@
+package org.example.taskservice.sharding;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.example.taskservice.entity.User;
+import org.example.taskservice.service.UserService;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Перехватчик методов с @ShardRoute: выбирает шард по аргументу на время вызова.
+ * Выполняется раньше транзакционного прокси, чтобы транзакция открывалась уже на нужном шарде.
+ */
+public class ShardRouteInterceptor implements MethodInterceptor {
+
+    // Бины берутся при вызове: перехватчик создается раньше обычных бинов
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ObjectProvider<UserService> userService;
+
+    public ShardRouteInterceptor(ObjectProvider<ShardRouter> shardRouter, ObjectProvider<UserService> userService) {
+        this.shardRouter = shardRouter;
+        this.userService = userService;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Вложенный вызов остается на шарде внешнего
+        if (ShardContext.get() != null) {
+            return invocation.proceed();
+        }
+
+        Method method = invocation.getThis() != null
+                ? AopUtils.getMostSpecificMethod(invocation.getMethod(), invocation.getThis().getClass())
+                : invocation.getMethod();
+        ShardRoute route = AnnotatedElementUtils.findMergedAnnotation(method, ShardRoute.class);
+        if (route == null) {
+            return invocation.proceed();
+        }
+
+        ShardContext.set(resolveShard(route, invocation.getArguments()));
+        try {
+            return invocation.proceed();
+        } finally {
+            ShardContext.set(null);
+        }
+    }
+
+    private int resolveShard(ShardRoute route, Object[] arguments) throws Exception {
+        if (route.key() != ShardKey.CURRENT_USER) {
+            return shardRouter.getObject().shardOf((Long) arguments[route.arg()]);
+        }
+
+        // Пользователь создается (на всех шардах) до выбора шарда, его ID задает шард новых задач
+        for (Object argument : arguments) {
+            if (argument instanceof HttpServletRequest request) {
+                User user = userService.getObject().findOrCreateUser(request);
+                return user != null ? shardRouter.getObject().shardOf(user.getId()) : 0;
+            }
+        }
+        throw new IllegalStateException("@ShardRoute(CURRENT_USER) requires an HttpServletRequest argument");
+    }
+}
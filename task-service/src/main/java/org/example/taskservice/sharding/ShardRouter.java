@@ -0,0 +1,189 @@
+package org.example.taskservice.sharding;
+
+import org.example.taskservice.exeception.ShardingUnsupportedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Выполнение кода на шардах задач.
+ * Задача хранится на шарде автора; ID задач и комментариев выдаются с шагом, равным количеству шардов,
+ * поэтому шард определяется по остатку от деления ID. Без шардирования все методы работают с одной базой.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+    private final ExecutorService scatterExecutor;
+
+    private ShardRouter(int shardCount, ExecutorService scatterExecutor) {
+        this.shardCount = shardCount;
+        this.scatterExecutor = scatterExecutor;
+    }
+
+    /**
+     * Метод для создания маршрутизатора без шардирования.
+     *
+     * @return - маршрутизатор с одной базой
+     */
+    public static ShardRouter disabled() {
+        return new ShardRouter(1, null);
+    }
+
+    /**
+     * Метод для создания маршрутизатора по шардам.
+     *
+     * @param shardCount - количество шардов
+     * @param scatterThreads - потоки для параллельных запросов (0 - по количеству шардов)
+     * @return - маршрутизатор
+     */
+    public static ShardRouter sharded(int shardCount, int scatterThreads) {
+        if (shardCount < 1) {
+            throw new IllegalStateException("task-sharding.shards must not be empty");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(scatterThreads > 0 ? scatterThreads : shardCount,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "task-shard-scatter-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        return new ShardRouter(shardCount, executor);
+    }
+
+    public boolean isEnabled() {
+        return scatterExecutor != null;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Метод для определения шарда по ID задачи, комментария или автора.
+     *
+     * @param id - идентификатор
+     * @return - номер шарда
+     */
+    public int shardOf(Long id) {
+        if (!isEnabled() || id == null) {
+            return 0;
+        }
+        return (int) Math.floorMod(id, (long) shardCount);
+    }
+
+    /**
+     * Метод для проверки, выбран ли шард в текущем потоке.
+     *
+     * @return - true, если код уже выполняется на конкретном шарде
+     */
+    public boolean isRouted() {
+        return isEnabled() && ShardContext.get() != null;
+    }
+
+    /**
+     * Метод для выполнения кода на шарде.
+     * Транзакция должна открываться внутри action, иначе соединение уже взято с другого шарда.
+     *
+     * @param shard - номер шарда
+     * @param action - код
+     * @return - результат кода
+     */
+    public <T> T callOn(int shard, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Метод для выполнения кода на шарде без результата.
+     *
+     * @param shard - номер шарда
+     * @param action - код
+     */
+    public void runOn(int shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Метод для последовательного выполнения кода на каждом шарде (фоновые задачи).
+     *
+     * @param action - код, получает номер шарда
+     */
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            runOn(current, () -> action.accept(current));
+        }
+    }
+
+    /**
+     * Метод для параллельного выполнения кода на всех шардах.
+     *
+     * @param action - код, получает номер шарда
+     * @return - результаты в порядке номеров шардов
+     */
+    public <T> List<T> scatter(IntFunction<T> action) {
+        if (!isEnabled()) {
+            return List.of(action.apply(0));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> callOn(current, () -> action.apply(current)),
+                    scatterExecutor));
+        }
+
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            // Наружу отдается исходное исключение шарда, чтобы его обработал GlobalExceptionHandler
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Метод для запрета операции, которая работает только с одной базой.
+     *
+     * @param feature - название операции для сообщения
+     */
+    public void requireSingleShard(String feature) {
+        if (isEnabled()) {
+            throw new ShardingUnsupportedException(feature + " is not available when task sharding is enabled");
+        }
+    }
+
+    /**
+     * Метод для остановки потоков параллельных запросов.
+     */
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
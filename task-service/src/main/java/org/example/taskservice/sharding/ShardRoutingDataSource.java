@@ -0,0 +1,15 @@
+package org.example.taskservice.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Источник данных, выбирающий пул шарда по номеру из ShardContext.
+ * Без номера используется основной шард.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.get();
+    }
+}
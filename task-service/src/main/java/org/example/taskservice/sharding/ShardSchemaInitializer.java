@@ -0,0 +1,88 @@
+package org.example.taskservice.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Подготовка схемы шардов.
+ * Hibernate создает схему только на основном шарде, остальные создаются по той же модели.
+ * Затем счетчики ID задач и комментариев на шарде N настраиваются на значения N, N + count, N + 2 * count...,
+ * чтобы шард определялся по остатку от деления ID.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements Integrator, SmartInitializingSingleton {
+
+    // Таблицы, ID которых кодируют шард
+    private static final List<String> STRIDED_TABLES = List.of("task", "comment");
+
+    private final ShardRouter shardRouter;
+    private final DataSource dataSource;
+    private final String ddlAuto;
+
+    // Модель сущностей и сервисы Hibernate, полученные при сборке фабрики сессий
+    private Metadata metadata;
+    private ServiceRegistry serviceRegistry;
+
+    public ShardSchemaInitializer(ShardRouter shardRouter, DataSource dataSource, String ddlAuto) {
+        this.shardRouter = shardRouter;
+        this.dataSource = dataSource;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.serviceRegistry = bootstrapContext.getServiceRegistry();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Схема, созданная миграциями, готовится вместе с шагом счетчиков вне приложения
+        if (!"create".equals(ddlAuto) && !"create-drop".equals(ddlAuto)) {
+            log.info("Task sharding: schema is not created by Hibernate, identity stride must be prepared by migrations");
+            return;
+        }
+        if (metadata == null) {
+            throw new IllegalStateException("Hibernate metadata was not captured for task sharding");
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        int count = shardRouter.getShardCount();
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            shardRouter.runOn(current, () -> {
+                if (current > 0) {
+                    SchemaManagementToolCoordinator.process(metadata, serviceRegistry,
+                            Map.of("jakarta.persistence.schema-generation.database.action", "drop-and-create"),
+                            action -> {
+                            });
+                }
+                // Шард 0 начинает с count, чтобы ID не был нулем
+                int start = current == 0 ? count : current;
+                for (String table : STRIDED_TABLES) {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + start);
+                    jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + count);
+                }
+            });
+        }
+        log.info("Task sharding: prepared schema on {} shards", count);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.taskservice.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки шардирования задач по автору.
+ * Шард 0 - основной: на нем генерируются ID пользователей и выполняются запросы без привязки к шарду.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task-sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    // Порядок шардов задает их номера, менять его на заполненной базе нельзя
+    private List<Shard> shards = new ArrayList<>();
+
+    // Потоки для параллельных запросов ко всем шардам (0 - по количеству шардов)
+    private int scatterThreads;
+
+    // Правила сортировки строк в базах шардов (тег языка, например en-US для en_US.UTF-8) для слияния
+    // страниц по названию и статусу; пусто - порядок кодовых точек (collation "C")
+    private String nameCollation;
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.taskservice.sharding;
+
+import org.example.taskservice.dto.TaskRowPageDto;
+import org.springframework.data.domain.Sort;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Слияние страниц задач с разных шардов.
+ * Каждый шард отдает первые (page + 1) * size строк в порядке сортировки; строки сливаются
+ * k-путевым слиянием через очередь с приоритетом, из результата берется запрошенная страница.
+ * Слияние верно, только если строки сравниваются так же, как их отсортировали базы шардов,
+ * поэтому строковые поля сравниваются по правилам сортировки (collation) баз, а не String.compareTo.
+ */
+public class TaskRowMerger {
+
+    // Атрибут сортировки -> значение строки проекции (порядок колонок описан в TaskRowPageDto)
+    private static final Map<String, Function<Object[], Comparable<?>>> KEYS = Map.of(
+            "id", row -> (Long) row[0],
+            "name", row -> (String) row[1],
+            // status_rank и priority_rank совпадают с порядковыми номерами статуса и приоритета
+            "statusRank", row -> row[3] != null ? ((Enum<?>) row[3]).ordinal() : null,
+            "priorityRank", row -> row[4] != null ? ((Enum<?>) row[4]).ordinal() : null,
+            "updatedAt", row -> (Comparable<?>) row[9]
+    );
+
+    // Правила сортировки строк баз шардов или null для порядка кодовых точек
+    private final Collator collator;
+
+    /**
+     * @param collation - правила сортировки строк в базах шардов (тег языка, например en-US для en_US.UTF-8),
+     *                  пустое значение - порядок кодовых точек (collation "C" в PostgreSQL, H2 по умолчанию)
+     */
+    public TaskRowMerger(String collation) {
+        this.collator = collation == null || collation.isBlank()
+                ? null
+                : Collator.getInstance(Locale.forLanguageTag(collation));
+    }
+
+    /**
+     * Метод для сборки страницы из страниц шардов.
+     *
+     * @param shardPages - страницы шардов, отсортированные одинаково
+     * @param sort - сортировка
+     * @param page - номер страницы
+     * @param size - размер страницы
+     * @return - страница задач
+     */
+    public TaskRowPageDto merge(List<TaskRowPageDto> shardPages, Sort sort, int page, int size) {
+        Comparator<Object[]> comparator = comparator(sort);
+
+        // В очереди по одному курсору на шард: [номер шарда, позиция строки]
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> comparator.compare(
+                shardPages.get(a[0]).getRows().get(a[1]), shardPages.get(b[0]).getRows().get(b[1])));
+        long totalElements = 0;
+        for (int shard = 0; shard < shardPages.size(); shard++) {
+            TaskRowPageDto shardPage = shardPages.get(shard);
+            totalElements += shardPage.getTotalElements();
+            if (!shardPage.getRows().isEmpty()) {
+                heads.add(new int[]{shard, 0});
+            }
+        }
+
+        long skip = (long) page * size;
+        List<Object[]> rows = new ArrayList<>(size);
+        Map<Long, List<Object[]>> executors = new HashMap<>();
+        Map<Long, List<Object[]>> comments = new HashMap<>();
+
+        while (!heads.isEmpty() && rows.size() < size) {
+            int[] head = heads.poll();
+            TaskRowPageDto shardPage = shardPages.get(head[0]);
+            Object[] row = shardPage.getRows().get(head[1]);
+
+            if (skip > 0) {
+                skip--;
+            } else {
+                Long taskId = (Long) row[0];
+                rows.add(row);
+                copy(shardPage.getExecutors(), executors, taskId);
+                copy(shardPage.getComments(), comments, taskId);
+            }
+
+            if (head[1] + 1 < shardPage.getRows().size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+
+        return new TaskRowPageDto(rows, executors, comments, page, size, totalElements);
+    }
+
+    /**
+     * Метод для построения компаратора строк по сортировке запроса.
+     * Пустые значения считаются наибольшими, как в PostgreSQL.
+     *
+     * @param sort - сортировка
+     * @return - компаратор строк
+     */
+    Comparator<Object[]> comparator(Sort sort) {
+        Comparator<String> text = textOrder();
+        Comparator<Object[]> result = null;
+        for (Sort.Order order : sort) {
+            Function<Object[], Comparable<?>> key = KEYS.get(order.getProperty());
+            if (key == null) {
+                throw new IllegalArgumentException("Unsupported sort property for shard merge: " + order.getProperty());
+            }
+            boolean ascending = order.isAscending();
+            Comparator<Object[]> next = (a, b) -> {
+                int compared = compareNullsHigh(key.apply(a), key.apply(b), text);
+                return ascending ? compared : -compared;
+            };
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result != null ? result : Comparator.comparing(row -> (Long) row[0]);
+    }
+
+    /**
+     * Метод для получения порядка строк, как в базах шардов.
+     * Равные по правилам сортировки строки упорядочиваются по кодовым точкам,
+     * как делает PostgreSQL для детерминированных collation.
+     *
+     * @return - компаратор строк для одного слияния
+     */
+    private Comparator<String> textOrder() {
+        if (collator == null) {
+            return TaskRowMerger::compareCodePoints;
+        }
+        // Collator сравнивает строки под блокировкой, поэтому у каждого слияния своя копия
+        Collator copy = (Collator) collator.clone();
+        Comparator<String> collated = copy::compare;
+        return collated.thenComparing(TaskRowMerger::compareCodePoints);
+    }
+
+    // String.compareTo сравнивает единицы UTF-16 и расходится с порядком байтов UTF-8 для символов вне BMP
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int left = a.codePointAt(i);
+            int right = b.codePointAt(j);
+            if (left != right) {
+                return Integer.compare(left, right);
+            }
+            i += Character.charCount(left);
+            j += Character.charCount(right);
+        }
+        return i < a.length() ? 1 : (j < b.length() ? -1 : 0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareNullsHigh(Comparable a, Comparable b, Comparator<String> text) {
+        if (a == null || b == null) {
+            return a == b ? 0 : (a == null ? 1 : -1);
+        }
+        if (a instanceof String left && b instanceof String right) {
+            return text.compare(left, right);
+        }
+        return a.compareTo(b);
+    }
+
+    private static void copy(Map<Long, List<Object[]>> source, Map<Long, List<Object[]>> target, Long taskId) {
+        List<Object[]> values = source.get(taskId);
+        if (values != null) {
+            target.put(taskId, values);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.taskservice.statistics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Прокси источника данных, который учитывает количество SQL-запросов,
+ * прочитанных и измененных строк и время выполнения в SqlStatistics текущего потока.
+ * Если сбор статистики в потоке не запущен, вызовы передаются без учета.
+ */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    public SqlStatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Оборачивает создаваемые соединением запросы.
+     */
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result));
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler((Statement) result));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler((Statement) result));
+                default -> result;
+            };
+        }
+    }
+
+    /**
+     * Учитывает выполнение запроса, время и количество измененных строк.
+     */
+    private record StatementHandler(Statement target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            SqlStatistics statistics = SqlStatistics.current();
+
+            if (statistics == null) {
+                return SqlStatisticsDataSource.invoke(target, method, args);
+            }
+
+            if ("getResultSet".equals(name)) {
+                return wrapResultSet(SqlStatisticsDataSource.invoke(target, method, args), statistics);
+            }
+
+            if (!name.startsWith("execute")) {
+                return SqlStatisticsDataSource.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = SqlStatisticsDataSource.invoke(target, method, args);
+            } finally {
+                statistics.recordStatement(System.nanoTime() - start);
+            }
+
+            // Учитываем количество измененных строк
+            if (result instanceof Integer count) {
+                statistics.recordRows(count);
+            } else if (result instanceof Long count) {
+                statistics.recordRows(count);
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    statistics.recordRows(count);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    statistics.recordRows(count);
+                }
+            }
+
+            return wrapResultSet(result, statistics);
+        }
+
+        private static Object wrapResultSet(Object result, SqlStatistics statistics) {
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, statistics));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Учитывает количество прочитанных строк.
+     */
+    private record ResultSetHandler(ResultSet target, SqlStatistics statistics) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                statistics.recordRows(1);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.taskservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.example.taskservice.controller.TaskController;
+import org.example.taskservice.dto.TaskResponseDto;
+import org.example.taskservice.dto.TaskRowPageDto;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.service.TaskEventStreamService;
+import org.example.taskservice.service.TaskOutboxService;
+import org.example.taskservice.service.TaskService;
+import org.example.taskservice.service.TaskSyncService;
+import org.example.taskservice.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ExtendWith(MockitoExtension.class)
+public class TestCborConfig {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T10:00:00Z");
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskEventStreamService taskEventStreamService;
+
+    @Mock
+    private TaskOutboxService taskOutboxService;
+
+    @Mock
+    private TaskSyncService taskSyncService;
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        TaskController controller = new TaskController(taskService, taskEventStreamService, taskOutboxService,
+                taskSyncService, ShardRouter.disabled());
+        ReflectionTestUtils.setField(controller, "cacheMaxAge", Duration.ofSeconds(5));
+
+        // Конвертеры как в приложении: JSON по умолчанию, CBOR добавляется конфигурацией последним
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter(objectMapperBuilder().build()));
+        new CborConfig(objectMapperBuilder()).extendMessageConverters(converters);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+                .build();
+    }
+
+    @Test
+    public void testTaskPageAsCbor() throws Exception {
+        when(taskService.getTasksByAuthor(1L, 0, 10, null, null, null, false)).thenReturn(rowPage());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/tasks/author/1")
+                .accept("application/cbor")).andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/cbor", response.getContentType());
+        // Страница из строк проекции пишется тем же сериализатором, что и в JSON
+        JsonNode page = cborMapper.readTree(response.getContentAsByteArray());
+        assertEquals(1, page.get("totalElements").asLong());
+        assertEquals("Task", page.get("content").get(0).get("name").asText());
+        assertEquals(20L, page.get("content").get(0).get("executorId").get(0).asLong());
+        assertEquals("2025-01-15T10:00:00Z", page.get("content").get(0).get("createdAt").asText());
+    }
+
+    @Test
+    public void testTaskAsCbor() throws Exception {
+        when(taskService.getTaskById(1L)).thenReturn(TaskResponseDto.builder()
+                .id(1L)
+                .name("Task")
+                .status(TaskStatus.IN_PROGRESS)
+                .executorId(Set.of(20L))
+                .build());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/tasks/1")
+                .accept("application/cbor")).andReturn().getResponse();
+
+        assertEquals("application/cbor", response.getContentType());
+        JsonNode task = cborMapper.readTree(response.getContentAsByteArray());
+        assertEquals(1L, task.get("id").asLong());
+        assertEquals("IN_PROGRESS", task.get("status").asText());
+    }
+
+    @Test
+    public void testJsonByDefault() throws Exception {
+        when(taskService.getTasksByAuthor(1L, 0, 10, null, null, null, false)).thenReturn(rowPage());
+
+        // Без Accept и с Accept */* первым подходит JSON
+        MockHttpServletResponse withoutAccept = mockMvc.perform(get("/tasks/author/1")).andReturn().getResponse();
+        MockHttpServletResponse anyType = mockMvc.perform(get("/tasks/author/1")
+                .accept(MediaType.ALL)).andReturn().getResponse();
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, withoutAccept.getContentType());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, anyType.getContentType());
+        assertEquals("Task", new ObjectMapper().readTree(withoutAccept.getContentAsByteArray())
+                .get("content").get(0).get("name").asText());
+    }
+
+    // Время строкой ISO-8601, как настраивает билдер Spring Boot
+    private static Jackson2ObjectMapperBuilder objectMapperBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private TaskRowPageDto rowPage() {
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1L, "Task", "Description", TaskStatus.IN_PROGRESS,
+                TaskPriority.HIGH, 10L, "Author", null, NOW, NOW});
+        return new TaskRowPageDto(rows, Map.of(1L, List.<Object[]>of(new Object[]{1L, 20L, "Executor"})),
+                Map.of(), 0, 10, 1);
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.taskservice.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskservice.entity.Comment;
+import org.example.taskservice.entity.Task;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.entity.User;
+import org.example.taskservice.service.MapperService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Slf4j
+public class TestTaskRowPageSerializer {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T10:00:00Z");
+
+    // Как ObjectMapper приложения: время строкой ISO-8601, модуль Blackbird подключается через ServiceLoader
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final MapperService mapperService = new MapperService();
+
+    @Test
+    public void testSameJsonAsDtoPage() {
+        List<Task> tasks = tasks(3, 1, 1);
+        PageRequest pageable = PageRequest.of(0, 10);
+
+        PageDto<TaskResponseDto> dtoPage = PageDto.of(new PageImpl<>(
+                tasks.stream().map(mapperService::convertToTaskResponseDto).toList(), pageable, 3));
+
+        assertEquals(objectMapper.valueToTree(dtoPage), objectMapper.valueToTree(rowPage(tasks, pageable, 3)));
+    }
+
+    @Test
+    public void testDuplicateExecutorNames() {
+        List<Task> tasks = tasks(1, 0, 0);
+        // Два исполнителя с одинаковым именем
+        tasks.get(0).setExecutors(new HashSet<>(Set.of(
+                User.builder().id(100L).name("Alex").build(),
+                User.builder().id(101L).name("Alex").build())));
+        PageRequest pageable = PageRequest.of(0, 10);
+
+        PageDto<TaskResponseDto> dtoPage = PageDto.of(new PageImpl<>(
+                tasks.stream().map(mapperService::convertToTaskResponseDto).toList(), pageable, 1));
+        JsonNode dtoTask = objectMapper.valueToTree(dtoPage).get("content").get(0);
+        JsonNode rowTask = objectMapper.valueToTree(rowPage(tasks, pageable, 1)).get("content").get(0);
+
+        assertEquals(dtoTask.get("executorName"), rowTask.get("executorName"));
+        assertEquals(2, rowTask.get("executorId").size());
+    }
+
+    /**
+     * Бенчмарк выделения памяти на страницу из 500 задач (3 исполнителя и 5 комментариев у каждой):
+     * путь через TaskResponseDto и PageDto против записи строк проекции в JsonGenerator.
+     */
+    @Test
+    public void testAllocatesLessThanDtoPage() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+
+        List<Task> tasks = tasks(500, 3, 5);
+        PageRequest pageable = PageRequest.of(0, 500);
+        TaskRowPageDto rowPage = rowPage(tasks, pageable, 10_000);
+
+        IoAction dtoPath = () -> objectMapper.writeValue(OutputStream.nullOutputStream(), PageDto.of(new PageImpl<>(
+                tasks.stream().map(mapperService::convertToTaskResponseDto).toList(), pageable, 10_000)));
+        IoAction rowPath = () -> objectMapper.writeValue(OutputStream.nullOutputStream(), rowPage);
+
+        long dtoBytes = allocatedPerRun(threads, dtoPath);
+        long rowBytes = allocatedPerRun(threads, rowPath);
+
+        log.info("Task page of 500: DTO path {} KB, streaming path {} KB per page", dtoBytes / 1024, rowBytes / 1024);
+        assertTrue(rowBytes * 3 < dtoBytes * 2, "streaming path should allocate at least 1.5x less");
+    }
+
+    @Test
+    public void testPageMetadata() {
+        TaskRowPageDto page = rowPage(tasks(500, 3, 5), PageRequest.of(0, 500), 10_000);
+
+        JsonNode json = objectMapper.valueToTree(page);
+
+        // Задачи страницы пишутся из строк проекции, других полей с элементами у страницы нет
+        assertEquals(500, json.get("content").size());
+        assertEquals(3, json.get("content").get(0).get("executorId").size());
+        assertEquals(5, json.get("content").get(0).get("comments").size());
+        assertEquals(20, page.getTotalPages());
+        List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("content", "page", "size", "totalElements", "totalPages"), fields);
+    }
+
+    @Test
+    public void testCborRoundTrip() throws IOException {
+        TaskRowPageDto page = rowPage(tasks(3, 2, 2), PageRequest.of(0, 10), 3);
+
+        byte[] cbor = cborMapper.writeValueAsBytes(page);
+
+        // Потребитель получает те же данные, что и в JSON (сравнение текстом: CBOR хранит малые числа как int)
+        assertEquals(objectMapper.writeValueAsString(page), cborMapper.readTree(cbor).toString());
+    }
+
+    /**
+     * Бенчмарк размера и пропускной способности (запись + чтение потребителем в PageDto)
+     * для страницы из 500 задач в JSON и CBOR.
+     */
+    @Test
+    public void testCborSizeAndThroughput() throws IOException {
+        TaskRowPageDto page = rowPage(tasks(500, 3, 5), PageRequest.of(0, 500), 10_000);
+        TypeReference<PageDto<TaskResponseDto>> type = new TypeReference<>() {
+        };
+
+        byte[] json = objectMapper.writeValueAsBytes(page);
+        byte[] cbor = cborMapper.writeValueAsBytes(page);
+
+        double jsonPagesPerSecond = pagesPerSecond(() -> objectMapper.readValue(objectMapper.writeValueAsBytes(page), type));
+        double cborPagesPerSecond = pagesPerSecond(() -> cborMapper.readValue(cborMapper.writeValueAsBytes(page), type));
+
+        log.info("Task page of 500: JSON {} KB, {} pages/s; CBOR {} KB, {} pages/s",
+                json.length / 1024, Math.round(jsonPagesPerSecond), cbor.length / 1024, Math.round(cborPagesPerSecond));
+        assertTrue(cbor.length < json.length, "CBOR page should be smaller than JSON");
+        // Потребитель получает ту же страницу
+        assertEquals(objectMapper.readValue(json, type).getContent().size(), cborMapper.readValue(cbor, type).getContent().size());
+    }
+
+    private long allocatedPerRun(com.sun.management.ThreadMXBean threads, IoAction action) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        // Прогрев: кэш сериализаторов и JIT
+        for (int i = 0; i < 20; i++) {
+            action.run();
+        }
+        int runs = 50;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < runs; i++) {
+            action.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / runs;
+    }
+
+    private double pagesPerSecond(IoAction action) throws IOException {
+        // Прогрев: кэш сериализаторов и JIT
+        for (int i = 0; i < 50; i++) {
+            action.run();
+        }
+        int runs = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            action.run();
+        }
+        return runs / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private TaskRowPageDto rowPage(List<Task> tasks, PageRequest pageable, long total) {
+        List<Object[]> rows = new ArrayList<>();
+        Map<Long, List<Object[]>> executors = new HashMap<>();
+        Map<Long, List<Object[]>> comments = new HashMap<>();
+        for (Task task : tasks) {
+            rows.add(new Object[]{task.getId(), task.getName(), task.getDescription(), task.getStatus(),
+                    task.getPriority(), task.getAuthor().getId(), task.getAuthor().getName(),
+                    task.getCompletedAt(), task.getCreatedAt(), task.getUpdatedAt()});
+            for (User executor : task.getExecutors()) {
+                executors.computeIfAbsent(task.getId(), id -> new ArrayList<>())
+                        .add(new Object[]{task.getId(), executor.getId(), executor.getName()});
+            }
+            for (Comment comment : task.getComments()) {
+                comments.computeIfAbsent(task.getId(), id -> new ArrayList<>())
+                        .add(new Object[]{task.getId(), comment.getId(), comment.getContent(),
+                                comment.getAuthor().getId(), comment.getAuthor().getName()});
+            }
+        }
+        return new TaskRowPageDto(rows, executors, comments, pageable.getPageNumber(), pageable.getPageSize(), total);
+    }
+
+    private List<Task> tasks(int count, int executorCount, int commentCount) {
+        User author = User.builder().id(1L).name("Author").build();
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Set<User> executors = new HashSet<>();
+            for (long e = 0; e < executorCount; e++) {
+                executors.add(User.builder().id(100 + e).name("Executor " + e).build());
+            }
+            Task task = Task.builder()
+                    .id(id)
+                    .name("Task " + id)
+                    .description("Description of task " + id)
+                    .status(TaskStatus.IN_PROGRESS)
+                    .priority(TaskPriority.MEDIUM)
+                    .author(author)
+                    .executors(executors)
+                    .createdAt(NOW)
+                    .updatedAt(NOW.plusSeconds(id))
+                    .build();
+            Set<Comment> comments = new HashSet<>();
+            for (long c = 0; c < commentCount; c++) {
+                comments.add(Comment.builder().id(id * 100 + c).content("Comment " + c).author(author).task(task).build());
+            }
+            task.setComments(comments);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.taskservice.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Проверка экспорта span запроса: продолжение трассы из traceparent, span разбора токена
+ * и статистика SQL в атрибутах span запроса.
+ */
+@SpringBootTest(properties = {
+        "spring.config.import=",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:task-tracing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "security.jwt.secret_key=" + TestRequestTracing.SECRET,
+        "management.tracing.sampling.probability=1.0",
+        "management.otlp.tracing.export.enabled=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext
+public class TestRequestTracing {
+
+    static final String SECRET = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @TestConfiguration
+    static class ExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Test
+    public void testRequestSpanExported() throws Exception {
+        String token = Jwts.builder()
+                .subject("trace@example.com")
+                .claim("name", "trace")
+                .claim("roles", List.of("ROLE_USER"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+
+        mockMvc.perform(get("/tasks/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01"));
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        SpanData server = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No server span exported: " + spans));
+
+        // Трасса продолжает трассу шлюза
+        assertEquals(TRACE_ID, server.getTraceId());
+        assertEquals(PARENT_SPAN_ID, server.getParentSpanId());
+        // Статистика SQL запроса в атрибутах span
+        assertTrue(Long.parseLong(server.getAttributes().get(AttributeKey.stringKey("db.statements"))) > 0);
+        assertNotNull(server.getAttributes().get(AttributeKey.stringKey("db.time.ms")));
+
+        SpanData jwtParse = spans.stream()
+                .filter(span -> span.getName().equals("jwt parse"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No jwt parse span exported: " + spans));
+        assertEquals(TRACE_ID, jwtParse.getTraceId());
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.taskservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLogSamplingTurboFilter {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    public void testRateLimitPerSecond() {
+        AtomicLong now = new AtomicLong(10_500);
+        LogSamplingTurboFilter.Rule rule = new LogSamplingTurboFilter.Rule(1.0, 3, now::get);
+
+        assertTrue(rule.tryAcquire());
+        assertTrue(rule.tryAcquire());
+        assertTrue(rule.tryAcquire());
+        assertFalse(rule.tryAcquire());
+
+        // Конец той же секунды: лимит еще исчерпан
+        now.set(10_999);
+        assertFalse(rule.tryAcquire());
+        assertEquals(2, rule.getRateLimited());
+
+        // Новая секунда: счетчик начинается с нуля
+        now.set(11_000);
+        assertTrue(rule.tryAcquire());
+        assertTrue(rule.tryAcquire());
+        assertTrue(rule.tryAcquire());
+        assertFalse(rule.tryAcquire());
+    }
+
+    @Test
+    public void testConcurrentAcquireNeverExceedsLimit() throws Exception {
+        AtomicLong now = new AtomicLong(0);
+        LogSamplingTurboFilter.Rule rule = new LogSamplingTurboFilter.Rule(1.0, 100, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int second = 0; second < 5; second++) {
+                now.set(second * 1000L);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int thread = 0; thread < 8; thread++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        int accepted = 0;
+                        for (int i = 0; i < 1000; i++) {
+                            if (rule.tryAcquire()) {
+                                accepted++;
+                            }
+                        }
+                        return accepted;
+                    }));
+                }
+                start.countDown();
+
+                int accepted = 0;
+                for (Future<Integer> result : results) {
+                    accepted += result.get(10, TimeUnit.SECONDS);
+                }
+                // Сброс окна не теряет и не добавляет сообщений при одновременных вызовах
+                assertEquals(100, accepted);
+            }
+            assertEquals(5 * (8 * 1000 - 100), rule.getRateLimited());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSampleRate() {
+        LogSamplingTurboFilter.Rule none = new LogSamplingTurboFilter.Rule(0.0, 0);
+        LogSamplingTurboFilter.Rule all = new LogSamplingTurboFilter.Rule(1.0, 0);
+        LogSamplingTurboFilter.Rule half = new LogSamplingTurboFilter.Rule(0.5, 0);
+
+        int accepted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(none.tryAcquire());
+            assertTrue(all.tryAcquire());
+            if (half.tryAcquire()) {
+                accepted++;
+            }
+        }
+
+        assertEquals(10_000, none.getSampledOut());
+        assertEquals(0, all.getSampledOut());
+        assertTrue(accepted > 4_000 && accepted < 6_000, "accepted " + accepted);
+        assertEquals(10_000 - accepted, half.getSampledOut());
+    }
+
+    @Test
+    public void testDecideUsesLongestPrefixRule() {
+        LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+        filter.setRule("org.example", 1.0, 0);
+        filter.setRule("org.example.taskservice.filter", 0.0, 0);
+        Logger service = loggerContext.getLogger("org.example.taskservice.service.TaskService");
+        Logger jwtFilter = loggerContext.getLogger("org.example.taskservice.filter.JwtFilter");
+        Logger other = loggerContext.getLogger("com.zaxxer.hikari.HikariPool");
+
+        assertEquals(FilterReply.NEUTRAL, decide(filter, service, Level.INFO));
+        assertEquals(FilterReply.DENY, decide(filter, jwtFilter, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, other, Level.INFO));
+
+        // WARN и выше пропускаются всегда, проверки isXxxEnabled() не расходуют лимит
+        assertEquals(FilterReply.NEUTRAL, decide(filter, jwtFilter, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, jwtFilter, Level.INFO, null, null, null));
+
+        // После удаления правила действует правило родительского пакета
+        filter.removeRule("org.example.taskservice.filter");
+        assertEquals(FilterReply.NEUTRAL, decide(filter, jwtFilter, Level.INFO));
+    }
+
+    @Test
+    public void testInvalidRule() {
+        LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+
+        assertThrows(IllegalArgumentException.class, () -> filter.setRule("org.example", 1.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> filter.setRule("org.example", 1.0, -1));
+    }
+
+    private static FilterReply decide(LogSamplingTurboFilter filter, Logger logger, Level level) {
+        return filter.decide(null, logger, level, "message {}", new Object[]{1}, null);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.taskservice.outbox;
+
+import org.example.taskservice.dto.TaskChangeDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestInMemoryChangeSink {
+
+    @Test
+    public void testKeepsChangeCommittedOutOfOrder() {
+        InMemoryChangeSink sink = new InMemoryChangeSink(10);
+
+        // Изменение 1 зафиксировалось позже изменения 2 и публикуется следующей пачкой
+        sink.publish(List.of(change(2L)));
+        sink.publish(List.of(change(1L)));
+
+        assertEquals(List.of(2L, 1L), seqs(sink));
+    }
+
+    @Test
+    public void testIgnoresRedelivery() {
+        InMemoryChangeSink sink = new InMemoryChangeSink(10);
+
+        sink.publish(List.of(change(1L), change(2L)));
+        sink.publish(List.of(change(1L), change(2L), change(3L)));
+
+        assertEquals(List.of(1L, 2L, 3L), seqs(sink));
+    }
+
+    @Test
+    public void testEvictsOldestChanges() {
+        InMemoryChangeSink sink = new InMemoryChangeSink(2);
+
+        sink.publish(List.of(change(1L), change(2L), change(3L)));
+
+        assertEquals(List.of(2L, 3L), seqs(sink));
+    }
+
+    private static List<Long> seqs(InMemoryChangeSink sink) {
+        return sink.getChanges().stream().map(TaskChangeDto::getSeq).toList();
+    }
+
+    private static TaskChangeDto change(Long seq) {
+        return TaskChangeDto.builder().seq(seq).build();
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.taskservice.service;
+
+import org.example.taskservice.dto.TaskResponseDto;
+import org.example.taskservice.entity.ArchivedTask;
+import org.example.taskservice.entity.User;
+import org.example.taskservice.repository.ArchivedTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTaskArchiveService {
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    private TaskArchiveService taskArchiveService;
+
+    // Архив: задачи с ID 101..107
+    private final List<ArchivedTask> archive = LongStream.rangeClosed(101, 107).mapToObj(this::archivedTask).toList();
+
+    @BeforeEach
+    public void setUp() {
+        taskArchiveService = new TaskArchiveService(archivedTaskRepository, new MapperService());
+    }
+
+    @Test
+    public void testArchiveBatch() {
+        List<Long> ids = List.of(1L, 2L);
+        when(archivedTaskRepository.findArchivableTaskIds(any(Instant.class), eq(100))).thenReturn(ids);
+
+        assertEquals(2, taskArchiveService.archiveBatch(Instant.now(), 100));
+
+        verify(archivedTaskRepository).copyTasks(eq(ids), any(Instant.class));
+        verify(archivedTaskRepository).copyExecutors(ids);
+        verify(archivedTaskRepository).copyComments(ids);
+        verify(archivedTaskRepository).deleteHotTasks(ids);
+    }
+
+    @Test
+    public void testAppendArchived_FillsPartialHotPage() {
+        PageRequest pageable = PageRequest.of(1, 4);
+        // Рабочих задач 6: на второй странице 2 рабочие и 2 архивные
+        Page<TaskResponseDto> hot = new PageImpl<>(List.of(hotTask(5L), hotTask(6L)), pageable, 6);
+        stubArchivePages(4);
+
+        Page<TaskResponseDto> page = taskArchiveService.appendArchived(hot, Specification.where(null), pageable);
+
+        assertEquals(List.of(5L, 6L, 101L, 102L), ids(page));
+        assertEquals(13, page.getTotalElements());
+        assertTrue(page.getContent().get(2).isArchived());
+    }
+
+    @Test
+    public void testAppendArchived_PageAfterHotTasks() {
+        PageRequest pageable = PageRequest.of(2, 4);
+        // Третья страница начинается со 3-й архивной задачи (смещение 8 - 6 = 2)
+        Page<TaskResponseDto> hot = new PageImpl<>(List.of(), pageable, 6);
+        stubArchivePages(4);
+
+        Page<TaskResponseDto> page = taskArchiveService.appendArchived(hot, Specification.where(null), pageable);
+
+        assertEquals(List.of(103L, 104L, 105L, 106L), ids(page));
+        assertEquals(13, page.getTotalElements());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubArchivePages(int size) {
+        when(archivedTaskRepository.findAll(any(Specification.class), any(PageRequest.class))).thenAnswer(invocation -> {
+            PageRequest request = invocation.getArgument(1);
+            int from = (int) Math.min(request.getOffset(), archive.size());
+            int to = Math.min(from + size, archive.size());
+            return new PageImpl<>(archive.subList(from, to), request, archive.size());
+        });
+    }
+
+    private List<Long> ids(Page<TaskResponseDto> page) {
+        return page.getContent().stream().map(TaskResponseDto::getId).toList();
+    }
+
+    private TaskResponseDto hotTask(Long id) {
+        return TaskResponseDto.builder().id(id).build();
+    }
+
+    private ArchivedTask archivedTask(long id) {
+        return ArchivedTask.builder()
+                .id(id)
+                .author(User.builder().id(1L).name("test").build())
+                .comments(new HashSet<>())
+                .build();
+    }
+}
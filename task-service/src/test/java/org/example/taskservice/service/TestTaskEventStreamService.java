@@ -0,0 +1,83 @@
+package org.example.taskservice.service;
+
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.event.TaskChangeType;
+import org.example.taskservice.event.TaskChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestTaskEventStreamService {
+
+    // Задачи на отправку не выполняются сразу, чтобы имитировать медленного клиента
+    private final List<Runnable> pending = new ArrayList<>();
+
+    private TaskEventStreamService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new TaskEventStreamService(pending::add);
+        ReflectionTestUtils.setField(service, "bufferSize", 2);
+        ReflectionTestUtils.setField(service, "timeout", 60_000L);
+    }
+
+    @Test
+    public void testFiltersSubscribers() {
+        service.subscribe(1L, null, null);
+        service.subscribe(null, 5L, null);
+        service.subscribe(null, null, TaskStatus.DONE);
+
+        service.onTaskChanged(event(1L, Set.of(7L), TaskStatus.IN_PROGRESS));
+
+        // Событие подходит только подписчику по автору
+        assertEquals(1, pending.size());
+        assertEquals(3, service.getSubscriberCount());
+    }
+
+    @Test
+    public void testEvictsSlowSubscriber() {
+        service.subscribe(null, null, null);
+
+        // Буфер на два сообщения, отправка не выполняется
+        service.onTaskChanged(event(1L, Set.of(), TaskStatus.IN_WAITING));
+        service.onTaskChanged(event(1L, Set.of(), TaskStatus.IN_WAITING));
+        assertEquals(1, service.getSubscriberCount());
+
+        service.onTaskChanged(event(1L, Set.of(), TaskStatus.IN_WAITING));
+        assertEquals(0, service.getSubscriberCount());
+    }
+
+    @Test
+    public void testDrainsBufferedEvents() {
+        service.subscribe(null, null, null);
+
+        service.onTaskChanged(event(1L, Set.of(), TaskStatus.IN_WAITING));
+        service.onTaskChanged(event(1L, Set.of(), TaskStatus.IN_WAITING));
+
+        // Один поток отправки на подписчика
+        assertEquals(1, pending.size());
+        pending.remove(0).run();
+
+        service.onTaskChanged(event(1L, Set.of(), TaskStatus.IN_WAITING));
+        service.onTaskChanged(event(1L, Set.of(), TaskStatus.IN_WAITING));
+        assertEquals(1, service.getSubscriberCount());
+    }
+
+    private TaskChangedEvent event(Long authorId, Set<Long> executorIds, TaskStatus status) {
+        return TaskChangedEvent.builder()
+                .type(TaskChangeType.UPDATED)
+                .taskId(1L)
+                .authorId(authorId)
+                .executorIds(executorIds)
+                .status(status)
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.taskservice.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.taskservice.exeception.InvalidTaskDataException;
+import org.example.taskservice.graphql.CommentNode;
+import org.example.taskservice.graphql.UserNode;
+import org.example.taskservice.repository.CommentRepository;
+import org.example.taskservice.repository.TaskRepository;
+import org.example.taskservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTaskGraphQlService {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private TaskGraphQlService taskGraphQlService;
+
+    @Test
+    public void testFindExecutors_OneQueryForAllTasks() {
+        Set<Long> taskIds = Set.of(1L, 2L, 3L);
+        when(taskRepository.findExecutorsByTaskIds(taskIds)).thenReturn(List.of(
+                new Object[]{1L, 10L, "Ivan"},
+                new Object[]{1L, 11L, "Anna"},
+                new Object[]{2L, 10L, "Ivan"}));
+
+        Map<Long, List<UserNode>> executors = taskGraphQlService.findExecutors(taskIds);
+
+        // Исполнители всех задач страницы приходят одним запросом
+        verify(taskRepository, times(1)).findExecutorsByTaskIds(taskIds);
+        assertEquals(List.of(new UserNode(10L, "Ivan"), new UserNode(11L, "Anna")), executors.get(1L));
+        assertEquals(List.of(new UserNode(10L, "Ivan")), executors.get(2L));
+        assertNull(executors.get(3L));
+    }
+
+    @Test
+    public void testFindComments_GroupedByTask() {
+        Set<Long> taskIds = Set.of(1L, 2L);
+        when(commentRepository.findByTaskIds(taskIds)).thenReturn(List.of(
+                new Object[]{2L, 100L, "first", 10L},
+                new Object[]{2L, 101L, "second", 11L}));
+
+        Map<Long, List<CommentNode>> comments = taskGraphQlService.findComments(taskIds);
+
+        assertEquals(List.of(new CommentNode(100L, "first", 10L), new CommentNode(101L, "second", 11L)), comments.get(2L));
+        assertEquals(1, comments.size());
+    }
+
+    @Test
+    public void testFindTasks_PageSizeLimit() {
+        assertThrows(InvalidTaskDataException.class,
+                () -> taskGraphQlService.findTasks(null, null, null, null, 0, 5000, null, Set.of("name"), false));
+        verifyNoInteractions(entityManager, taskRepository);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.taskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskservice.dto.TaskChangeDto;
+import org.example.taskservice.entity.TaskChange;
+import org.example.taskservice.event.TaskChangeType;
+import org.example.taskservice.outbox.ChangeSink;
+import org.example.taskservice.repository.TaskChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTaskOutboxService {
+
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private ChangeSink changeSink;
+
+    private TaskOutboxService taskOutboxService;
+
+    @BeforeEach
+    public void setUp() {
+        taskOutboxService = new TaskOutboxService(taskChangeRepository, changeSink,
+                new MapperService(), new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    public void testRelayBatch_AssignsFeedSeqAndPublishes() throws Exception {
+        // Изменение 7 зафиксировалось раньше изменения 5: номера ленты идут в порядке фиксации
+        TaskChange first = change(7L);
+        TaskChange second = change(5L);
+        when(taskChangeRepository.findUnpublished(any(Pageable.class))).thenReturn(List.of(first, second));
+        when(taskChangeRepository.findMaxFeedSeq()).thenReturn(40L);
+
+        int relayed = taskOutboxService.relayBatch(100);
+
+        assertEquals(2, relayed);
+        assertEquals(41L, first.getFeedSeq());
+        assertEquals(42L, second.getFeedSeq());
+        assertTrue(first.isPublished() && second.isPublished());
+
+        // Номера записываются до отправки: конфликт с другой репликой не приводит к повторной отправке
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskChangeDto>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(taskChangeRepository, changeSink);
+        inOrder.verify(taskChangeRepository).flush();
+        inOrder.verify(changeSink).publish(captor.capture());
+        assertEquals(List.of(41L, 42L), captor.getValue().stream().map(TaskChangeDto::getSeq).toList());
+    }
+
+    @Test
+    public void testRelayBatch_FirstFeedSeq() throws Exception {
+        TaskChange change = change(1L);
+        when(taskChangeRepository.findUnpublished(any(Pageable.class))).thenReturn(List.of(change));
+        when(taskChangeRepository.findMaxFeedSeq()).thenReturn(null);
+
+        taskOutboxService.relayBatch(100);
+
+        assertEquals(1L, change.getFeedSeq());
+    }
+
+    @Test
+    public void testRelayBatch_SinkFailure() throws Exception {
+        when(taskChangeRepository.findUnpublished(any(Pageable.class))).thenReturn(List.of(change(1L)));
+        doThrow(new IOException("disk full")).when(changeSink).publish(anyList());
+
+        // Исключение откатывает транзакцию вместе с номерами ленты, изменения будут отправлены повторно
+        assertThrows(IOException.class, () -> taskOutboxService.relayBatch(100));
+    }
+
+    @Test
+    public void testRelayBatch_Empty() throws Exception {
+        when(taskChangeRepository.findUnpublished(any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, taskOutboxService.relayBatch(100));
+
+        verify(taskChangeRepository, never()).findMaxFeedSeq();
+        verifyNoInteractions(changeSink);
+    }
+
+    @Test
+    public void testGetChanges_ByFeedSeq() {
+        TaskChange change = change(3L);
+        change.setFeedSeq(11L);
+        when(taskChangeRepository.findByFeedSeqGreaterThanOrderByFeedSeqAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(change));
+
+        List<TaskChangeDto> changes = taskOutboxService.getChanges(10, 100);
+
+        // Клиент получает номер ленты, а не номер вставки
+        assertEquals(List.of(11L), changes.stream().map(TaskChangeDto::getSeq).toList());
+    }
+
+    private TaskChange change(Long seq) {
+        return change(seq, Instant.now());
+    }
+
+    private TaskChange change(Long seq, Instant createdAt) {
+        return TaskChange.builder()
+                .seq(seq)
+                .type(TaskChangeType.UPDATED)
+                .taskId(10L)
+                .payload("{\"taskId\":10}")
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -1,32 +1,47 @@
 package org.example.taskservice.service;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.example.taskservice.dto.PageDto;
+import org.example.taskservice.dto.PageView;
+import org.example.taskservice.dto.TaskDeletionResultDto;
 import org.example.taskservice.dto.TaskRequestDto;
 import org.example.taskservice.dto.TaskResponseDto;
+import org.example.taskservice.dto.TaskRowPageDto;
 import org.example.taskservice.entity.Task;
 import org.example.taskservice.entity.TaskPriority;
 import org.example.taskservice.entity.TaskStatus;
 import org.example.taskservice.entity.User;
+import org.example.taskservice.event.TaskChangeType;
+import org.example.taskservice.event.TaskChangedEvent;
+import org.example.taskservice.exeception.InvalidTaskDataException;
+import org.example.taskservice.exeception.TaskNotFoundException;
 import org.example.taskservice.repository.CommentRepository;
 import org.example.taskservice.repository.TaskRepository;
 import org.example.taskservice.repository.UserRepository;
+import org.example.taskservice.sharding.ShardRouter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 
@@ -49,6 +64,21 @@ public class TestTaskService {
     @Mock
     private MapperService mapperService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskArchiveService taskArchiveService;
+
+    @Mock
+    private TaskDeletionService taskDeletionService;
+
+    @Mock
+    private TaskPageReader taskPageReader;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.disabled();
+
     @InjectMocks
     private TaskService taskService;
 
@@ -157,23 +187,135 @@ public class TestTaskService {
 
         assertEquals(Long.valueOf(1), updatedTaskId);
         verify(taskRepository).save(any(Task.class));
+
+        ArgumentCaptor<TaskChangedEvent> eventCaptor = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(TaskChangeType.EXECUTOR_ASSIGNED, eventCaptor.getValue().getType());
+        assertEquals(Set.of(user.getId()), eventCaptor.getValue().getExecutorIds());
     }
 
 
     @Test
     public void testDeleteTask() {
         Long taskId = 1L;
-        doNothing().when(taskRepository).deleteById(taskId);
+        when(taskDeletionService.deleteTasks(List.of(taskId))).thenReturn(new TaskDeletionResultDto(1, 2, 1));
+
+        TaskDeletionResultDto result = taskService.deleteTask(taskId);
+
+        verify(taskDeletionService).deleteTasks(List.of(taskId));
+        assertEquals(1, result.getTasks());
+        assertEquals(2, result.getComments());
+    }
 
-        taskService.deleteTask(taskId);
 
-        verify(taskRepository).deleteById(taskId);
+    @Test
+    public void testDeleteTask_NotFound() {
+        when(taskDeletionService.deleteTasks(List.of(1L))).thenReturn(new TaskDeletionResultDto());
+        when(taskDeletionService.deleteArchivedTasks(List.of(1L))).thenReturn(new TaskDeletionResultDto());
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(1L));
+    }
+
+
+    @Test
+    public void testDeleteTask_Archived() {
+        when(taskDeletionService.deleteTasks(List.of(1L))).thenReturn(new TaskDeletionResultDto());
+        when(taskDeletionService.deleteArchivedTasks(List.of(1L))).thenReturn(new TaskDeletionResultDto(1, 3, 2));
+
+        TaskDeletionResultDto result = taskService.deleteTask(1L);
+
+        assertEquals(1, result.getTasks());
+        assertEquals(3, result.getComments());
+    }
+
+
+    @Test
+    public void testDeleteTasksByFilter_Chunked() {
+        ReflectionTestUtils.setField(taskService, "deletionChunkSize", 2);
+        when(taskDeletionService.findTaskIds(any(), eq(0L), eq(2))).thenReturn(List.of(1L, 2L));
+        when(taskDeletionService.findTaskIds(any(), eq(2L), eq(2))).thenReturn(List.of(5L));
+        when(taskDeletionService.deleteTasks(anyList())).thenAnswer(invocation ->
+                new TaskDeletionResultDto(invocation.<List<Long>>getArgument(0).size(), 1, 0));
+
+        TaskDeletionResultDto result = taskService.deleteTasksByFilter(null, null, TaskStatus.DONE, null);
+
+        assertEquals(3, result.getTasks());
+        assertEquals(2, result.getComments());
+        verify(taskDeletionService).deleteTasks(List.of(1L, 2L));
+        verify(taskDeletionService).deleteTasks(List.of(5L));
+    }
+
+
+    @Test
+    public void testDeleteTasksByFilter_IncludesArchived() {
+        when(taskDeletionService.findTaskIds(any(), eq(0L), anyInt())).thenReturn(List.of(1L));
+        when(taskDeletionService.deleteTasks(List.of(1L))).thenReturn(new TaskDeletionResultDto(1, 0, 1));
+        when(taskDeletionService.findArchivedTaskIds(any(), eq(0L), anyInt())).thenReturn(List.of(101L, 102L));
+        when(taskDeletionService.deleteArchivedTasks(List.of(101L, 102L))).thenReturn(new TaskDeletionResultDto(2, 4, 2));
+
+        TaskDeletionResultDto result = taskService.deleteTasksByFilter(7L, null, null, null);
+
+        assertEquals(3, result.getTasks());
+        assertEquals(4, result.getComments());
+        assertEquals(3, result.getExecutorLinks());
+    }
+
+
+    @Test
+    public void testDeleteTasksByFilter_RequiresFilter() {
+        assertThrows(InvalidTaskDataException.class, () -> taskService.deleteTasksByFilter(null, null, null, null));
+        verifyNoInteractions(taskDeletionService);
+    }
+
+
+    @Test
+    public void testGetAllTasks_SortWithIdTieBreaker() {
+        PageRequest pageRequest = PageRequest.of(0, 10,
+                Sort.by(Sort.Direction.DESC, "priorityRank", "id"));
+        TaskRowPageDto page = new TaskRowPageDto(List.of(), Map.of(), Map.of(), 0, 10, 0);
+        when(taskPageReader.readPage(any(Specification.class), eq(pageRequest))).thenReturn(page);
+
+        PageView result = taskService.getAllTasks(TaskStatus.DONE, null, 0, 10, "priority,desc", false);
+
+        // Рабочие задачи читаются строками проекции, без сущностей
+        assertSame(page, result);
+        verifyNoInteractions(taskRepository, mapperService);
+    }
+
+
+    @Test
+    public void testGetAllTasks_UnsupportedSort() {
+        assertThrows(InvalidTaskDataException.class,
+                () -> taskService.getAllTasks(null, null, 0, 10, "description", false));
+        assertThrows(InvalidTaskDataException.class,
+                () -> taskService.getAllTasks(null, null, 0, 10, "name,up", false));
+        verifyNoInteractions(taskRepository, taskPageReader);
     }
 
 
     @Test
     public void testGetTasksByAuthor() {
-        PageRequest pageRequest = PageRequest.of(0, 10);
+        // Без параметра sort задачи упорядочены по id
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id"));
+        Object[] row = {1L, "Test Task", "Test Task", TaskStatus.IN_WAITING, TaskPriority.HIGH, 1L, "Author",
+                null, null, null};
+        TaskRowPageDto page = new TaskRowPageDto(List.<Object[]>of(row), Map.of(), Map.of(), 0, 10, 1);
+        when(taskPageReader.readPage(any(Specification.class), eq(pageRequest))).thenReturn(page);
+
+        PageView result = taskService.getTasksByAuthor(1L, 0, 10, null, null, null, false);
+
+        // Без архива задачи читаются строками проекции, сущности и DTO не создаются
+        assertSame(page, result);
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Test Task", page.getRows().get(0)[1]);
+        verifyNoInteractions(taskRepository, mapperService, taskArchiveService);
+    }
+
+
+    @Test
+    public void testGetTasksByAuthor_IncludeArchived() {
+        // Без параметра sort задачи упорядочены по id
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id"));
 
         Task task = Task.builder()
                 .id(1L)
@@ -186,6 +328,9 @@ public class TestTaskService {
         Page<Task> tasks = new PageImpl<>(List.of(task));
 
         when(taskRepository.findAll(any(Specification.class), eq(pageRequest))).thenReturn(tasks);
+        // Архивных задач нет
+        when(taskArchiveService.appendArchived(any(), any(), eq(pageRequest)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         TaskResponseDto taskResponseDto = TaskResponseDto.builder()
                 .name("Test Task")
@@ -195,7 +340,9 @@ public class TestTaskService {
                 .build();
         when(mapperService.convertToTaskResponseDto(any(Task.class))).thenReturn(taskResponseDto);
 
-        Page<TaskResponseDto> taskDto = taskService.getTasksByAuthor(1L, 0, 10, null, null);
+        // С архивом страница собирается через сущности и DTO
+        @SuppressWarnings("unchecked")
+        PageDto<TaskResponseDto> taskDto = (PageDto<TaskResponseDto>) taskService.getTasksByAuthor(1L, 0, 10, null, null, null, true);
 
         assertNotNull(taskDto);
         assertEquals(1, taskDto.getTotalElements()); // Проверяем количество элементов
@@ -0,0 +1,135 @@
+package org.example.taskservice.service;
+
+import org.example.taskservice.dto.TaskSyncDto;
+import org.example.taskservice.entity.Task;
+import org.example.taskservice.entity.TaskTombstone;
+import org.example.taskservice.entity.User;
+import org.example.taskservice.event.TaskChangeType;
+import org.example.taskservice.event.TaskChangedEvent;
+import org.example.taskservice.repository.TaskRepository;
+import org.example.taskservice.repository.TaskTombstoneRepository;
+import org.example.taskservice.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTaskSyncService {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    private TaskSyncService taskSyncService;
+
+    @BeforeEach
+    public void setUp() {
+        taskSyncService = new TaskSyncService(taskRepository, taskTombstoneRepository, new MapperService(),
+                ShardRouter.disabled());
+        ReflectionTestUtils.setField(taskSyncService, "commitLag", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(taskSyncService, "tombstoneRetention", Duration.ofDays(30));
+    }
+
+    @Test
+    public void testGetChanges_HasMore() {
+        Instant since = Instant.now().minus(Duration.ofHours(1));
+        Task first = task(1L, since.plusSeconds(10));
+        Task second = task(2L, since.plusSeconds(20));
+        Task third = task(3L, since.plusSeconds(30));
+
+        when(taskRepository.findUpdatedSince(eq(since), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(first, second, third));
+        when(taskTombstoneRepository.findDeletedTaskIds(since)).thenReturn(List.of(7L));
+
+        TaskSyncDto sync = taskSyncService.getChanges(since, 0L, 2);
+
+        assertTrue(sync.isHasMore());
+        assertEquals(List.of(1L, 2L), sync.getTasks().stream().map(t -> t.getId()).toList());
+        assertEquals(List.of(7L), sync.getDeletedTaskIds());
+        // Курсор указывает на последнюю отданную задачу
+        assertEquals(second.getUpdatedAt(), sync.getNextUpdatedSince());
+        assertEquals(2L, sync.getNextAfterId());
+    }
+
+    @Test
+    public void testGetChanges_HasMoreClampedToCommitLag() {
+        Instant now = Instant.now();
+        Instant since = now.minus(Duration.ofHours(1));
+        Task first = task(1L, now.minusSeconds(10));
+        // Изменения моложе commit-lag: перед ними еще может зафиксироваться транзакция с меньшим updatedAt
+        Task second = task(2L, now.minusSeconds(1));
+        Task third = task(3L, now);
+
+        when(taskRepository.findUpdatedSince(eq(since), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(first, second, third));
+
+        TaskSyncDto sync = taskSyncService.getChanges(since, 0L, 2);
+
+        assertEquals(List.of(1L, 2L), sync.getTasks().stream().map(t -> t.getId()).toList());
+        // Курсор не переходит горизонт фиксации, свежие изменения придут следующей синхронизацией
+        assertFalse(sync.isHasMore());
+        assertTrue(sync.getNextUpdatedSince().isBefore(now.minusSeconds(4)));
+        assertTrue(sync.getNextUpdatedSince().isAfter(first.getUpdatedAt()));
+        assertEquals(0L, sync.getNextAfterId());
+    }
+
+    @Test
+    public void testGetChanges_LastPage() {
+        Instant since = Instant.now().minus(Duration.ofHours(1));
+        when(taskRepository.findUpdatedSince(eq(since), eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        TaskSyncDto sync = taskSyncService.getChanges(since, 0L, 100);
+
+        assertFalse(sync.isHasMore());
+        assertTrue(sync.getNextUpdatedSince().isAfter(since));
+        assertTrue(sync.getNextUpdatedSince().isBefore(Instant.now().minusSeconds(4)));
+    }
+
+    @Test
+    public void testGetChanges_ExpiredCursor() {
+        TaskSyncDto sync = taskSyncService.getChanges(Instant.now().minus(Duration.ofDays(31)), 0L, 100);
+
+        assertTrue(sync.isFullResyncRequired());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testOnTaskDeleted_SavesTombstone() {
+        taskSyncService.onTaskDeleted(TaskChangedEvent.builder()
+                .type(TaskChangeType.DELETED)
+                .taskId(5L)
+                .occurredAt(Instant.now())
+                .build());
+
+        ArgumentCaptor<TaskTombstone> captor = ArgumentCaptor.forClass(TaskTombstone.class);
+        verify(taskTombstoneRepository).save(captor.capture());
+        assertEquals(5L, captor.getValue().getTaskId());
+    }
+
+    private Task task(Long id, Instant updatedAt) {
+        return Task.builder()
+                .id(id)
+                .author(User.builder().id(1L).name("test").build())
+                .executors(new HashSet<>())
+                .comments(new HashSet<>())
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -1,19 +1,40 @@
 package org.example.taskservice.service;
 
 
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
 import jakarta.servlet.http.HttpServletRequest;
 import org.example.taskservice.entity.User;
 import org.example.taskservice.exeception.UserAlreadyExistsException;
+import org.example.taskservice.filter.IdentityHeaders;
 import org.example.taskservice.repository.UserRepository;
+import org.example.taskservice.sharding.ShardRouter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +47,15 @@ public class TestUserService {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.disabled();
+
+    @Spy
+    private IdentityHeaders identityHeaders = IdentityHeaders.disabled();
+
     @InjectMocks
     private UserService userService;
 
@@ -41,6 +71,74 @@ public class TestUserService {
         verify(userRepository, times(1)).save(user);
     }
 
+    @Test
+    public void testSaveUser_ReplicatedToShards() {
+        ShardRouter sharded = ShardRouter.sharded(3, 1);
+        UserService service = new UserService(userRepository, null, null, sharded, transactionManager,
+                IdentityHeaders.disabled());
+        User user = new User();
+        user.setEmail("test@example.com");
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.empty());
+        when(userRepository.save(user)).thenAnswer(invocation -> {
+            user.setId(7L);
+            return user;
+        });
+
+        try {
+            service.saveUser(user);
+        } finally {
+            sharded.shutdown();
+        }
+
+        // ID выдается основным шардом, на остальные пишется копия с тем же ID
+        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(2)).insertReplica(7L, "test@example.com", null, null);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    public void testFindOrCreateUser_RepairsFailedReplication() throws Exception {
+        String secretKey = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+        ShardRouter sharded = ShardRouter.sharded(3, 1);
+        UserService service = new UserService(userRepository, null, TestObservationRegistry.create(), sharded,
+                transactionManager, IdentityHeaders.disabled());
+        ReflectionTestUtils.setField(service, "secretKey", secretKey);
+        String token = Jwts.builder()
+                .subject("test@example.com")
+                .claim("name", "test")
+                .claim("roles", List.of("USER"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+
+        User saved = new User();
+        saved.setId(7L);
+        saved.setEmail("test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty(), Optional.of(saved));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(7L);
+            return user;
+        });
+        // Запись копии на шард 1 падает после записи пользователя на основной шард
+        doThrow(new IllegalStateException("shard 1 unavailable")).doNothing()
+                .when(userRepository).insertReplica(eq(7L), any(), any(), any());
+
+        try {
+            assertThrows(IllegalStateException.class, () -> service.findOrCreateUser(tokenRequest(token)));
+
+            // Следующий запрос находит пользователя на основном шарде и досоздает копии
+            assertEquals(7L, service.findOrCreateUser(tokenRequest(token)).getId());
+            verify(userRepository, times(3)).insertReplica(eq(7L), any(), any(), any());
+
+            // Скопированный на все шарды пользователь больше не проверяется
+            service.findOrCreateUser(tokenRequest(token));
+            verify(userRepository, times(3)).insertReplica(eq(7L), any(), any(), any());
+        } finally {
+            sharded.shutdown();
+        }
+    }
+
     @Test
     public void testSaveUser_UserAlreadyExists() {
 
@@ -52,4 +150,98 @@ public class TestUserService {
         assertThrows(UserAlreadyExistsException.class, () -> userService.saveUser(user));
     }
 
+    @Test
+    public void testGetClaimsFromToken_Observed() throws Exception {
+        String secretKey = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+        TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+        UserService service = new UserService(userRepository, null, observationRegistry,
+                ShardRouter.disabled(), transactionManager, IdentityHeaders.disabled());
+        ReflectionTestUtils.setField(service, "secretKey", secretKey);
+
+        String token = Jwts.builder()
+                .subject("test@example.com")
+                .claim("name", "test")
+                .claim("roles", List.of("USER"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
+
+        User user = service.getClaimsFromToken(request);
+
+        assertEquals("test@example.com", user.getEmail());
+        assertEquals("USER", user.getRole());
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo("jwt.parse")
+                .that()
+                .hasBeenStarted()
+                .hasBeenStopped()
+                .hasLowCardinalityKeyValue("jwt.source", "authorization-header");
+    }
+
+    @Test
+    public void testGetClaimsFromIdentityHeaders_TokenNotParsed() throws Exception {
+        String identityKey = Base64.getEncoder().encodeToString("internal-identity-key-0123456789ab".getBytes());
+        TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+        UserService service = new UserService(userRepository, null, observationRegistry, ShardRouter.disabled(),
+                transactionManager, IdentityHeaders.enabled(identityKey, Duration.ofSeconds(30)));
+
+        String timestamp = String.valueOf(Instant.now().getEpochSecond());
+        MockHttpServletRequest gatewayRequest = new MockHttpServletRequest();
+        gatewayRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer not-parsed");
+        gatewayRequest.addHeader(IdentityHeaders.SUBJECT, "test@example.com");
+        gatewayRequest.addHeader(IdentityHeaders.NAME, "%D0%98%D0%B2%D0%B0%D0%BD");
+        gatewayRequest.addHeader(IdentityHeaders.ROLES, "ROLE_USER,ROLE_ADMIN");
+        gatewayRequest.addHeader(IdentityHeaders.TIMESTAMP, timestamp);
+        gatewayRequest.addHeader(IdentityHeaders.SIGNATURE, IdentityHeaders.sign(
+                new SecretKeySpec(Base64.getDecoder().decode(identityKey), "HmacSHA256"),
+                "test@example.com", "%D0%98%D0%B2%D0%B0%D0%BD", "ROLE_USER,ROLE_ADMIN", timestamp));
+
+        User user = service.getClaimsFromToken(gatewayRequest);
+        // Повторный вызов в том же запросе берет пользователя из атрибута запроса
+        User again = service.getClaimsFromToken(gatewayRequest);
+
+        assertEquals("test@example.com", user.getEmail());
+        assertEquals("Иван", user.getName());
+        assertEquals("ROLE_USER, ROLE_ADMIN", user.getRole());
+        assertEquals("test@example.com", again.getEmail());
+        assertNotSame(user, again);
+        // Эталонная подпись шлюза для тех же данных
+        assertEquals("vrzD36q9wtoQ6U8tqdlyy-hyo1LAzvIu_XCTnrU-90o", IdentityHeaders.sign(
+                new SecretKeySpec(Base64.getDecoder().decode(identityKey), "HmacSHA256"),
+                "test@example.com", "%D0%98%D0%B2%D0%B0%D0%BD", "ROLE_USER,ROLE_ADMIN", "1767225600"));
+        TestObservationRegistryAssert.assertThat(observationRegistry).doesNotHaveAnyObservation();
+    }
+
+    @Test
+    public void testGetClaimsFromForgedIdentityHeaders_FallsBackToToken() throws Exception {
+        String secretKey = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+        String identityKey = Base64.getEncoder().encodeToString("internal-identity-key-0123456789ab".getBytes());
+        UserService service = new UserService(userRepository, null, TestObservationRegistry.create(),
+                ShardRouter.disabled(), transactionManager, IdentityHeaders.enabled(identityKey, Duration.ofSeconds(30)));
+        ReflectionTestUtils.setField(service, "secretKey", secretKey);
+
+        String token = Jwts.builder()
+                .subject("test@example.com")
+                .claim("name", "test")
+                .claim("roles", List.of("ROLE_USER"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+        MockHttpServletRequest forgedRequest = new MockHttpServletRequest();
+        forgedRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        forgedRequest.addHeader(IdentityHeaders.SUBJECT, "admin@example.com");
+        forgedRequest.addHeader(IdentityHeaders.ROLES, "ROLE_ADMIN");
+        forgedRequest.addHeader(IdentityHeaders.TIMESTAMP, String.valueOf(Instant.now().getEpochSecond()));
+        forgedRequest.addHeader(IdentityHeaders.SIGNATURE, "forged");
+
+        User user = service.getClaimsFromToken(forgedRequest);
+
+        assertEquals("test@example.com", user.getEmail());
+        assertEquals("ROLE_USER", user.getRole());
+    }
+
+    private static MockHttpServletRequest tokenRequest(String token) {
+        MockHttpServletRequest tokenRequest = new MockHttpServletRequest();
+        tokenRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return tokenRequest;
+    }
 }
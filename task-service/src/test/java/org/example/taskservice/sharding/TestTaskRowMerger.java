@@ -0,0 +1,126 @@
+package org.example.taskservice.sharding;
+
+import org.example.taskservice.dto.TaskRowPageDto;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.service.TaskSort;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestTaskRowMerger {
+
+    private final TaskRowMerger merger = new TaskRowMerger(null);
+
+    @Test
+    public void testMerge_PriorityDesc() {
+        TaskRowPageDto shard0 = page(List.of(row(3L, TaskPriority.HIGH), row(6L, TaskPriority.LOW)), 2);
+        TaskRowPageDto shard1 = page(List.of(row(7L, TaskPriority.HIGH), row(4L, TaskPriority.MEDIUM),
+                row(1L, TaskPriority.LOW)), 3);
+        TaskRowPageDto shard2 = page(List.of(), 0);
+
+        // Сортировка как в запросе: priority_rank desc, затем id desc
+        TaskRowPageDto first = merger.merge(List.of(shard0, shard1, shard2),
+                TaskSort.parse("priority,desc"), 0, 3);
+        TaskRowPageDto second = merger.merge(List.of(shard0, shard1, shard2),
+                TaskSort.parse("priority,desc"), 1, 3);
+
+        assertEquals(List.of(7L, 3L, 4L), ids(first));
+        assertEquals(List.of(6L, 1L), ids(second));
+        assertEquals(5, first.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+    }
+
+    @Test
+    public void testMerge_StatusInWorkflowOrder() {
+        Object[] done = row(1L, TaskPriority.LOW);
+        done[3] = TaskStatus.DONE;
+        Object[] waiting = row(2L, TaskPriority.LOW);
+        waiting[3] = TaskStatus.IN_WAITING;
+        Object[] inProgress = row(3L, TaskPriority.LOW);
+
+        TaskRowPageDto merged = merger.merge(
+                List.of(page(List.of(waiting, done), 2), page(List.<Object[]>of(inProgress), 1)),
+                TaskSort.parse("status"), 0, 10);
+
+        // По алфавиту DONE шел бы первым
+        assertEquals(List.of(2L, 3L, 1L), ids(merged));
+    }
+
+    @Test
+    public void testMerge_KeepsRelatedRowsOfPage() {
+        TaskRowPageDto shard0 = new TaskRowPageDto(List.<Object[]>of(row(3L, TaskPriority.LOW)),
+                Map.of(3L, List.<Object[]>of(new Object[]{3L, 10L, "executor"})),
+                Map.of(), 0, 1, 1);
+        TaskRowPageDto shard1 = new TaskRowPageDto(List.<Object[]>of(row(1L, TaskPriority.LOW)),
+                Map.of(1L, List.<Object[]>of(new Object[]{1L, 11L, "other"})),
+                Map.of(1L, List.<Object[]>of(new Object[]{1L, 5L, "comment", 11L, "other"})), 0, 1, 1);
+
+        TaskRowPageDto merged = merger.merge(List.of(shard0, shard1), TaskSort.parse(null), 0, 1);
+
+        assertEquals(List.of(1L), ids(merged));
+        assertEquals(1, merged.getExecutors().get(1L).size());
+        assertEquals(1, merged.getComments().get(1L).size());
+        assertNull(merged.getExecutors().get(3L));
+    }
+
+    @Test
+    public void testMerge_NullsLastAscending() {
+        Object[] withoutUpdate = row(2L, TaskPriority.LOW);
+        Object[] updated = row(5L, TaskPriority.LOW);
+        updated[9] = Instant.parse("2024-01-01T00:00:00Z");
+
+        TaskRowPageDto merged = merger.merge(
+                List.of(page(List.<Object[]>of(withoutUpdate), 1), page(List.<Object[]>of(updated), 1)),
+                TaskSort.parse("updatedAt"), 0, 10);
+
+        assertEquals(List.of(5L, 2L), ids(merged));
+    }
+
+    @Test
+    public void testMerge_NamesByDatabaseCollation() {
+        // Шарды отсортированы по en_US.UTF-8: строчные и заглавные буквы рядом
+        TaskRowPageDto shard0 = page(List.of(named(1L, "apple"), named(3L, "Cherry")), 2);
+        TaskRowPageDto shard1 = page(List.of(named(2L, "banana"), named(4L, "cherry")), 2);
+
+        TaskRowPageDto merged = new TaskRowMerger("en-US").merge(List.of(shard0, shard1),
+                TaskSort.parse("name"), 0, 10);
+
+        // String.compareTo поставил бы Cherry перед banana
+        assertEquals(List.of(1L, 2L, 4L, 3L), ids(merged));
+    }
+
+    @Test
+    public void testMerge_NamesByCodePoints() {
+        // Порядок collation "C": U+FF21 меньше U+1F600, хотя суррогат U+D83D меньше U+FF21
+        TaskRowPageDto shard0 = page(List.<Object[]>of(named(1L, "\uD83D\uDE00")), 1);
+        TaskRowPageDto shard1 = page(List.<Object[]>of(named(2L, "\uFF21")), 1);
+
+        TaskRowPageDto merged = merger.merge(List.of(shard0, shard1), TaskSort.parse("name"), 0, 10);
+
+        assertEquals(List.of(2L, 1L), ids(merged));
+    }
+
+    private Object[] named(Long id, String name) {
+        Object[] row = row(id, TaskPriority.LOW);
+        row[1] = name;
+        return row;
+    }
+
+    private TaskRowPageDto page(List<Object[]> rows, long total) {
+        return new TaskRowPageDto(rows, Map.of(), Map.of(), 0, rows.size(), total);
+    }
+
+    private Object[] row(Long id, TaskPriority priority) {
+        return new Object[]{id, "task-" + id, null, TaskStatus.IN_PROGRESS, priority, 1L, "author", null, null, null};
+    }
+
+    private List<Long> ids(TaskRowPageDto page) {
+        return page.getRows().stream().map(row -> (Long) row[0]).toList();
+    }
+}
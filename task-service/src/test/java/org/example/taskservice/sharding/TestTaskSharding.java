@@ -0,0 +1,170 @@
+package org.example.taskservice.sharding;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.example.taskservice.dto.CommentRequestDto;
+import org.example.taskservice.dto.PageView;
+import org.example.taskservice.dto.TaskRequestDto;
+import org.example.taskservice.dto.TaskResponseDto;
+import org.example.taskservice.dto.TaskRowPageDto;
+import org.example.taskservice.entity.TaskPriority;
+import org.example.taskservice.entity.TaskStatus;
+import org.example.taskservice.exeception.ShardingUnsupportedException;
+import org.example.taskservice.exeception.TaskNotFoundException;
+import org.example.taskservice.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка шардирования на трех базах H2 в режиме PostgreSQL.
+ */
+@SpringBootTest(properties = {
+        "spring.config.import=",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "management.tracing.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.open-in-view=false",
+        "security.jwt.secret_key=" + TestTaskSharding.SECRET,
+        "task-sharding.enabled=true",
+        "task-sharding.shards[0].url=" + TestTaskSharding.URL + "0" + TestTaskSharding.MODE,
+        "task-sharding.shards[1].url=" + TestTaskSharding.URL + "1" + TestTaskSharding.MODE,
+        "task-sharding.shards[2].url=" + TestTaskSharding.URL + "2" + TestTaskSharding.MODE
+})
+@DirtiesContext
+public class TestTaskSharding {
+
+    static final String SECRET = "c39d70463be1a5a035db4cf1f655d59434cdc5c34b29f1c25bc6a21ad3c25e22";
+    static final String URL = "jdbc:h2:mem:task-shard-";
+    static final String MODE = ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Test
+    public void testShardedTasks() throws Exception {
+        // Пользователи получают ID 1, 2, 3 и попадают на шарды 1, 2, 0
+        List<MockHttpServletRequest> authors = List.of(request("a@example.com"), request("b@example.com"),
+                request("c@example.com"));
+
+        List<Long> taskIds = new ArrayList<>();
+        TaskPriority[] priorities = TaskPriority.values();
+        for (int i = 0; i < 9; i++) {
+            taskIds.add(taskService.createTask(TaskRequestDto.builder()
+                    .name("task-" + i)
+                    .status(TaskStatus.IN_PROGRESS)
+                    .priority(priorities[i % priorities.length])
+                    .build(), authors.get(i % authors.size())));
+        }
+
+        // Задача лежит на шарде автора, и шард восстанавливается по ID
+        for (Long taskId : taskIds) {
+            TaskResponseDto task = taskService.getTaskById(taskId);
+            assertEquals(shardRouter.shardOf(task.getAuthorId()), shardRouter.shardOf(taskId));
+            assertEquals(1, countRows(shardRouter.shardOf(taskId), "select count(*) from task where id = " + taskId));
+        }
+        assertEquals(3, countRows(0, "select count(*) from task"));
+        assertEquals(3, countRows(1, "select count(*) from task"));
+        assertEquals(3, countRows(2, "select count(*) from task"));
+        // Пользователи есть на каждом шарде
+        assertEquals(3, countRows(1, "select count(*) from users"));
+        assertEquals(3, countRows(2, "select count(*) from users"));
+
+        // Исполнитель с другого шарда: его задачи собираются со всех шардов
+        Long taskId = taskIds.get(4);
+        Long executorId = taskService.getTaskById(taskIds.get(0)).getAuthorId();
+        execute(shardRouter.shardOf(taskId),
+                "insert into task_executors (task_id, user_id) values (" + taskId + ", " + executorId + ")");
+        PageView byExecutor = taskService.getTasksByExecutorId(executorId, 0, 10, null, null,
+                null, false);
+        assertEquals(1, byExecutor.getTotalElements());
+        assertEquals(taskId, ((TaskRowPageDto) byExecutor).getRows().get(0)[0]);
+
+        // Комментарий пишется на шард задачи
+        CommentRequestDto comment = new CommentRequestDto();
+        comment.setContent("sharded comment");
+        taskService.addComment(taskId, comment, authors.get(0));
+        assertEquals(1, taskService.getCommentsByTaskId(taskId, 0, 10).getTotalElements());
+        assertEquals(1, countRows(shardRouter.shardOf(taskId), "select count(*) from comment"));
+
+        // Задачи автора читаются с одного шарда
+        Long authorId = taskService.getTaskById(taskIds.get(0)).getAuthorId();
+        TaskRowPageDto byAuthor = (TaskRowPageDto) taskService.getTasksByAuthor(authorId, 0, 10, null, null,
+                null, false);
+        assertEquals(3, byAuthor.getTotalElements());
+
+        // Общий список собирается со всех шардов в порядке сортировки
+        List<Object[]> expected = new ArrayList<>();
+        for (Long id : taskIds) {
+            TaskResponseDto task = taskService.getTaskById(id);
+            expected.add(new Object[]{id, task.getPriority()});
+        }
+        expected.sort(Comparator.<Object[], Integer>comparing(row -> ((TaskPriority) row[1]).ordinal()).reversed()
+                .thenComparing(row -> -(Long) row[0]));
+
+        List<Long> merged = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            PageView result = taskService.getAllTasks(null, null, page, 4, "priority,desc", false);
+            assertEquals(9, result.getTotalElements());
+            assertEquals(3, result.getTotalPages());
+            for (Object[] row : ((TaskRowPageDto) result).getRows()) {
+                merged.add((Long) row[0]);
+            }
+        }
+        assertEquals(expected.stream().map(row -> (Long) row[0]).toList(), merged);
+
+        // Удаление по ID идет в шард задачи
+        taskService.deleteTask(taskIds.get(1));
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(taskIds.get(1)));
+        assertEquals(8, taskService.getAllTasks(null, null, 0, 10, null, false).getTotalElements());
+    }
+
+    @Test
+    public void testArchiveAcrossShardsUnsupported() {
+        assertThrows(ShardingUnsupportedException.class,
+                () -> taskService.getAllTasks(null, null, 0, 10, null, true));
+    }
+
+    private MockHttpServletRequest request(String email) {
+        String token = Jwts.builder()
+                .subject(email)
+                .claim("name", email)
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    private void execute(int shard, String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL + shard + MODE)) {
+            connection.createStatement().execute(sql);
+        }
+    }
+
+    private long countRows(int shard, String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL + shard + MODE);
+             ResultSet resultSet = connection.createStatement().executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}